@@ -7,8 +7,11 @@
 package com.erebelo.graphdemo.api;
 
 import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Node;
 import com.erebelo.graphdemo.model.Path;
+import java.time.Instant;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 /**
  * Service for performing graph-wide operations like path finding and
@@ -21,13 +24,44 @@ public interface GraphService {
      */
     boolean hasPath(NanoId sourceNodeId, NanoId targetNodeId);
 
+    /**
+     * Checks if a path existed between two nodes in the graph as of a timestamp.
+     */
+    boolean hasPathAt(NanoId sourceNodeId, NanoId targetNodeId, Instant timestamp);
+
     /**
      * Returns all currently connected paths in the active graph.
      */
     List<Path> getActiveConnected();
 
+    /**
+     * Returns the active nodes grouped by weakly connected component, in the order
+     * of the first node of each group. A node without edges is a group of its
+     * own.
+     */
+    List<List<Node>> getActiveComponents();
+
+    /**
+     * Reports, for every active node, the nodes it can reach. Results are passed
+     * to the consumer as they are computed, concurrently and in no particular
+     * order, so the consumer must be thread-safe.
+     */
+    void forEachReachable(BiConsumer<Node, List<Node>> consumer);
+
     /**
      * Finds the shortest path between two nodes in the active graph.
      */
     Path getShortestPath(NanoId sourceNodeId, NanoId targetNodeId);
+
+    /**
+     * Finds the shortest path between two nodes in the graph as of a timestamp.
+     */
+    Path getShortestPathAt(NanoId sourceNodeId, NanoId targetNodeId, Instant timestamp);
+
+    /**
+     * Finds the lowest weight path between two nodes in the active graph, using
+     * edge weights taken from edge data. Returns an empty path if the target
+     * cannot be reached.
+     */
+    Path getWeightedShortestPath(NanoId sourceNodeId, NanoId targetNodeId);
 }
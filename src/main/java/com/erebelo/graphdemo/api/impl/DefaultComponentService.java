@@ -13,6 +13,7 @@ import com.erebelo.graphdemo.model.Component;
 import com.erebelo.graphdemo.model.Data;
 import com.erebelo.graphdemo.model.Element;
 import com.erebelo.graphdemo.model.jgrapht.ComponentOperations;
+import com.erebelo.graphdemo.persistence.GraphListenerRepository;
 import com.erebelo.graphdemo.persistence.GraphRepository;
 import java.time.Instant;
 import java.util.List;
@@ -22,6 +23,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Default implementation of ComponentService using session-based transactions.
+ * Components are saved directly, but reading one resolves its nodes and edges,
+ * so those reads first wait for the graph changes flushed before them.
  */
 @Service
 public final class DefaultComponentService implements ComponentService {
@@ -30,10 +33,14 @@ public final class DefaultComponentService implements ComponentService {
 
     private final ComponentOperations componentOperations;
 
-    public DefaultComponentService(final GraphRepository repository, final ComponentOperations componentOperations) {
+    private final GraphListenerRepository listenerRepository;
+
+    public DefaultComponentService(final GraphRepository repository, final ComponentOperations componentOperations,
+            final GraphListenerRepository listenerRepository) {
 
         this.repository = repository;
         this.componentOperations = componentOperations;
+        this.listenerRepository = listenerRepository;
     }
 
     @Override
@@ -57,8 +64,8 @@ public final class DefaultComponentService implements ComponentService {
     @Transactional(readOnly = true)
     public List<Component> findActiveContaining(final NanoId id) {
 
-        // Find all active components and check if they contain an element with this ID
-        return componentOperations.allActive().stream()
+        // Look up the active components containing the element directly by ID
+        return componentOperations.findComponentsContaining(id).stream()
                 .filter(component -> component.elements().stream()
                         .anyMatch(element -> element.locator().id().equals(id) && element.expired().isEmpty()))
                 .toList();
@@ -81,6 +88,7 @@ public final class DefaultComponentService implements ComponentService {
     @Transactional(readOnly = true)
     public Component find(final Locator locator) {
 
+        listenerRepository.awaitPersisted();
         return repository.components().find(locator)
                 .orElseThrow(() -> new IllegalArgumentException("Component not found: " + locator));
     }
@@ -89,6 +97,7 @@ public final class DefaultComponentService implements ComponentService {
     @Transactional(readOnly = true)
     public Optional<Component> findActive(final NanoId id) {
 
+        listenerRepository.awaitPersisted();
         return repository.components().findActive(id);
     }
 
@@ -96,6 +105,7 @@ public final class DefaultComponentService implements ComponentService {
     @Transactional(readOnly = true)
     public Optional<Component> findAt(final NanoId id, final Instant timestamp) {
 
+        listenerRepository.awaitPersisted();
         return repository.components().findAt(id, timestamp);
     }
 
@@ -103,6 +113,7 @@ public final class DefaultComponentService implements ComponentService {
     @Transactional(readOnly = true)
     public List<Component> findAllVersions(final NanoId id) {
 
+        listenerRepository.awaitPersisted();
         return repository.components().findAll(id);
     }
 
@@ -13,7 +13,8 @@ import com.erebelo.graphdemo.model.Data;
 import com.erebelo.graphdemo.model.Edge;
 import com.erebelo.graphdemo.model.Node;
 import com.erebelo.graphdemo.model.jgrapht.EdgeOperations;
-import com.erebelo.graphdemo.model.jgrapht.NodeOperations;
+import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
+import com.erebelo.graphdemo.persistence.GraphListenerRepository;
 import com.erebelo.graphdemo.persistence.GraphRepository;
 import java.time.Instant;
 import java.util.List;
@@ -23,61 +24,64 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Default implementation of EdgeService using session-based transactions.
+ * Changes are persisted by the graph listener repository, which receives every
+ * graph event, and reads from the repository first wait for the changes
+ * flushed before them.
  */
 @Service
 public final class DefaultEdgeService implements EdgeService {
 
     private final GraphRepository repository;
     private final EdgeOperations edgeOperations;
-    private final NodeOperations nodeOperations;
+    private final GraphOperations graphOperations;
+    private final GraphListenerRepository listenerRepository;
 
     public DefaultEdgeService(final GraphRepository repository, final EdgeOperations edgeOperations,
-            final NodeOperations nodeOperations) {
+            final GraphOperations graphOperations, final GraphListenerRepository listenerRepository) {
 
         this.repository = repository;
         this.edgeOperations = edgeOperations;
-        this.nodeOperations = nodeOperations;
+        this.graphOperations = graphOperations;
+        this.listenerRepository = listenerRepository;
     }
 
     @Override
     @Transactional
     public Edge addEdge(final Node source, final Node target, final Data data) {
 
-        final var edge = edgeOperations.add(source, target, data, Instant.now());
-        return repository.edges().save(edge);
+        return edgeOperations.add(source, target, data, Instant.now());
     }
 
     @Override
     @Transactional
     public Edge updateEdge(final NanoId id, final Data data) {
 
-        final var edge = edgeOperations.update(id, data, Instant.now());
-        repository.edges().save(edge);
-        return edge;
+        return edgeOperations.update(id, data, Instant.now());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Edge> getEdgesFrom(final NanoId nodeId) {
 
-        final var node = nodeOperations.findActive(nodeId)
-                .orElseThrow(() -> new IllegalArgumentException("Node not found: " + nodeId));
-        return edgeOperations.getEdgesFrom(node);
+        final var snapshot = graphOperations.snapshot();
+        snapshot.findNode(nodeId).orElseThrow(() -> new IllegalArgumentException("Node not found: " + nodeId));
+        return snapshot.edgesFrom(nodeId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Edge> getEdgesTo(final NanoId nodeId) {
 
-        final var node = nodeOperations.findActive(nodeId)
-                .orElseThrow(() -> new IllegalArgumentException("Node not found: " + nodeId));
-        return edgeOperations.getEdgesTo(node);
+        final var snapshot = graphOperations.snapshot();
+        snapshot.findNode(nodeId).orElseThrow(() -> new IllegalArgumentException("Node not found: " + nodeId));
+        return snapshot.edgesTo(nodeId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Edge find(final Locator locator) {
 
+        listenerRepository.awaitPersisted();
         return repository.edges().find(locator)
                 .orElseThrow(() -> new IllegalArgumentException("Edge not found: " + locator));
     }
@@ -86,6 +90,7 @@ public final class DefaultEdgeService implements EdgeService {
     @Transactional(readOnly = true)
     public Optional<Edge> findActive(final NanoId id) {
 
+        listenerRepository.awaitPersisted();
         return repository.edges().findActive(id);
     }
 
@@ -93,6 +98,7 @@ public final class DefaultEdgeService implements EdgeService {
     @Transactional(readOnly = true)
     public Optional<Edge> findAt(final NanoId id, final Instant timestamp) {
 
+        listenerRepository.awaitPersisted();
         return repository.edges().findAt(id, timestamp);
     }
 
@@ -100,6 +106,7 @@ public final class DefaultEdgeService implements EdgeService {
     @Transactional(readOnly = true)
     public List<Edge> findAllVersions(final NanoId id) {
 
+        listenerRepository.awaitPersisted();
         return repository.edges().findAll(id);
     }
 
@@ -107,6 +114,7 @@ public final class DefaultEdgeService implements EdgeService {
     @Transactional(readOnly = true)
     public List<NanoId> allActive() {
 
+        listenerRepository.awaitPersisted();
         return repository.edges().allActiveIds();
     }
 
@@ -114,6 +122,7 @@ public final class DefaultEdgeService implements EdgeService {
     @Transactional(readOnly = true)
     public List<NanoId> all() {
 
+        listenerRepository.awaitPersisted();
         return repository.edges().allIds();
     }
 
@@ -123,9 +132,7 @@ public final class DefaultEdgeService implements EdgeService {
 
         final var activeEdge = edgeOperations.findActive(id);
         if (activeEdge.isPresent()) {
-            final var expired = edgeOperations.expire(id, Instant.now());
-            repository.edges().expire(id, expired.expired().get());
-            return Optional.of(expired);
+            return Optional.of(edgeOperations.expire(id, Instant.now()));
         }
         return Optional.empty();
     }
@@ -134,6 +141,8 @@ public final class DefaultEdgeService implements EdgeService {
     @Transactional
     public boolean delete(final NanoId id) {
 
+        // Let pending writes land first so they cannot recreate the edge
+        listenerRepository.awaitPersisted();
         return repository.edges().delete(id);
     }
 }
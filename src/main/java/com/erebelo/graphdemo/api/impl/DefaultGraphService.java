@@ -8,11 +8,18 @@ package com.erebelo.graphdemo.api.impl;
 
 import com.erebelo.graphdemo.api.GraphService;
 import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Node;
 import com.erebelo.graphdemo.model.Path;
+import com.erebelo.graphdemo.model.jgrapht.ConnectivityTracker;
 import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
-import com.erebelo.graphdemo.model.jgrapht.NodeOperations;
+import com.erebelo.graphdemo.model.jgrapht.HistoricalGraphs;
+import com.erebelo.graphdemo.model.jgrapht.PathOperations;
+import com.erebelo.graphdemo.model.jgrapht.WeightedPathEngine;
 import com.erebelo.graphdemo.persistence.GraphRepository;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,72 +31,117 @@ public final class DefaultGraphService implements GraphService {
 
     private final GraphRepository repository;
     private final GraphOperations graphOperations;
-    private final NodeOperations nodeOperations;
-    // FIXME: PathOperations should be injected once SimpleMutableGraph is
-    // implemented
-    // private final PathOperations pathOperations;
+    private final PathOperations pathOperations;
+    private final ConnectivityTracker connectivityTracker;
+    private final HistoricalGraphs historicalGraphs;
+    private final WeightedPathEngine weightedPathEngine;
 
     public DefaultGraphService(final GraphRepository repository, final GraphOperations graphOperations,
-            final NodeOperations nodeOperations) {
+            final PathOperations pathOperations, final ConnectivityTracker connectivityTracker,
+            final HistoricalGraphs historicalGraphs, final WeightedPathEngine weightedPathEngine) {
 
         this.repository = repository;
         this.graphOperations = graphOperations;
-        this.nodeOperations = nodeOperations;
+        this.pathOperations = pathOperations;
+        this.connectivityTracker = connectivityTracker;
+        this.historicalGraphs = historicalGraphs;
+        this.weightedPathEngine = weightedPathEngine;
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean hasPath(final NanoId sourceNodeId, final NanoId targetNodeId) {
 
-        final var sourceNode = nodeOperations.findActive(sourceNodeId)
+        final var snapshot = graphOperations.snapshot();
+        final var sourceNode = snapshot.findNode(sourceNodeId)
                 .orElseThrow(() -> new IllegalArgumentException("Source node not found: " + sourceNodeId));
-        final var targetNode = nodeOperations.findActive(targetNodeId)
+        final var targetNode = snapshot.findNode(targetNodeId)
                 .orElseThrow(() -> new IllegalArgumentException("Target node not found: " + targetNodeId));
 
-        // FIXME: Use pathOperations once it's properly injected
-        throw new UnsupportedOperationException("PathOperations not yet integrated");
-        // return pathOperations.pathExists(sourceNode, targetNode);
+        return pathOperations.pathExists(snapshot, sourceNode, targetNode);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Path> getActiveConnected() {
+    public boolean hasPathAt(final NanoId sourceNodeId, final NanoId targetNodeId, final Instant timestamp) {
 
-        // Get all active nodes
-        final var activeNodes = nodeOperations.allActive();
+        final var snapshot = historicalGraphs.snapshotAt(timestamp);
+        final var sourceNode = snapshot.findNode(sourceNodeId)
+                .orElseThrow(() -> new IllegalArgumentException("Source node not found: " + sourceNodeId));
+        final var targetNode = snapshot.findNode(targetNodeId)
+                .orElseThrow(() -> new IllegalArgumentException("Target node not found: " + targetNodeId));
 
-        // Find all connected paths among active nodes
-        final var connectedPaths = new java.util.ArrayList<Path>();
+        return pathOperations.pathExists(snapshot, sourceNode, targetNode);
+    }
 
-        for (var i = 0; i < activeNodes.size(); i++) {
-            for (var j = i + 1; j < activeNodes.size(); j++) {
-                final var sourceNode = activeNodes.get(i);
-                final var targetNode = activeNodes.get(j);
+    @Override
+    @Transactional(readOnly = true)
+    public List<Path> getActiveConnected() {
 
-                // FIXME: Use pathOperations once it's properly injected
-                // if (pathOperations.pathExists(sourceNode, targetNode)) {
-                // final var paths = pathOperations.allPaths(sourceNode, targetNode);
-                if (false) {
-                    final var paths = List.<Path>of();
-                    connectedPaths.addAll(paths);
+        // Only pairs in the same component can be connected, so pairs that span
+        // components are never searched
+        final var snapshot = graphOperations.snapshot();
+        final var connectedPaths = new ArrayList<Path>();
+        for (final var group : connectivityTracker.groups(snapshot.nodes())) {
+            for (var i = 0; i < group.size(); i++) {
+                for (var j = i + 1; j < group.size(); j++) {
+                    final var sourceNode = group.get(i);
+                    final var targetNode = group.get(j);
+                    if (pathOperations.pathExists(snapshot, sourceNode, targetNode)) {
+                        pathOperations.paths(snapshot, sourceNode, targetNode, Integer.MAX_VALUE, Long.MAX_VALUE, null)
+                                .forEach(connectedPaths::add);
+                    }
                 }
             }
         }
-
         return connectedPaths;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<List<Node>> getActiveComponents() {
+
+        // Answered from the incrementally maintained union-find, without searching
+        return connectivityTracker.groups(graphOperations.snapshot().nodes());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachReachable(final BiConsumer<Node, List<Node>> consumer) {
+
+        pathOperations.reachableSets(graphOperations.snapshot(), consumer);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Path getShortestPath(final NanoId sourceNodeId, final NanoId targetNodeId) {
 
-        final var sourceNode = nodeOperations.findActive(sourceNodeId)
+        final var snapshot = graphOperations.snapshot();
+        final var sourceNode = snapshot.findNode(sourceNodeId)
                 .orElseThrow(() -> new IllegalArgumentException("Source node not found: " + sourceNodeId));
-        final var targetNode = nodeOperations.findActive(targetNodeId)
+        final var targetNode = snapshot.findNode(targetNodeId)
                 .orElseThrow(() -> new IllegalArgumentException("Target node not found: " + targetNodeId));
 
-        // FIXME: Use pathOperations once it's properly injected
-        throw new UnsupportedOperationException("PathOperations not yet integrated");
-        // return pathOperations.shortestPath(sourceNode, targetNode);
+        return pathOperations.shortestPath(snapshot, sourceNode, targetNode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Path getShortestPathAt(final NanoId sourceNodeId, final NanoId targetNodeId, final Instant timestamp) {
+
+        final var snapshot = historicalGraphs.snapshotAt(timestamp);
+        final var sourceNode = snapshot.findNode(sourceNodeId)
+                .orElseThrow(() -> new IllegalArgumentException("Source node not found: " + sourceNodeId));
+        final var targetNode = snapshot.findNode(targetNodeId)
+                .orElseThrow(() -> new IllegalArgumentException("Target node not found: " + targetNodeId));
+
+        return pathOperations.shortestPath(snapshot, sourceNode, targetNode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Path getWeightedShortestPath(final NanoId sourceNodeId, final NanoId targetNodeId) {
+
+        return weightedPathEngine.shortestPath(sourceNodeId, targetNodeId);
     }
 }
@@ -11,7 +11,9 @@ import com.erebelo.graphdemo.common.version.Locator;
 import com.erebelo.graphdemo.common.version.NanoId;
 import com.erebelo.graphdemo.model.Data;
 import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
 import com.erebelo.graphdemo.model.jgrapht.NodeOperations;
+import com.erebelo.graphdemo.persistence.GraphListenerRepository;
 import com.erebelo.graphdemo.persistence.GraphRepository;
 import java.time.Instant;
 import java.util.List;
@@ -20,50 +22,56 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Default implementation of NodeService using Spring transactions.
+ * Default implementation of NodeService using Spring transactions. Changes are
+ * persisted by the graph listener repository, which receives every graph event
+ * (including the versions and edges a change expires), and reads from the
+ * repository first wait for the changes flushed before them.
  */
 @Service
 public final class DefaultNodeService implements NodeService {
 
     private final GraphRepository repository;
     private final NodeOperations nodeOperations;
+    private final GraphOperations graphOperations;
+    private final GraphListenerRepository listenerRepository;
 
-    public DefaultNodeService(final GraphRepository repository, final NodeOperations nodeOperations) {
+    public DefaultNodeService(final GraphRepository repository, final NodeOperations nodeOperations,
+            final GraphOperations graphOperations, final GraphListenerRepository listenerRepository) {
 
         this.repository = repository;
         this.nodeOperations = nodeOperations;
+        this.graphOperations = graphOperations;
+        this.listenerRepository = listenerRepository;
     }
 
     @Override
     @Transactional
     public Node add(final Data data) {
 
-        final var node = nodeOperations.add(data, Instant.now());
-        return repository.nodes().save(node);
+        return nodeOperations.add(data, Instant.now());
     }
 
     @Override
     @Transactional
     public Node update(final NanoId id, final Data data) {
 
-        final var node = nodeOperations.update(id, data, Instant.now());
-        repository.nodes().save(node);
-        return node;
+        return nodeOperations.update(id, data, Instant.now());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Node> getNeighbors(final NanoId nodeId) {
 
-        final var node = nodeOperations.findActive(nodeId)
-                .orElseThrow(() -> new IllegalArgumentException("Node not found: " + nodeId));
-        return nodeOperations.getNeighbors(node);
+        final var snapshot = graphOperations.snapshot();
+        snapshot.findNode(nodeId).orElseThrow(() -> new IllegalArgumentException("Node not found: " + nodeId));
+        return snapshot.neighbors(nodeId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Node find(final Locator locator) {
 
+        listenerRepository.awaitPersisted();
         return repository.nodes().find(locator)
                 .orElseThrow(() -> new IllegalArgumentException("Node not found: " + locator));
     }
@@ -72,6 +80,7 @@ public final class DefaultNodeService implements NodeService {
     @Transactional(readOnly = true)
     public Optional<Node> findActive(final NanoId id) {
 
+        listenerRepository.awaitPersisted();
         return repository.nodes().findActive(id);
     }
 
@@ -79,6 +88,7 @@ public final class DefaultNodeService implements NodeService {
     @Transactional(readOnly = true)
     public Optional<Node> findAt(final NanoId id, final Instant timestamp) {
 
+        listenerRepository.awaitPersisted();
         return repository.nodes().findAt(id, timestamp);
     }
 
@@ -86,6 +96,7 @@ public final class DefaultNodeService implements NodeService {
     @Transactional(readOnly = true)
     public List<Node> findAllVersions(final NanoId id) {
 
+        listenerRepository.awaitPersisted();
         return repository.nodes().findAll(id);
     }
 
@@ -93,6 +104,7 @@ public final class DefaultNodeService implements NodeService {
     @Transactional(readOnly = true)
     public List<NanoId> allActive() {
 
+        listenerRepository.awaitPersisted();
         return repository.nodes().allActiveIds();
     }
 
@@ -100,6 +112,7 @@ public final class DefaultNodeService implements NodeService {
     @Transactional(readOnly = true)
     public List<NanoId> all() {
 
+        listenerRepository.awaitPersisted();
         return repository.nodes().allIds();
     }
 
@@ -113,7 +126,6 @@ public final class DefaultNodeService implements NodeService {
             if (expired.expired().isEmpty()) {
                 throw new IllegalStateException("Expired node is missing an expiration timestamp");
             }
-            repository.nodes().expire(id, expired.expired().get());
             return Optional.of(expired);
         }
         return Optional.empty();
@@ -123,6 +135,8 @@ public final class DefaultNodeService implements NodeService {
     @Transactional
     public boolean delete(final NanoId id) {
 
+        // Let pending writes land first so they cannot recreate the node
+        listenerRepository.awaitPersisted();
         return repository.nodes().delete(id);
     }
 }
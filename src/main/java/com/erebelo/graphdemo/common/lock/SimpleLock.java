@@ -11,6 +11,7 @@ import com.erebelo.graphdemo.common.fp.Io;
 import com.erebelo.graphdemo.common.fp.Proc0;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -74,4 +75,19 @@ public final class SimpleLock {
             lock.unlock();
         }
     }
+
+    /**
+     * Executes the supplier within the lock. Unlike withReturn(), unchecked
+     * exceptions propagate unchanged, so callers can signal domain errors (e.g.
+     * IllegalArgumentException) from inside the lock.
+     */
+    public <T> T withSupplier(final @NotNull Supplier<T> fx) {
+
+        lock.lock();
+        try {
+            return fx.get();
+        } finally {
+            lock.unlock();
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.common.lock;
+
+import com.erebelo.graphdemo.common.version.NanoId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Fixed set of re-entrant locks (stripes) keyed by Nano ID. Work on different
+ * IDs usually maps to different stripes and proceeds in parallel, while work on
+ * the same ID is serialized. Multiple stripes are always acquired in ascending
+ * stripe order, so callers locking overlapping sets of IDs cannot deadlock.
+ */
+public final class StripedLock {
+
+    private final SimpleLock[] stripes;
+
+    /**
+     * Mask selecting a stripe from a hash (the stripe count is a power of two).
+     */
+    private final int mask;
+
+    /**
+     * Creates a striped lock with at least the specified number of stripes
+     * (rounded up to a power of two).
+     */
+    public StripedLock(final int stripeCount) {
+
+        final var count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new SimpleLock[count];
+        for (var i = 0; i < count; i++) {
+            stripes[i] = SimpleLock.reentrant();
+        }
+        mask = count - 1;
+    }
+
+    /**
+     * Executes the supplier holding the stripes of every specified ID. Unchecked
+     * exceptions propagate unchanged.
+     */
+    public <T> T withSupplier(final @NotNull Collection<NanoId> ids, final @NotNull Supplier<T> fx) {
+
+        final var selected = new boolean[stripes.length];
+        for (final var id : ids) {
+            selected[stripe(id)] = true;
+        }
+        return acquire(selected, 0, fx);
+    }
+
+    /**
+     * Executes the supplier holding every stripe, so no other work holding a
+     * stripe runs at the same time. Unchecked exceptions propagate unchanged.
+     */
+    public <T> T withAll(final @NotNull Supplier<T> fx) {
+
+        final var selected = new boolean[stripes.length];
+        Arrays.fill(selected, true);
+        return acquire(selected, 0, fx);
+    }
+
+    /**
+     * Acquires the selected stripes from the specified index upwards, then
+     * executes the supplier.
+     */
+    private <T> T acquire(final boolean[] selected, final int from, final Supplier<T> fx) {
+
+        var index = from;
+        while ((index < selected.length) && !selected[index]) {
+            index++;
+        }
+        if (index == selected.length) {
+            return fx.get();
+        }
+        final var next = index + 1;
+        return stripes[index].withSupplier(() -> acquire(selected, next, fx));
+    }
+
+    /**
+     * Selects the stripe of an ID, spreading the hash so that the high bits also
+     * contribute.
+     */
+    private int stripe(final NanoId id) {
+
+        final var hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
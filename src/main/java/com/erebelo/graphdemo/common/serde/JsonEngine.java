@@ -0,0 +1,151 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.common.serde;
+
+import com.erebelo.graphdemo.common.fp.Io;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared JSON engine around one configured ObjectMapper, or a mapper for one of
+ * Jackson's binary formats. Building and configuring a mapper is expensive, so
+ * an engine is created once and reused; readers are cached per target type and
+ * class names are resolved once. Callers that know the layout of a document
+ * can use the streaming parser and generator directly rather than going
+ * through a JsonNode tree. Mappers, readers and writers are immutable once
+ * configured, so this type is thread-safe.
+ */
+public final class JsonEngine {
+
+    private final ObjectMapper mapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ObjectWriter defaultWriter;
+    private final Map<String, Class<?>> types = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an engine over a fully configured mapper, which must not be
+     * reconfigured afterwards.
+     */
+    public JsonEngine(final ObjectMapper mapper) {
+
+        this.mapper = mapper;
+        defaultWriter = mapper.writer();
+    }
+
+    /**
+     * Returns the reader for a target type.
+     */
+    public ObjectReader reader(final Class<?> target) {
+
+        return readers.computeIfAbsent(target, mapper::readerFor);
+    }
+
+    /**
+     * Resolves a class by name, caching the result.
+     */
+    public Class<?> resolve(final String typeName) {
+
+        final var type = types.get(typeName);
+        if (type != null) {
+            return type;
+        }
+        final var resolved = Io.withReturn(() -> Class.forName(typeName));
+        types.put(typeName, resolved);
+        return resolved;
+    }
+
+    /**
+     * Returns the factory for streaming parsers and generators.
+     */
+    public JsonFactory factory() {
+
+        return mapper.getFactory();
+    }
+
+    /**
+     * Creates a streaming parser over JSON text.
+     */
+    public JsonParser parser(final String json) {
+
+        return Io.withReturn(() -> mapper.getFactory().createParser(json));
+    }
+
+    /**
+     * Creates a streaming parser over encoded bytes (for binary formats).
+     */
+    public JsonParser parser(final byte[] content) {
+
+        return Io.withReturn(() -> mapper.getFactory().createParser(content));
+    }
+
+    /**
+     * Creates a streaming generator writing encoded bytes to the stream (for
+     * binary formats).
+     */
+    public JsonGenerator generator(final OutputStream out) {
+
+        return Io.withReturn(() -> mapper.getFactory().createGenerator(out));
+    }
+
+    /**
+     * Creates a streaming generator writing to the writer.
+     */
+    public JsonGenerator generator(final Writer writer) {
+
+        return Io.withReturn(() -> mapper.getFactory().createGenerator(writer));
+    }
+
+    /**
+     * Deserializes JSON text to the target type.
+     */
+    public <T> T read(final String json, final Class<T> target) {
+
+        return Io.withReturn(() -> reader(target).readValue(json));
+    }
+
+    /**
+     * Deserializes JSON from a reader to the target type.
+     */
+    public <T> T read(final Reader reader, final Class<T> target) {
+
+        return Io.withReturn(() -> reader(target).readValue(reader));
+    }
+
+    /**
+     * Serializes a value to JSON text using the mapper's default writer, so the
+     * root type is the runtime type of the value as with ObjectMapper itself.
+     */
+    public String write(final Object value) {
+
+        return Io.withReturn(() -> defaultWriter.writeValueAsString(value));
+    }
+
+    /**
+     * Serializes a value as JSON to a writer.
+     */
+    public void write(final Object value, final Writer writer) {
+
+        Io.withVoid(() -> defaultWriter.writeValue(writer, value));
+    }
+
+    /**
+     * Serializes a value through a streaming generator.
+     */
+    public void write(final Object value, final JsonGenerator generator) {
+
+        Io.withVoid(() -> defaultWriter.writeValue(generator, value));
+    }
+}
@@ -23,6 +23,11 @@ import java.util.function.Supplier;
  */
 public final class JsonSerde {
 
+    /**
+     * Shared engine, configured once.
+     */
+    private static final JsonEngine ENGINE = new JsonEngine(createMapper());
+
     /**
      * Type contains only static methods.
      */
@@ -34,7 +39,7 @@ public final class JsonSerde {
      */
     public static <T> T fromJson(final String json, final Class<T> target) {
 
-        return Io.withReturn(() -> createMapper().readValue(json, target));
+        return ENGINE.read(json, target);
     }
 
     /**
@@ -42,7 +47,7 @@ public final class JsonSerde {
      */
     public static <T> T fromJson(final Reader reader, final Class<T> target) {
 
-        return Io.withReturn(() -> createMapper().readValue(reader, target));
+        return ENGINE.read(reader, target);
     }
 
     /**
@@ -62,7 +67,7 @@ public final class JsonSerde {
      */
     public static String toJson(final Object target) {
 
-        return Io.withReturn(() -> createMapper().writeValueAsString(target));
+        return ENGINE.write(target);
     }
 
     /**
@@ -70,7 +75,7 @@ public final class JsonSerde {
      */
     public static void toJson(final Object target, final Writer writer) {
 
-        Io.withVoid(() -> createMapper().writeValue(writer, target));
+        ENGINE.write(target, writer);
     }
 
     /**
@@ -96,7 +101,16 @@ public final class JsonSerde {
     }
 
     /**
-     * Creates an object mapper to use.
+     * Returns the shared engine, for callers that need cached readers and writers
+     * or streaming access.
+     */
+    public static JsonEngine engine() {
+
+        return ENGINE;
+    }
+
+    /**
+     * Creates the object mapper to use.
      *
      * @return ObjectMapper Mapper to use
      */
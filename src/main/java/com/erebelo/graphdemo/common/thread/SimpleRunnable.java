@@ -27,8 +27,15 @@ public abstract class SimpleRunnable implements Runnable {
     public final void run() {
 
         alive = true;
-        while (alive && (!Thread.interrupted())) {
-            alive = go();
+        try {
+            // Only ever clear the flag, so a kill9() made during go() is not lost
+            while (alive && (!Thread.interrupted())) {
+                if (!go()) {
+                    alive = false;
+                }
+            }
+        } finally {
+            stopped();
         }
     }
 
@@ -63,4 +70,14 @@ public abstract class SimpleRunnable implements Runnable {
      * @return boolean True to continue, false to stop
      */
     protected abstract boolean go();
+
+    /**
+     * Called once the run() method stops, whether go() returned false, kill9()
+     * was called or the thread was interrupted. Subclasses can override this to
+     * release resources or finish outstanding work. Note that ThreadRegistry
+     * interrupts its threads right after asking them to stop, so blocking work
+     * done here may be interrupted.
+     */
+    protected void stopped() {
+    }
 }
@@ -0,0 +1,252 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.common.version;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval tree over the [created, expired) lifetime of versioned items. Items
+ * that have not expired are treated as open-ended. The tree is a randomized
+ * treap ordered by creation time where each entry also tracks the latest end of
+ * its subtree, so a point-in-time query only descends into subtrees that can
+ * contain a match. Queries cost O(log n + k) for k matches. This type is not
+ * thread-safe; its owner (a VersionIndex) guards it.
+ */
+public final class IntervalTree<E extends Versioned> {
+
+    /**
+     * Entries by locator so a version can be replaced (e.g. when it expires).
+     */
+    private final Map<Locator, Entry<E>> entries = new HashMap<>();
+
+    /**
+     * Root of the treap.
+     */
+    private Entry<E> root = null;
+
+    /**
+     * Insertion sequence used to order entries created at the same instant.
+     */
+    private long sequence = 0L;
+
+    /**
+     * Adds an item to the tree, replacing any existing item with the same locator.
+     */
+    public void put(final E item) {
+
+        final var existing = entries.remove(item.locator());
+        if (existing != null) {
+            root = remove(root, existing);
+        }
+        final var entry = new Entry<>(item, sequence++, ThreadLocalRandom.current().nextInt());
+        entries.put(item.locator(), entry);
+        root = insert(root, entry);
+    }
+
+    /**
+     * Returns every item active at the specified timestamp.
+     */
+    public List<E> stab(final Instant timestamp) {
+
+        final var found = new ArrayList<E>();
+        stab(root, timestamp, found);
+        return found;
+    }
+
+    /**
+     * Returns every item active at some point in [from, to).
+     */
+    public List<E> overlapping(final Instant from, final Instant to) {
+
+        final var found = new ArrayList<E>();
+        overlapping(root, from, to, found);
+        return found;
+    }
+
+    /**
+     * Returns the number of items in the tree.
+     */
+    public int size() {
+
+        return entries.size();
+    }
+
+    /**
+     * Collects matches from a subtree, pruning any subtree whose latest end is not
+     * after the timestamp and any right subtree that starts after it.
+     */
+    private static <E extends Versioned> void stab(final Entry<E> entry, final Instant timestamp,
+            final List<E> found) {
+
+        if ((entry == null) || !entry.maxEnd.isAfter(timestamp)) {
+            return;
+        }
+        stab(entry.left, timestamp, found);
+        if (!entry.start.isAfter(timestamp)) {
+            if (entry.end.isAfter(timestamp)) {
+                found.add(entry.item);
+            }
+            stab(entry.right, timestamp, found);
+        }
+    }
+
+    /**
+     * Collects overlaps from a subtree, pruning any subtree whose latest end is
+     * not after the start of the range and any right subtree that starts at or
+     * after its end.
+     */
+    private static <E extends Versioned> void overlapping(final Entry<E> entry, final Instant from,
+            final Instant to, final List<E> found) {
+
+        if ((entry == null) || !entry.maxEnd.isAfter(from)) {
+            return;
+        }
+        overlapping(entry.left, from, to, found);
+        if (entry.start.isBefore(to)) {
+            if (entry.end.isAfter(from)) {
+                found.add(entry.item);
+            }
+            overlapping(entry.right, from, to, found);
+        }
+    }
+
+    private static <E extends Versioned> Entry<E> insert(final Entry<E> node, final Entry<E> entry) {
+
+        if (node == null) {
+            return entry;
+        }
+        if (entry.priority > node.priority) {
+            final var split = split(node, entry);
+            entry.left = split.left();
+            entry.right = split.right();
+            entry.update();
+            return entry;
+        }
+        if (entry.compareTo(node) < 0) {
+            node.left = insert(node.left, entry);
+        } else {
+            node.right = insert(node.right, entry);
+        }
+        node.update();
+        return node;
+    }
+
+    private static <E extends Versioned> Entry<E> remove(final Entry<E> node, final Entry<E> entry) {
+
+        if (node == null) {
+            return null;
+        }
+        if (node == entry) {
+            return merge(node.left, node.right);
+        }
+        if (entry.compareTo(node) < 0) {
+            node.left = remove(node.left, entry);
+        } else {
+            node.right = remove(node.right, entry);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Splits a subtree into entries ordered before the key and those ordered after
+     * it.
+     */
+    private static <E extends Versioned> Split<E> split(final Entry<E> node, final Entry<E> key) {
+
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        if (node.compareTo(key) < 0) {
+            final var split = split(node.right, key);
+            node.right = split.left();
+            node.update();
+            return new Split<>(node, split.right());
+        }
+        final var split = split(node.left, key);
+        node.left = split.right();
+        node.update();
+        return new Split<>(split.left(), node);
+    }
+
+    /**
+     * Merges two subtrees where every entry in the left is ordered before every
+     * entry in the right.
+     */
+    private static <E extends Versioned> Entry<E> merge(final Entry<E> left, final Entry<E> right) {
+
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    /**
+     * Result of splitting a subtree.
+     */
+    private record Split<E extends Versioned>(Entry<E> left, Entry<E> right) {
+    }
+
+    /**
+     * Treap entry holding one item and the latest end of its subtree.
+     */
+    private static final class Entry<E extends Versioned> implements Comparable<Entry<E>> {
+
+        private final E item;
+        private final Instant start;
+        private final Instant end;
+        private final long sequence;
+        private final int priority;
+        private Entry<E> left = null;
+        private Entry<E> right = null;
+        private Instant maxEnd;
+
+        Entry(final E item, final long sequence, final int priority) {
+
+            this.item = item;
+            start = item.created();
+            end = item.expired().orElse(Instant.MAX);
+            this.sequence = sequence;
+            this.priority = priority;
+            maxEnd = end;
+        }
+
+        void update() {
+
+            var latest = end;
+            if ((left != null) && left.maxEnd.isAfter(latest)) {
+                latest = left.maxEnd;
+            }
+            if ((right != null) && right.maxEnd.isAfter(latest)) {
+                latest = right.maxEnd;
+            }
+            maxEnd = latest;
+        }
+
+        @Override
+        public int compareTo(final Entry<E> other) {
+
+            final var compared = start.compareTo(other.start);
+            return (compared != 0) ? compared : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.common.version;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index of versioned items keyed by Nano ID. The active version of each ID is
+ * held separately from its expired versions, which form an append-only history
+ * ordered by version, so lookups only visit the versions of a single ID rather
+ * than every item held by the owner.
+ * Point-in-time lookups binary search the history, and an interval tree
+ * answers which items were active at a given timestamp. This type is
+ * thread-safe: lookups share a read lock, so they run in parallel with each
+ * other, and a put holds the write lock only for its O(log n) update of the
+ * arrays and the interval tree.
+ */
+public final class VersionIndex<E extends Versioned> {
+
+    /**
+     * Active version of each ID.
+     */
+    private final Map<NanoId, E> active = new HashMap<>();
+
+    /**
+     * Expired versions of each ID in version order.
+     */
+    private final Map<NanoId, List<E>> history = new HashMap<>();
+
+    private final IntervalTree<E> intervals = new IntervalTree<>();
+
+    /**
+     * Guards the maps and the interval tree.
+     */
+    private final ReentrantReadWriteLock locks = new ReentrantReadWriteLock();
+
+    /**
+     * Adds an item to the index. An active item becomes the active version of its
+     * ID. An expired item is appended to the history of its ID and, if it is the
+     * expired copy of the active version, the ID no longer has an active version.
+     */
+    public void put(final E item) {
+
+        final var lock = locks.writeLock();
+        lock.lock();
+        try {
+            final var locator = item.locator();
+            if (item.expired().isEmpty()) {
+                active.put(locator.id(), item);
+            } else {
+                final var current = active.get(locator.id());
+                if ((current != null) && current.locator().equals(locator)) {
+                    active.remove(locator.id());
+                }
+                append(history.computeIfAbsent(locator.id(), k -> new ArrayList<>()), item);
+            }
+            intervals.put(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the active version of an item by ID.
+     */
+    public Optional<E> findActive(final NanoId id) {
+
+        final var lock = locks.readLock();
+        lock.lock();
+        try {
+            return Optional.ofNullable(active.get(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the version of an item active at a specific timestamp.
+     */
+    public Optional<E> findAt(final NanoId id, final Instant timestamp) {
+
+        final var lock = locks.readLock();
+        lock.lock();
+        try {
+            final var current = active.get(id);
+            if ((current != null) && !current.created().isAfter(timestamp)) {
+                return Optional.of(current);
+            }
+            return Versions.searchAt(history.getOrDefault(id, List.of()), timestamp);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns every active item.
+     */
+    public List<E> allActive() {
+
+        final var lock = locks.readLock();
+        lock.lock();
+        try {
+            return new ArrayList<>(active.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns every item active at a specific timestamp.
+     */
+    public List<E> allAt(final Instant timestamp) {
+
+        final var lock = locks.readLock();
+        lock.lock();
+        try {
+            return intervals.stab(timestamp);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns every item active at some point in [from, to).
+     */
+    public List<E> allDuring(final Instant from, final Instant to) {
+
+        final var lock = locks.readLock();
+        lock.lock();
+        try {
+            return intervals.overlapping(from, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds all versions of an item by ID, ordered by version.
+     */
+    public List<E> findAllVersions(final NanoId id) {
+
+        final var lock = locks.readLock();
+        lock.lock();
+        try {
+            final var expired = history.getOrDefault(id, List.of());
+            final var current = active.get(id);
+            if (current == null) {
+                return List.copyOf(expired);
+            }
+            final var all = new ArrayList<E>(expired.size() + 1);
+            all.addAll(expired);
+            all.add(current);
+            return all;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends an expired version to a history. Versions normally expire in order,
+     * so this is an append, but an out of order version is inserted in place and
+     * a repeated version replaces the existing one.
+     */
+    private static <E extends Versioned> void append(final List<E> items, final E item) {
+
+        final var position = search(items, item.locator().version());
+        if (position >= 0) {
+            items.set(position, item);
+        } else {
+            items.add(-(position + 1), item);
+        }
+    }
+
+    /**
+     * Binary searches the versions of an ID, returning the position of the version
+     * or (-(insertion point) - 1) if not present. Appending a new version is the
+     * common case, so it is checked first.
+     */
+    private static <E extends Versioned> int search(final List<E> items, final int version) {
+
+        final var size = items.size();
+        if ((size == 0) || (items.get(size - 1).locator().version() < version)) {
+            return -(size + 1);
+        }
+        var low = 0;
+        var high = size - 1;
+        while (low <= high) {
+            final var mid = (low + high) >>> 1;
+            final var current = items.get(mid).locator().version();
+            if (current < version) {
+                low = mid + 1;
+            } else if (current > version) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -36,6 +36,33 @@ public final class Versions {
                 .max(Comparator.comparing(e -> e.locator().version()));
     }
 
+    /**
+     * Finds the version active at a specific timestamp by binary searching
+     * versions of a single element that are ordered by version. Versions of an
+     * element cover successive, non-overlapping [created, expired) intervals, so
+     * only the latest version created at or before the timestamp can be active.
+     */
+    public static <E extends Versioned> Optional<E> searchAt(final List<E> versions, final Instant timestamp) {
+
+        var low = 0;
+        var high = versions.size() - 1;
+        var candidate = -1;
+        while (low <= high) {
+            final var mid = (low + high) >>> 1;
+            if (versions.get(mid).created().isAfter(timestamp)) {
+                high = mid - 1;
+            } else {
+                candidate = mid;
+                low = mid + 1;
+            }
+        }
+        if (candidate < 0) {
+            return Optional.empty();
+        }
+        final var version = versions.get(candidate);
+        return isActiveAt(timestamp, version) ? Optional.of(version) : Optional.empty();
+    }
+
     /**
      * Finds all versions of an element by ID.
      */
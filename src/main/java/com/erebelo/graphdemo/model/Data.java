@@ -6,11 +6,34 @@
 
 package com.erebelo.graphdemo.model;
 
+import java.util.Objects;
+
 /**
- * Container for typed data that can be stored with graph elements.
+ * Container for typed data that can be stored with graph elements. Two Data
+ * are equal when they have the same class and equal values, whatever the
+ * implementation, so data loaded from a repository matches the data it was
+ * saved from. Every implementation hashes to hash(javaClass()), which only
+ * depends on the class, so data still in serialized form can be hashed without
+ * decoding its value.
  */
 public interface Data {
 
+    /**
+     * Returns the hash code every implementation uses for data of a class.
+     */
+    static int hash(final Class<?> javaClass) {
+
+        return Objects.hashCode(javaClass);
+    }
+
+    /**
+     * Returns true if the data has the specified class and value.
+     */
+    static boolean matches(final Data data, final Class<?> javaClass, final Object value) {
+
+        return Objects.equals(javaClass, data.javaClass()) && Objects.equals(value, data.value());
+    }
+
     /**
      * Returns the class type of the contained value.
      */
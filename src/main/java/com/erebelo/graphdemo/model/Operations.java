@@ -37,6 +37,11 @@ public interface Operations<E extends Versioned> {
      */
     List<E> allActive();
 
+    /**
+     * Returns all elements (one version per ID) active at a specific timestamp.
+     */
+    List<E> allAt(Instant timestamp);
+
     /**
      * Expires an element at the given timestamp.
      */
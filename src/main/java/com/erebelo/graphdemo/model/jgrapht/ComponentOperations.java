@@ -8,50 +8,61 @@ package com.erebelo.graphdemo.model.jgrapht;
 
 import com.erebelo.graphdemo.common.version.Locator;
 import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.common.version.VersionIndex;
 import com.erebelo.graphdemo.model.Component;
 import com.erebelo.graphdemo.model.Data;
-import com.erebelo.graphdemo.model.Edge;
 import com.erebelo.graphdemo.model.Element;
-import com.erebelo.graphdemo.model.Node;
 import com.erebelo.graphdemo.model.Operations;
 import com.erebelo.graphdemo.model.simple.SimpleComponent;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import org.jgrapht.Graph;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.stereotype.Service;
 
 /**
  * Operations for managing components in a JGraphT graph.
  *
  * This implementation uses a hybrid approach: - Component metadata (versions,
- * data, timestamps) is stored in componentVersions map - Component membership
- * is tracked separately in elementToComponents map - The actual graph elements
- * remain unchanged to maintain graph integrity
+ * data, timestamps) is stored in a version index, with an O(1) active version
+ * and a history binary searched by version - Component membership is tracked
+ * separately in the membership map, keyed by element ID so it holds across
+ * element versions - The actual graph elements remain unchanged to maintain
+ * graph integrity
  *
  * Note: Due to the immutable nature of SimpleNode/SimpleEdge records and their
  * inclusion of components in equals/hashCode, we cannot modify
  * Element#components() without breaking graph lookups. Instead, we track
  * membership externally.
+ *
+ * Mutations run as graph writes holding the stripes of the component and its
+ * elements, so components that do not share elements are written in parallel.
+ * The membership map is concurrent and the version index is thread-safe, so
+ * lookups do not take the write stripes.
  */
 @Service
 public class ComponentOperations implements Operations<Component> {
 
-    private final Graph<Node, Edge> graph;
-    private final Map<NanoId, List<Component>> componentVersions;
-    private final Map<Element, Set<NanoId>> elementToComponents;
+    private final GraphOperations graphOperations;
+
+    /**
+     * Active version of each component and its history ordered by version.
+     */
+    private final VersionIndex<Component> versions;
 
-    public ComponentOperations(final Graph<Node, Edge> graph) {
+    /**
+     * IDs of the active components containing each element, keyed by element ID.
+     */
+    private final Map<NanoId, Set<NanoId>> membership;
 
-        this.graph = graph;
-        componentVersions = new HashMap<>();
-        elementToComponents = new HashMap<>();
+    public ComponentOperations(final GraphOperations graphOperations) {
+
+        this.graphOperations = graphOperations;
+        versions = new VersionIndex<>();
+        membership = new ConcurrentHashMap<>();
     }
 
     /**
@@ -59,21 +70,22 @@ public class ComponentOperations implements Operations<Component> {
      */
     public Component add(final List<Element> elements, final Data data, final Instant timestamp) {
 
-        OperationsHelper.validateComponentElements(elements, graph);
         final var locator = Locator.generate();
+        return graphOperations.write(lockIds(locator.id(), elements), () -> {
+            ComponentValidator.validate(elements);
 
-        // Track component membership externally
-        elements.forEach(
-                element -> elementToComponents.computeIfAbsent(element, k -> new HashSet<>()).add(locator.id()));
+            // Track component membership externally
+            elements.forEach(element -> link(element, locator.id()));
 
-        // Create component with the original elements
-        final var component = new SimpleComponent(locator, new ArrayList<>(elements), data, timestamp,
-                Optional.empty());
+            // Create component with the original elements
+            final var component = new SimpleComponent(locator, new ArrayList<>(elements), data, timestamp,
+                    Optional.empty());
 
-        // Store component version
-        componentVersions.computeIfAbsent(locator.id(), k -> new ArrayList<>()).add(component);
+            // Store component version
+            versions.put(component);
 
-        return component;
+            return component;
+        });
     }
 
     /**
@@ -81,105 +93,133 @@ public class ComponentOperations implements Operations<Component> {
      */
     public Component update(final NanoId id, final List<Element> elements, final Data data, final Instant timestamp) {
 
-        OperationsHelper.validateComponentElements(elements, graph);
-        final var existingComponent = OperationsHelper.validateForExpiry(findActive(id), id, "Component");
-
-        // Remove component reference from old elements
-        existingComponent.elements().forEach(element -> {
-            final var componentSet = elementToComponents.get(element);
-            if (componentSet != null) {
-                componentSet.remove(id);
-                if (componentSet.isEmpty()) {
-                    elementToComponents.remove(element);
-                }
-            }
-        });
+        return graphOperations.write(lockIds(id, elements), () -> {
+            ComponentValidator.validate(elements);
+            final var existingComponent = OperationsHelper.validateForExpiry(findActive(id), id, "Component");
 
-        final var expired = expire(id, timestamp);
-        final var incremented = expired.locator().increment();
+            // Remove component reference from old elements
+            existingComponent.elements().forEach(element -> unlink(element, id));
 
-        // Add component reference to new elements
-        elements.forEach(element -> elementToComponents.computeIfAbsent(element, k -> new HashSet<>()).add(id));
+            final var expired = expire(id, timestamp);
+            final var incremented = expired.locator().increment();
 
-        // Create component with the original elements
-        final var newComponent = new SimpleComponent(incremented, new ArrayList<>(elements), data, timestamp,
-                Optional.empty());
+            // Add component reference to new elements
+            elements.forEach(element -> link(element, id));
 
-        // Store new version
-        componentVersions.get(id).add(newComponent);
+            // Create component with the original elements
+            final var newComponent = new SimpleComponent(incremented, new ArrayList<>(elements), data, timestamp,
+                    Optional.empty());
 
-        return newComponent;
+            // Store new version
+            versions.put(newComponent);
+
+            return newComponent;
+        });
     }
 
     @Override
     public Optional<Component> findActive(final NanoId id) {
 
-        final var versions = componentVersions.get(id);
-        if (versions == null) {
-            return Optional.empty();
-        }
-
-        return versions.stream().filter(c -> c.expired().isEmpty())
-                .max(Comparator.comparingInt(c -> c.locator().version()));
+        return versions.findActive(id);
     }
 
     @Override
     public Optional<Component> findAt(final NanoId id, final Instant timestamp) {
 
-        // Find the component version active at timestamp
-        final var versions = componentVersions.get(id);
-        if (versions == null) {
-            return Optional.empty();
-        }
-
-        return versions.stream().filter(c -> !c.created().isAfter(timestamp))
-                .filter(c -> c.expired().isEmpty() || c.expired().get().isAfter(timestamp))
-                .max(Comparator.comparingInt(c -> c.locator().version()));
+        return versions.findAt(id, timestamp);
     }
 
     @Override
     public List<Component> findAllVersions(final NanoId id) {
 
-        final var versions = componentVersions.get(id);
-        return (versions != null) ? new ArrayList<>(versions) : List.of();
+        return versions.findAllVersions(id);
     }
 
     @Override
     public List<Component> allActive() {
 
-        return componentVersions.values().stream().flatMap(List::stream).filter(c -> c.expired().isEmpty()).toList();
+        return versions.allActive();
+    }
+
+    @Override
+    public List<Component> allAt(final Instant timestamp) {
+
+        return versions.allAt(timestamp);
     }
 
     @Override
     public Component expire(final NanoId id, final Instant timestamp) {
 
-        final var component = OperationsHelper.validateForExpiry(findActive(id), id, "Component");
+        return graphOperations.write(List.of(id), () -> {
+            final var component = OperationsHelper.validateForExpiry(findActive(id), id, "Component");
 
-        // Create expired version
-        final var expiredComponent = new SimpleComponent(component.locator(), component.elements(), component.data(),
-                component.created(), Optional.of(timestamp));
+            // Create expired version
+            final var expiredComponent = new SimpleComponent(component.locator(), component.elements(),
+                    component.data(), component.created(), Optional.of(timestamp));
 
-        // Update stored version
-        final var versions = componentVersions.get(id);
-        if (versions != null) {
-            // Replace the active version with expired version
-            versions.removeIf(c -> c.locator().equals(component.locator()));
-            versions.add(expiredComponent);
-        }
+            // The expired copy replaces the active version and joins the history
+            versions.put(expiredComponent);
+            component.elements().forEach(element -> unlink(element, id));
 
-        return expiredComponent;
+            return expiredComponent;
+        });
     }
 
     /**
-     * Finds all components that contain the specified element.
+     * Finds all active components that contain the specified element.
      */
     public List<Component> findComponentsContaining(final Element element) {
 
-        final var componentIds = elementToComponents.get(element);
-        if ((componentIds == null) || componentIds.isEmpty()) {
+        return findComponentsContaining(element.locator().id());
+    }
+
+    /**
+     * Finds all active components that contain a version of the element with the
+     * specified ID.
+     */
+    public List<Component> findComponentsContaining(final NanoId elementId) {
+
+        final var componentIds = membership.get(elementId);
+        if (componentIds == null) {
             return List.of();
         }
 
-        return componentIds.stream().map(this::findActive).filter(Optional::isPresent).map(Optional::get).toList();
+        return componentIds.stream().map(this::findActive).flatMap(Optional::stream).toList();
+    }
+
+    /**
+     * Returns the IDs to lock when writing a component: the component and each of
+     * its elements.
+     */
+    private static List<NanoId> lockIds(final NanoId id, final List<Element> elements) {
+
+        final var ids = new ArrayList<NanoId>(elements.size() + 1);
+        ids.add(id);
+        elements.forEach(element -> ids.add(element.locator().id()));
+        return ids;
+    }
+
+    /**
+     * Records that an element is a member of a component, atomically per element.
+     */
+    private void link(final Element element, final NanoId componentId) {
+
+        membership.compute(element.locator().id(), (k, componentIds) -> {
+            final var linked = (componentIds == null) ? ConcurrentHashMap.<NanoId>newKeySet() : componentIds;
+            linked.add(componentId);
+            return linked;
+        });
+    }
+
+    /**
+     * Removes a component from the memberships of an element, dropping the entry
+     * once it is empty, atomically per element.
+     */
+    private void unlink(final Element element, final NanoId componentId) {
+
+        membership.computeIfPresent(element.locator().id(), (k, componentIds) -> {
+            componentIds.remove(componentId);
+            return componentIds.isEmpty() ? null : componentIds;
+        });
     }
 }
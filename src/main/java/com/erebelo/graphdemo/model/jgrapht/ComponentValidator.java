@@ -0,0 +1,186 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Element;
+import com.erebelo.graphdemo.model.Node;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * Validates the elements of a component in a single pass over only the
+ * supplied elements. Nodes are numbered by locator, a single scan of the edges
+ * checks that each connects nodes within the component, merges its endpoints
+ * in a union-find (for connectivity) and records it in a compact adjacency
+ * array, and one depth-first search with primitive colors then looks for a
+ * directed cycle. All state is local to a call, so components can be
+ * validated in parallel.
+ */
+public final class ComponentValidator {
+
+    /**
+     * Depth-first search colors: unvisited, on the current path, and finished.
+     */
+    private static final byte WHITE = 0;
+    private static final byte GRAY = 1;
+    private static final byte BLACK = 2;
+
+    /**
+     * Type contains only static members.
+     */
+    private ComponentValidator() {
+    }
+
+    /**
+     * Validates that the elements form a component: at least one node, every node
+     * connected (ignoring direction), no directed cycles, and every edge between
+     * nodes of the component. Connectivity and cycles are checked using only
+     * edges within the component.
+     */
+    public static void validate(final Collection<Element> elements) {
+
+        if (elements.isEmpty()) {
+            throw new IllegalArgumentException("Component must contain at least one element");
+        }
+
+        // Number the nodes and collect the edges
+        final var indices = new HashMap<Locator, Integer>();
+        final var edges = new ArrayList<Edge>();
+        for (final var element : elements) {
+            if (element instanceof Node node) {
+                indices.putIfAbsent(node.locator(), indices.size());
+            } else if (element instanceof Edge edge) {
+                edges.add(edge);
+            } else {
+                throw new IllegalArgumentException("Unknown element type: " + element.getClass().getSimpleName());
+            }
+        }
+        final var nodeCount = indices.size();
+        if (nodeCount == 0) {
+            throw new IllegalArgumentException("Component must contain at least one node");
+        }
+
+        // Resolve edge endpoints, merging them for connectivity and counting
+        // outgoing edges
+        final var sources = new int[edges.size()];
+        final var targets = new int[edges.size()];
+        final var offsets = new int[nodeCount + 1];
+        final var parents = new int[nodeCount];
+        for (var i = 0; i < nodeCount; i++) {
+            parents[i] = i;
+        }
+        var components = nodeCount;
+        var contained = true;
+        for (var i = 0; i < edges.size(); i++) {
+            final var edge = edges.get(i);
+            final var source = indices.get(edge.source().locator());
+            final var target = indices.get(edge.target().locator());
+            if ((source == null) || (target == null)) {
+                contained = false;
+                sources[i] = -1;
+                continue;
+            }
+            sources[i] = source;
+            targets[i] = target;
+            offsets[source + 1]++;
+            if (union(parents, source, target)) {
+                components--;
+            }
+        }
+
+        if (components > 1) {
+            throw new IllegalArgumentException("All elements in a component must be connected");
+        }
+        if (hasCycle(nodeCount, sources, targets, offsets)) {
+            throw new IllegalArgumentException("Components cannot contain cycles");
+        }
+        if (!contained) {
+            throw new IllegalArgumentException("All edges in a component must connect nodes within the component");
+        }
+    }
+
+    /**
+     * Merges the sets of two nodes, returning true if they were separate.
+     */
+    private static boolean union(final int[] parents, final int a, final int b) {
+
+        final var rootA = find(parents, a);
+        final var rootB = find(parents, b);
+        if (rootA == rootB) {
+            return false;
+        }
+        parents[rootA] = rootB;
+        return true;
+    }
+
+    private static int find(final int[] parents, final int node) {
+
+        var current = node;
+        while (parents[current] != current) {
+            parents[current] = parents[parents[current]];
+            current = parents[current];
+        }
+        return current;
+    }
+
+    /**
+     * Lays out the edges within the component as an adjacency array and runs an
+     * iterative depth-first search, reporting a cycle when an edge reaches a node
+     * still on the current path.
+     */
+    private static boolean hasCycle(final int nodeCount, final int[] sources, final int[] targets,
+            final int[] offsets) {
+
+        for (var i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        final var adjacent = new int[offsets[nodeCount]];
+        final var fill = offsets.clone();
+        for (var i = 0; i < sources.length; i++) {
+            if (sources[i] >= 0) {
+                adjacent[fill[sources[i]]++] = targets[i];
+            }
+        }
+
+        final var colors = new byte[nodeCount];
+        final var stack = new int[nodeCount];
+        final var cursors = new int[nodeCount];
+        for (var start = 0; start < nodeCount; start++) {
+            if (colors[start] != WHITE) {
+                continue;
+            }
+            var depth = 0;
+            stack[depth] = start;
+            cursors[depth] = offsets[start];
+            colors[start] = GRAY;
+            depth++;
+            while (depth > 0) {
+                final var top = depth - 1;
+                final var current = stack[top];
+                if (cursors[top] == offsets[current + 1]) {
+                    colors[current] = BLACK;
+                    depth--;
+                    continue;
+                }
+                final var next = adjacent[cursors[top]++];
+                if (colors[next] == GRAY) {
+                    return true;
+                }
+                if (colors[next] == WHITE) {
+                    colors[next] = GRAY;
+                    stack[depth] = next;
+                    cursors[depth] = offsets[next];
+                    depth++;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import org.jgrapht.ListenableGraph;
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphListener;
+import org.jgrapht.event.GraphVertexChangeEvent;
+import org.springframework.stereotype.Service;
+
+/**
+ * Incrementally maintained weakly connected components of the active graph.
+ * Nodes are numbered by ID in the union-find, so components survive new
+ * versions of a node. A rebuild numbers only the nodes that still have edges,
+ * so IDs of expired nodes do not accumulate. Added edges are merged into a lock-free
+ * union-find straight away. A removed edge can only split a component when it
+ * was the last edge between its two nodes, so the edges between each pair of
+ * nodes are tracked and such pairs are only noted; the next query rebuilds the
+ * union-find (in parallel) if any noted pair is still unconnected, which keeps
+ * node updates (that remove and re-add every connected edge) from triggering
+ * rebuilds. The events of a write are applied once its changes are published,
+ * and a rebuild reads the published root, so a rebuild never drops a change
+ * the union-find had already seen; events applied again after a rebuild are
+ * harmless, since edge membership is tracked as sets. This type is
+ * thread-safe.
+ */
+@Service
+public class ConnectivityTracker {
+
+    /**
+     * Source of the published root when rebuilding.
+     */
+    private final GraphOperations graphOperations;
+
+    /**
+     * Events fired by the write in progress on each thread, applied once it has
+     * been published.
+     */
+    private final ThreadLocal<List<Runnable>> pending = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * IDs of the edges between each unordered pair of distinct nodes.
+     */
+    private final Map<Long, Set<NanoId>> pairs = new ConcurrentHashMap<>();
+
+    /**
+     * Pairs whose last edge was removed since the last rebuild.
+     */
+    private final Set<Long> pendingSplits = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Event handlers share the lock and a rebuild takes it exclusively, so no
+     * event is applied to a union-find that is being replaced.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile UnionFind components;
+
+    /**
+     * Set when a node is seen that the union-find has no room for.
+     */
+    private volatile boolean stale = false;
+
+    public ConnectivityTracker(final ListenableGraph<Node, Edge> graph, final GraphOperations graphOperations) {
+
+        this.graphOperations = graphOperations;
+        components = new UnionFind(new HashMap<>(), 0);
+        graph.addGraphListener(new GraphListener<>() {
+
+            @Override
+            public void edgeAdded(final GraphEdgeChangeEvent<Node, Edge> event) {
+                final var edge = event.getEdge();
+                defer(() -> linked(edge));
+            }
+
+            @Override
+            public void edgeRemoved(final GraphEdgeChangeEvent<Node, Edge> event) {
+                final var edge = event.getEdge();
+                defer(() -> unlinked(edge));
+            }
+
+            @Override
+            public void vertexAdded(final GraphVertexChangeEvent<Node> event) {
+            }
+
+            @Override
+            public void vertexRemoved(final GraphVertexChangeEvent<Node> event) {
+            }
+        });
+        graphOperations.addCommitListener(this::published);
+    }
+
+    /**
+     * Returns true if two nodes are in the same weakly connected component.
+     */
+    public boolean connected(final NanoId first, final NanoId second) {
+
+        if (first.equals(second)) {
+            return true;
+        }
+        final var current = fresh();
+        final var a = current.surrogate(first);
+        final var b = current.surrogate(second);
+        return current.contains(a) && current.contains(b) && (current.find(a) == current.find(b));
+    }
+
+    /**
+     * Groups nodes by weakly connected component. Groups are returned in order of
+     * their first node, and nodes keep their relative order within a group.
+     */
+    public List<List<Node>> groups(final Collection<Node> nodes) {
+
+        final var current = fresh();
+        // Keyed by root surrogate, or by ID for a node without edges
+        final var groups = new LinkedHashMap<Object, List<Node>>();
+        for (final var node : nodes) {
+            final var surrogate = current.surrogate(node.locator().id());
+            final Object root = current.contains(surrogate) ? current.find(surrogate) : node.locator().id();
+            groups.computeIfAbsent(root, k -> new ArrayList<>()).add(node);
+        }
+        return List.copyOf(groups.values());
+    }
+
+    /**
+     * Holds an event back until the write in progress is published, or applies it
+     * straight away if it was fired outside a write.
+     */
+    private void defer(final Runnable change) {
+
+        if (graphOperations.writing()) {
+            pending.get().add(change);
+        } else {
+            handle(change);
+        }
+    }
+
+    /**
+     * Applies the events of the write this thread has just published.
+     */
+    private void published() {
+
+        final var changes = pending.get();
+        if (changes.isEmpty()) {
+            return;
+        }
+        pending.remove();
+        handle(() -> changes.forEach(Runnable::run));
+    }
+
+    private void handle(final Runnable change) {
+
+        lock.readLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void linked(final Edge edge) {
+
+        final var current = components;
+        final var a = current.add(edge.source().locator().id());
+        final var b = current.add(edge.target().locator().id());
+        if (a == b) {
+            return;
+        }
+        pairs.computeIfAbsent(pair(a, b), k -> ConcurrentHashMap.newKeySet()).add(edge.locator().id());
+        if (current.contains(a) && current.contains(b)) {
+            current.union(a, b);
+        } else {
+            stale = true;
+        }
+    }
+
+    private void unlinked(final Edge edge) {
+
+        final var current = components;
+        final var a = current.surrogate(edge.source().locator().id());
+        final var b = current.surrogate(edge.target().locator().id());
+        if ((a < 0) || (b < 0) || (a == b)) {
+            return;
+        }
+        final var key = pair(a, b);
+        pairs.computeIfPresent(key, (k, edgeIds) -> {
+            edgeIds.remove(edge.locator().id());
+            if (edgeIds.isEmpty()) {
+                pendingSplits.add(key);
+                return null;
+            }
+            return edgeIds;
+        });
+    }
+
+    /**
+     * Returns a union-find that reflects every removal so far, rebuilding it if a
+     * removed edge may have split a component.
+     */
+    private UnionFind fresh() {
+
+        if (stale || pendingSplits.stream().anyMatch(key -> !pairs.containsKey(key))) {
+            rebuild();
+        } else {
+            pendingSplits.removeIf(pairs::containsKey);
+        }
+        return components;
+    }
+
+    /**
+     * Rebuilds the union-find from every edge of the published root, numbering the
+     * endpoints first and then merging edges in parallel.
+     */
+    private void rebuild() {
+
+        lock.writeLock().lock();
+        try {
+            final var edges = graphOperations.snapshot().edges();
+            final var numbers = new HashMap<NanoId, Integer>(edges.size() * 2);
+            final var sources = new int[edges.size()];
+            final var targets = new int[edges.size()];
+            for (var i = 0; i < sources.length; i++) {
+                sources[i] = number(numbers, edges.get(i).source().locator().id());
+                targets[i] = number(numbers, edges.get(i).target().locator().id());
+            }
+            final var rebuilt = new UnionFind(numbers, numbers.size() * 2);
+            pairs.clear();
+            pendingSplits.clear();
+            stale = false;
+            IntStream.range(0, sources.length).parallel().forEach(i -> {
+                final var a = sources[i];
+                final var b = targets[i];
+                if (a != b) {
+                    pairs.computeIfAbsent(pair(a, b), k -> ConcurrentHashMap.newKeySet())
+                            .add(edges.get(i).locator().id());
+                    rebuilt.union(a, b);
+                }
+            });
+            components = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of a node ID, assigning the next one if needed.
+     */
+    private static int number(final Map<NanoId, Integer> numbers, final NanoId id) {
+
+        return numbers.computeIfAbsent(id, k -> numbers.size());
+    }
+
+    /**
+     * Key of an unordered pair of surrogates.
+     */
+    private static long pair(final int a, final int b) {
+
+        return (((long) Math.min(a, b)) << 32) | Math.max(a, b);
+    }
+
+    /**
+     * Lock-free union-find over surrogates. Roots are always linked beneath the
+     * larger root, so concurrent unions cannot form a cycle, and finds halve the
+     * path with a compare-and-set. The map numbering its nodes is guarded by the
+     * union-find.
+     */
+    private static final class UnionFind {
+
+        private final Map<NanoId, Integer> numbers;
+        private final AtomicIntegerArray parents;
+
+        UnionFind(final Map<NanoId, Integer> numbers, final int capacity) {
+
+            this.numbers = numbers;
+            parents = new AtomicIntegerArray(Math.max(capacity, 16));
+            for (var i = 0; i < parents.length(); i++) {
+                parents.set(i, i);
+            }
+        }
+
+        /**
+         * Returns the surrogate of a node ID, assigning one if needed.
+         */
+        synchronized int add(final NanoId id) {
+
+            return number(numbers, id);
+        }
+
+        /**
+         * Returns the surrogate of a node ID, or -1 if it has none.
+         */
+        synchronized int surrogate(final NanoId id) {
+
+            return numbers.getOrDefault(id, -1);
+        }
+
+        boolean contains(final int surrogate) {
+
+            return (surrogate >= 0) && (surrogate < parents.length());
+        }
+
+        int find(final int surrogate) {
+
+            var current = surrogate;
+            while (true) {
+                final var parent = parents.get(current);
+                if (parent == current) {
+                    return current;
+                }
+                final var grandparent = parents.get(parent);
+                parents.compareAndSet(current, parent, grandparent);
+                current = grandparent;
+            }
+        }
+
+        void union(final int a, final int b) {
+
+            while (true) {
+                final var rootA = find(a);
+                final var rootB = find(b);
+                if (rootA == rootB) {
+                    return;
+                }
+                final var lower = Math.min(rootA, rootB);
+                final var upper = Math.max(rootA, rootB);
+                if (parents.compareAndSet(lower, lower, upper)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.jgrapht.Graph;
+
+/**
+ * Immutable compressed sparse row (CSR) snapshot of the active graph. Nodes are
+ * numbered with dense int indices and adjacency is held in primitive offset and
+ * target arrays (in both directions), so traversals never hash node or edge
+ * records and do not allocate per step. Instances are immutable and
+ * thread-safe.
+ */
+public final class CsrSnapshot {
+
+    private final Node[] nodes;
+    private final Edge[] edges;
+
+    /**
+     * Index of each node by ID.
+     */
+    private final Map<NanoId, Integer> indices;
+
+    /**
+     * Outgoing adjacency: edges leaving node v occupy slots [outOffsets[v],
+     * outOffsets[v + 1]).
+     */
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] outEdges;
+
+    /**
+     * Incoming adjacency: edges entering node v occupy slots [inOffsets[v],
+     * inOffsets[v + 1]).
+     */
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final int[] inEdges;
+
+    private CsrSnapshot(final Node[] nodes, final Edge[] edges, final Map<NanoId, Integer> indices,
+            final int[] edgeSources, final int[] edgeTargets) {
+
+        this.nodes = nodes;
+        this.edges = edges;
+        this.indices = indices;
+        outOffsets = offsets(nodes.length, edgeSources);
+        outTargets = new int[edges.length];
+        outEdges = new int[edges.length];
+        fill(outOffsets, edgeSources, edgeTargets, outTargets, outEdges);
+        inOffsets = offsets(nodes.length, edgeTargets);
+        inSources = new int[edges.length];
+        inEdges = new int[edges.length];
+        fill(inOffsets, edgeTargets, edgeSources, inSources, inEdges);
+    }
+
+    /**
+     * Builds a snapshot of every vertex and edge in the graph in O(n + m).
+     */
+    public static CsrSnapshot of(final Graph<Node, Edge> graph) {
+
+        return of(graph.vertexSet(), graph.edgeSet());
+    }
+
+    /**
+     * Builds a snapshot of the specified nodes and the edges between them in O(n +
+     * m). Every edge endpoint must be one of the nodes.
+     */
+    public static CsrSnapshot of(final Collection<Node> activeNodes, final Collection<Edge> activeEdges) {
+
+        final var nodes = activeNodes.toArray(Node[]::new);
+        final var indices = new HashMap<NanoId, Integer>(nodes.length * 2);
+        for (var i = 0; i < nodes.length; i++) {
+            indices.put(nodes[i].locator().id(), i);
+        }
+
+        final var edges = activeEdges.toArray(Edge[]::new);
+        final var edgeSources = new int[edges.length];
+        final var edgeTargets = new int[edges.length];
+        for (var i = 0; i < edges.length; i++) {
+            edgeSources[i] = indices.get(edges[i].source().locator().id());
+            edgeTargets[i] = indices.get(edges[i].target().locator().id());
+        }
+        return new CsrSnapshot(nodes, edges, Map.copyOf(indices), edgeSources, edgeTargets);
+    }
+
+    /**
+     * Returns the number of nodes in the snapshot.
+     */
+    public int nodeCount() {
+
+        return nodes.length;
+    }
+
+    /**
+     * Returns the number of edges in the snapshot.
+     */
+    public int edgeCount() {
+
+        return edges.length;
+    }
+
+    /**
+     * Returns the index of the node with the specified ID, or -1 if it is not in
+     * the snapshot.
+     */
+    public int indexOf(final NanoId id) {
+
+        return indices.getOrDefault(id, -1);
+    }
+
+    /**
+     * Returns the node at the specified index.
+     */
+    public Node node(final int index) {
+
+        return nodes[index];
+    }
+
+    /**
+     * Returns the edge at the specified index.
+     */
+    public Edge edge(final int index) {
+
+        return edges[index];
+    }
+
+    /**
+     * Returns the first outgoing adjacency slot of a node.
+     */
+    public int outStart(final int node) {
+
+        return outOffsets[node];
+    }
+
+    /**
+     * Returns one past the last outgoing adjacency slot of a node.
+     */
+    public int outEnd(final int node) {
+
+        return outOffsets[node + 1];
+    }
+
+    /**
+     * Returns the target node of an outgoing adjacency slot.
+     */
+    public int outTarget(final int slot) {
+
+        return outTargets[slot];
+    }
+
+    /**
+     * Returns the edge index of an outgoing adjacency slot.
+     */
+    public int outEdge(final int slot) {
+
+        return outEdges[slot];
+    }
+
+    /**
+     * Returns the first incoming adjacency slot of a node.
+     */
+    public int inStart(final int node) {
+
+        return inOffsets[node];
+    }
+
+    /**
+     * Returns one past the last incoming adjacency slot of a node.
+     */
+    public int inEnd(final int node) {
+
+        return inOffsets[node + 1];
+    }
+
+    /**
+     * Returns the source node of an incoming adjacency slot.
+     */
+    public int inSource(final int slot) {
+
+        return inSources[slot];
+    }
+
+    /**
+     * Returns the edge index of an incoming adjacency slot.
+     */
+    public int inEdge(final int slot) {
+
+        return inEdges[slot];
+    }
+
+    /**
+     * Computes CSR offsets from the endpoint (source or target) of each edge.
+     */
+    private static int[] offsets(final int nodeCount, final int[] endpoints) {
+
+        final var offsets = new int[nodeCount + 1];
+        for (final var endpoint : endpoints) {
+            offsets[endpoint + 1]++;
+        }
+        for (var i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return offsets;
+    }
+
+    /**
+     * Places each edge into the adjacency slots of its endpoint.
+     */
+    private static void fill(final int[] offsets, final int[] endpoints, final int[] opposites,
+            final int[] adjacent, final int[] adjacentEdges) {
+
+        final var cursors = Arrays.copyOf(offsets, offsets.length - 1);
+        for (var edge = 0; edge < endpoints.length; edge++) {
+            final var slot = cursors[endpoints[edge]]++;
+            adjacent[slot] = opposites[edge];
+            adjacentEdges[slot] = edge;
+        }
+    }
+}
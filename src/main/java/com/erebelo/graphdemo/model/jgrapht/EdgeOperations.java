@@ -8,7 +8,7 @@ package com.erebelo.graphdemo.model.jgrapht;
 
 import com.erebelo.graphdemo.common.version.Locator;
 import com.erebelo.graphdemo.common.version.NanoId;
-import com.erebelo.graphdemo.common.version.Versions;
+import com.erebelo.graphdemo.common.version.VersionIndex;
 import com.erebelo.graphdemo.model.Data;
 import com.erebelo.graphdemo.model.Edge;
 import com.erebelo.graphdemo.model.Node;
@@ -23,15 +23,28 @@ import org.springframework.stereotype.Service;
 
 /**
  * JGraphT-based implementation of edge operations for versioned graph elements.
+ * Only active edges are kept in the graph. Expired versions are moved to the
+ * version history, which is where version lookups are answered from. Mutations
+ * run as graph writes holding the stripe of the edge (and of both endpoints
+ * when adding), and active lookups read the committed snapshot without
+ * locking.
  */
 @Service
 public class EdgeOperations implements Operations<Edge> {
 
     private final Graph<Node, Edge> graph;
 
-    public EdgeOperations(final Graph<Node, Edge> graph) {
+    private final GraphOperations graphOperations;
+
+    /**
+     * Active and expired versions of every edge keyed by ID.
+     */
+    private final VersionIndex<Edge> versions = new VersionIndex<>();
+
+    public EdgeOperations(final Graph<Node, Edge> graph, final GraphOperations graphOperations) {
 
         this.graph = graph;
+        this.graphOperations = graphOperations;
     }
 
     public Set<Edge> outgoingEdgesOf(final Node node) {
@@ -44,56 +57,119 @@ public class EdgeOperations implements Operations<Edge> {
         return graph.incomingEdgesOf(node);
     }
 
+    /**
+     * Adds an edge between the active versions of two nodes. The endpoints are
+     * identified by ID and looked up again once their stripes are held, so an
+     * endpoint that was updated since the caller read it (or that was loaded from
+     * a repository rather than taken from the graph) is attached at its current
+     * version, and one that was expired is rejected.
+     */
     public Edge add(final Node source, final Node target, final Data data, final Instant timestamp) {
-        final var locator = Locator.generate();
-        final var edge = new SimpleEdge(locator, source, target, data, timestamp, Optional.empty());
-        graph.addEdge(edge.source(), edge.target(), edge);
-        return edge;
+
+        // Hold the endpoint stripes so the endpoints cannot be updated or expired
+        // while the edge is added
+        final var ids = List.of(source.locator().id(), target.locator().id());
+        return graphOperations.write(ids, () -> {
+            final var activeSource = activeNode(source.locator().id(), "Source");
+            final var activeTarget = activeNode(target.locator().id(), "Target");
+            final var locator = Locator.generate();
+            final var edge = new SimpleEdge(locator, activeSource, activeTarget, data, timestamp, Optional.empty());
+            insert(edge);
+            return edge;
+        });
     }
 
     public Edge update(final NanoId id, final Data data, final Instant timestamp) {
 
-        final var expired = expire(id, timestamp);
-        final var incremented = expired.locator().increment();
-        final var newEdge = new SimpleEdge(incremented, expired.source(), expired.target(), data, timestamp,
-                Optional.empty());
-        graph.addEdge(newEdge.source(), newEdge.target(), newEdge);
-        return newEdge;
+        return graphOperations.write(List.of(id), () -> {
+            final var expired = expire(id, timestamp);
+            final var incremented = expired.locator().increment();
+            final var newEdge = new SimpleEdge(incremented, expired.source(), expired.target(), data, timestamp,
+                    Optional.empty());
+            insert(newEdge);
+            return newEdge;
+        });
     }
 
     @Override
     public Optional<Edge> findActive(final NanoId id) {
 
-        return Versions.findActive(id, graph.edgeSet());
+        return graphOperations.snapshot().findEdge(id);
     }
 
     @Override
     public Optional<Edge> findAt(final NanoId id, final Instant timestamp) {
 
-        return Versions.findAt(id, timestamp, graph.edgeSet());
+        return versions.findAt(id, timestamp);
     }
 
     @Override
     public List<Edge> findAllVersions(final NanoId id) {
 
-        return Versions.findAllVersions(id, graph.edgeSet());
+        return versions.findAllVersions(id);
     }
 
     @Override
     public List<Edge> allActive() {
 
-        return Versions.allActive(graph.edgeSet());
+        return graphOperations.snapshot().edges();
+    }
+
+    @Override
+    public List<Edge> allAt(final Instant timestamp) {
+
+        return versions.allAt(timestamp);
+    }
+
+    /**
+     * Returns every edge version active at some point in [from, to).
+     */
+    public List<Edge> allDuring(final Instant from, final Instant to) {
+
+        return versions.allDuring(from, to);
     }
 
     @Override
     public Edge expire(final NanoId id, final Instant timestamp) {
 
-        final var edge = OperationsHelper.validateForExpiry(findActive(id), id, "Edge");
-        final var expiredEdge = new SimpleEdge(edge.locator(), edge.source(), edge.target(), edge.data(),
-                edge.created(), Optional.of(timestamp));
+        return graphOperations.write(List.of(id), () -> {
+            final var edge = OperationsHelper.validateForExpiry(findActive(id), id, "Edge");
+            final var expiredEdge = new SimpleEdge(edge.locator(), edge.source(), edge.target(), edge.data(),
+                    edge.created(), Optional.of(timestamp));
+            retire(edge, expiredEdge);
+            return expiredEdge;
+        });
+    }
+
+    /**
+     * Returns the active version of a node. Called while holding the stripe of the
+     * node, when the committed snapshot has every completed change to it.
+     */
+    private Node activeNode(final NanoId id, final String role) {
+
+        return graphOperations.snapshot().findNode(id)
+                .orElseThrow(() -> new IllegalArgumentException(role + " node not found: " + id));
+    }
+
+    /**
+     * Adds an active edge to the graph and records it in the version index. Any
+     * edge placed in the graph must go through here so the two stay in sync.
+     */
+    void insert(final Edge edge) {
+
+        graph.addEdge(edge.source(), edge.target(), edge);
+        versions.put(edge);
+    }
+
+    /**
+     * Removes an active edge from the graph and records its expired copy in the
+     * version history.
+     */
+    void retire(final Edge edge, final Edge expiredEdge) {
+
+        graphOperations.expiring(expiredEdge);
         graph.removeEdge(edge);
-        graph.addEdge(edge.source(), edge.target(), expiredEdge);
-        return expiredEdge;
+        versions.put(expiredEdge);
     }
 
     /**
@@ -101,7 +177,7 @@ public class EdgeOperations implements Operations<Edge> {
      */
     public List<Edge> getEdgesFrom(final Node node) {
 
-        return graph.outgoingEdgesOf(node).stream().filter(edge -> edge.expired().isEmpty()).toList();
+        return graphOperations.snapshot().edgesFrom(node.locator().id());
     }
 
     /**
@@ -109,6 +185,6 @@ public class EdgeOperations implements Operations<Edge> {
      */
     public List<Edge> getEdgesTo(final Node node) {
 
-        return graph.incomingEdgesOf(node).stream().filter(edge -> edge.expired().isEmpty()).toList();
+        return graphOperations.snapshot().edgesTo(node.locator().id());
     }
 }
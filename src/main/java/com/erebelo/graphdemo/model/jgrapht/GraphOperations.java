@@ -6,35 +6,232 @@
 
 package com.erebelo.graphdemo.model.jgrapht;
 
+import com.erebelo.graphdemo.common.lock.StripedLock;
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.common.version.NanoId;
 import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Element;
 import com.erebelo.graphdemo.model.Node;
-import org.jgrapht.Graph;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import org.jgrapht.ListenableGraph;
+import org.jgrapht.event.GraphEdgeChangeEvent;
 import org.jgrapht.event.GraphListener;
-import org.jgrapht.graph.DefaultListenableGraph;
-import org.jgrapht.graph.DirectedMultigraph;
+import org.jgrapht.event.GraphVertexChangeEvent;
 import org.springframework.stereotype.Service;
 
 /**
- * Operations that apply to the entire graph.
+ * Operations that apply to the entire graph. Reads are served from immutable
+ * snapshots (multi-version concurrency control) and writes use striped locks
+ * keyed by the IDs they touch, so writers on unrelated IDs run in parallel.
+ * The graph events a write fires are collected on the writing thread and,
+ * when the outermost write completes, replayed onto the latest root in one
+ * atomic step. Changes from concurrent writers hold disjoint stripes and so
+ * commute. Readers take the published root with a single volatile read and
+ * never lock, so they see either all or none of a write.
  */
 @Service
 public class GraphOperations {
 
     /**
-     * JGraphT delegated in memory graph.
+     * Number of write lock stripes.
      */
-    private final Graph<Node, Edge> graph;
+    private static final int STRIPES = 256;
 
     /**
-     * Creates graph operations that will forward any events on to the specified
-     * listener.
+     * Write locks keyed by element ID.
      */
-    public GraphOperations(final GraphListener<Node, Edge> listener) {
+    private final StripedLock stripes = new StripedLock(STRIPES);
 
-        final Graph<Node, Edge> base = new DirectedMultigraph<>(null, null, false);
-        final ListenableGraph<Node, Edge> wrapper = new DefaultListenableGraph<>(base);
-        wrapper.addGraphListener(listener);
-        graph = wrapper;
+    /**
+     * Write in progress on each thread.
+     */
+    private final ThreadLocal<Commit> commits = ThreadLocal.withInitial(Commit::new);
+
+    /**
+     * Most recently committed root.
+     */
+    private final AtomicReference<GraphSnapshot> published = new AtomicReference<>(GraphSnapshot.EMPTY);
+
+    /**
+     * Callbacks run on the writing thread after each outermost write.
+     */
+    private final List<Runnable> commitListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates graph operations over the shared graph, folding its changes into
+     * the snapshot roots.
+     */
+    public GraphOperations(final ListenableGraph<Node, Edge> graph) {
+
+        graph.addGraphListener(new GraphListener<>() {
+
+            @Override
+            public void edgeAdded(final GraphEdgeChangeEvent<Node, Edge> event) {
+                final var edge = event.getEdge();
+                apply(root -> root.withEdge(edge));
+            }
+
+            @Override
+            public void edgeRemoved(final GraphEdgeChangeEvent<Node, Edge> event) {
+                final var edge = event.getEdge();
+                apply(root -> root.withoutEdge(edge));
+            }
+
+            @Override
+            public void vertexAdded(final GraphVertexChangeEvent<Node> event) {
+                final var node = event.getVertex();
+                apply(root -> root.withNode(node));
+            }
+
+            @Override
+            public void vertexRemoved(final GraphVertexChangeEvent<Node> event) {
+                final var node = event.getVertex();
+                apply(root -> root.withoutNode(node));
+            }
+        });
+    }
+
+    /**
+     * Returns the most recently committed root. The root is immutable, so a reader
+     * can run any number of queries against it and see a consistent graph.
+     */
+    public GraphSnapshot snapshot() {
+
+        return published.get();
+    }
+
+    /**
+     * Registers a callback that runs on the writing thread once each outermost
+     * write completes, after its changes are published and before its stripes
+     * are released.
+     */
+    public void addCommitListener(final Runnable listener) {
+
+        commitListeners.add(listener);
+    }
+
+    /**
+     * Runs a mutation of the graph as a single commit while holding the write
+     * stripes of the specified IDs. Writes may nest (re-acquiring stripes already
+     * held is free), in which case the changes are published once the outermost
+     * write completes, before its stripes are released. Changes are published
+     * even if the mutation fails part way, since the graph itself is not rolled
+     * back.
+     */
+    public <T> T write(final Collection<NanoId> ids, final Supplier<T> mutation) {
+
+        return stripes.withSupplier(ids, () -> {
+            final var commit = commits.get();
+            commit.depth++;
+            try {
+                return mutation.get();
+            } finally {
+                commit.depth--;
+                if (commit.depth == 0) {
+                    try {
+                        publish(commit);
+                        commitListeners.forEach(Runnable::run);
+                    } finally {
+                        commit.expiries.clear();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs an action while no write is in progress, holding every write stripe.
+     * Every change fired so far has been published when the action runs. This
+     * blocks all writers, so it is only meant for rare maintenance.
+     */
+    public <T> T exclusive(final Supplier<T> action) {
+
+        return stripes.withAll(action);
+    }
+
+    /**
+     * Returns when the write in progress on this thread expired an element it
+     * removed from the graph, or empty if it recorded no expiry for it. Graph
+     * listeners call this while handling a removal, since the graph only fires
+     * the removal with the active version.
+     */
+    public Optional<Instant> expiry(final Element removed) {
+
+        return Optional.ofNullable(commits.get().expiries.get(removed.locator()));
+    }
+
+    /**
+     * Records the expired copy of an element the write in progress is about to
+     * remove from the graph, so listeners of the removal see the same instant
+     * the operation returns.
+     */
+    void expiring(final Element expired) {
+
+        final var commit = commits.get();
+        if (commit.depth > 0) {
+            expired.expired().ifPresent(instant -> commit.expiries.put(expired.locator(), instant));
+        }
+    }
+
+    /**
+     * Checks whether the current thread is inside a write.
+     */
+    boolean writing() {
+
+        return commits.get().depth > 0;
+    }
+
+    /**
+     * Records a change derived from a graph event, publishing it straight away if
+     * the change was made outside a write.
+     */
+    private void apply(final UnaryOperator<GraphSnapshot> change) {
+
+        final var commit = commits.get();
+        if (commit.depth > 0) {
+            commit.changes.add(change);
+        } else {
+            published.updateAndGet(change);
+        }
+    }
+
+    /**
+     * Replays the changes of a completed write onto the latest root.
+     */
+    private void publish(final Commit commit) {
+
+        if (commit.changes.isEmpty()) {
+            return;
+        }
+        final List<UnaryOperator<GraphSnapshot>> changes = List.copyOf(commit.changes);
+        commit.changes.clear();
+        published.updateAndGet(root -> {
+            var replayed = root;
+            for (final var change : changes) {
+                replayed = change.apply(replayed);
+            }
+            return replayed;
+        });
+    }
+
+    /**
+     * Changes collected by the write in progress on a thread, and the expiry of
+     * each element it removed.
+     */
+    private static final class Commit {
+
+        private final List<UnaryOperator<GraphSnapshot>> changes = new ArrayList<>();
+        private final Map<Locator, Instant> expiries = new HashMap<>();
+        private int depth = 0;
     }
 }
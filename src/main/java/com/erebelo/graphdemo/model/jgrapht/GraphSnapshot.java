@@ -0,0 +1,274 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.common.adt.Lazy;
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.common.version.Versioned;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Immutable root of the active graph at one commit. Writers derive a new root
+ * from the previous one using persistent (structurally shared) maps, so each
+ * change copies only the paths it touches, and readers holding a root see a
+ * consistent graph without locking. Point queries (reachability, shortest and
+ * simple paths) walk the persistent adjacency directly, so a new root costs
+ * nothing until it is read. The CSR form, which whole-graph computations use,
+ * is built on first use. Instances are immutable and thread-safe.
+ */
+public final class GraphSnapshot implements GraphView {
+
+    /**
+     * Root of an empty graph.
+     */
+    static final GraphSnapshot EMPTY = new GraphSnapshot(HashMap.empty(), HashMap.empty(), HashMap.empty(),
+            HashMap.empty());
+
+    private final Map<NanoId, Node> nodes;
+    private final Map<NanoId, Edge> edges;
+
+    /**
+     * IDs of the edges leaving each node, keyed by node ID.
+     */
+    private final Map<NanoId, Set<NanoId>> outgoing;
+
+    /**
+     * IDs of the edges entering each node, keyed by node ID.
+     */
+    private final Map<NanoId, Set<NanoId>> incoming;
+
+    private final Lazy<CsrSnapshot> csr;
+
+    private GraphSnapshot(final Map<NanoId, Node> nodes, final Map<NanoId, Edge> edges,
+            final Map<NanoId, Set<NanoId>> outgoing, final Map<NanoId, Set<NanoId>> incoming) {
+
+        this.nodes = nodes;
+        this.edges = edges;
+        this.outgoing = outgoing;
+        this.incoming = incoming;
+        csr = Lazy.of(() -> CsrSnapshot.of(nodes.values().toJavaList(), edges.values().toJavaList()));
+    }
+
+    /**
+     * Returns a root holding the specified nodes and the edges between them. Edges
+     * with an endpoint that is not among the nodes are left out.
+     */
+    static GraphSnapshot of(final Collection<Node> nodes, final Collection<Edge> edges) {
+
+        var root = EMPTY;
+        for (final var node : nodes) {
+            root = root.withNode(node);
+        }
+        for (final var edge : edges) {
+            if (root.nodes.containsKey(edge.source().locator().id())
+                    && root.nodes.containsKey(edge.target().locator().id())) {
+                root = root.withEdge(edge);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Finds an active node by ID.
+     */
+    @Override
+    public Optional<Node> findNode(final NanoId id) {
+
+        return nodes.get(id).toJavaOptional();
+    }
+
+    /**
+     * Finds an active edge by ID.
+     */
+    public Optional<Edge> findEdge(final NanoId id) {
+
+        return edges.get(id).toJavaOptional();
+    }
+
+    /**
+     * Returns every active node.
+     */
+    public List<Node> nodes() {
+
+        return nodes.values().toJavaList();
+    }
+
+    /**
+     * Returns every active edge.
+     */
+    public List<Edge> edges() {
+
+        return edges.values().toJavaList();
+    }
+
+    /**
+     * Returns the active edges leaving the node with the specified ID.
+     */
+    public List<Edge> edgesFrom(final NanoId nodeId) {
+
+        return resolve(outgoing, nodeId).toList();
+    }
+
+    /**
+     * Returns the active edges entering the node with the specified ID.
+     */
+    public List<Edge> edgesTo(final NanoId nodeId) {
+
+        return resolve(incoming, nodeId).toList();
+    }
+
+    /**
+     * Returns the nodes connected to the node with the specified ID by an active
+     * edge in either direction.
+     */
+    public List<Node> neighbors(final NanoId nodeId) {
+
+        return Stream.concat(resolve(outgoing, nodeId).map(Edge::target), resolve(incoming, nodeId).map(Edge::source))
+                .toList();
+    }
+
+    /**
+     * Returns the number of active nodes.
+     */
+    @Override
+    public int nodeCount() {
+
+        return nodes.size();
+    }
+
+    /**
+     * Returns an iterator over the active edges leaving a node, without copying
+     * them.
+     */
+    @Override
+    public Iterator<Edge> edgesOut(final NanoId nodeId) {
+
+        return iterate(outgoing, nodeId);
+    }
+
+    /**
+     * Returns an iterator over the active edges entering a node, without copying
+     * them.
+     */
+    @Override
+    public Iterator<Edge> edgesIn(final NanoId nodeId) {
+
+        return iterate(incoming, nodeId);
+    }
+
+    /**
+     * Returns the CSR form of this root, building it in O(n + m) on first use.
+     * Only computations over the whole graph should need it.
+     */
+    public CsrSnapshot csr() {
+
+        return csr.get();
+    }
+
+    /**
+     * Returns a root with the node added (or replacing the version with the same
+     * ID).
+     */
+    GraphSnapshot withNode(final Node node) {
+
+        return new GraphSnapshot(nodes.put(node.locator().id(), node), edges, outgoing, incoming);
+    }
+
+    /**
+     * Returns a root without the node, if it is the version held.
+     */
+    GraphSnapshot withoutNode(final Node node) {
+
+        final var id = node.locator().id();
+        if (!holds(nodes, id, node)) {
+            return this;
+        }
+        return new GraphSnapshot(nodes.remove(id), edges, outgoing.remove(id), incoming.remove(id));
+    }
+
+    /**
+     * Returns a root with the edge added (or replacing the version with the same
+     * ID).
+     */
+    GraphSnapshot withEdge(final Edge edge) {
+
+        final var id = edge.locator().id();
+        return new GraphSnapshot(nodes, edges.put(id, edge), link(outgoing, edge.source().locator().id(), id),
+                link(incoming, edge.target().locator().id(), id));
+    }
+
+    /**
+     * Returns a root without the edge, if it is the version held.
+     */
+    GraphSnapshot withoutEdge(final Edge edge) {
+
+        final var id = edge.locator().id();
+        if (!holds(edges, id, edge)) {
+            return this;
+        }
+        return new GraphSnapshot(nodes, edges.remove(id), unlink(outgoing, edge.source().locator().id(), id),
+                unlink(incoming, edge.target().locator().id(), id));
+    }
+
+    /**
+     * Resolves the edge IDs in an adjacency entry to edges.
+     */
+    private Stream<Edge> resolve(final Map<NanoId, Set<NanoId>> adjacency, final NanoId nodeId) {
+
+        return adjacency.get(nodeId).map(ids -> ids.toJavaStream().map(id -> edges.get(id).get()))
+                .getOrElse(Stream::empty);
+    }
+
+    /**
+     * Iterates the edge IDs in an adjacency entry as edges.
+     */
+    private Iterator<Edge> iterate(final Map<NanoId, Set<NanoId>> adjacency, final NanoId nodeId) {
+
+        return adjacency.get(nodeId).<Iterator<Edge>>map(ids -> ids.iterator().map(id -> edges.get(id).get()))
+                .getOrElse(Collections::emptyIterator);
+    }
+
+    /**
+     * Returns true if the map holds the specified version under the ID.
+     */
+    private static <E extends Versioned> boolean holds(final Map<NanoId, E> elements, final NanoId id,
+            final E element) {
+
+        return elements.get(id).exists(held -> held.locator().equals(element.locator()));
+    }
+
+    /**
+     * Adds an edge ID to the adjacency entry of a node.
+     */
+    private static Map<NanoId, Set<NanoId>> link(final Map<NanoId, Set<NanoId>> adjacency, final NanoId nodeId,
+            final NanoId edgeId) {
+
+        return adjacency.put(nodeId, adjacency.get(nodeId).getOrElse(HashSet::empty).add(edgeId));
+    }
+
+    /**
+     * Removes an edge ID from the adjacency entry of a node, dropping the entry
+     * once it is empty.
+     */
+    private static Map<NanoId, Set<NanoId>> unlink(final Map<NanoId, Set<NanoId>> adjacency, final NanoId nodeId,
+            final NanoId edgeId) {
+
+        final var remaining = adjacency.get(nodeId).getOrElse(HashSet::empty).remove(edgeId);
+        return remaining.isEmpty() ? adjacency.remove(nodeId) : adjacency.put(nodeId, remaining);
+    }
+}
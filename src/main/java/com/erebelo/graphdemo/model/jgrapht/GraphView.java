@@ -0,0 +1,42 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Read-only adjacency of the graph at one point in time, either a committed
+ * root of the active graph or the graph as it was at a past instant. The point
+ * queries in PathOperations run against either. Implementations are immutable
+ * and thread-safe.
+ */
+public interface GraphView {
+
+    /**
+     * Finds the node with the specified ID.
+     */
+    Optional<Node> findNode(NanoId id);
+
+    /**
+     * Returns the number of nodes.
+     */
+    int nodeCount();
+
+    /**
+     * Returns an iterator over the edges leaving a node.
+     */
+    Iterator<Edge> edgesOut(NanoId nodeId);
+
+    /**
+     * Returns an iterator over the edges entering a node.
+     */
+    Iterator<Edge> edgesIn(NanoId nodeId);
+}
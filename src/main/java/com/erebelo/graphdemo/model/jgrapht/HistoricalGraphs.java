@@ -0,0 +1,298 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.common.adt.Lazy;
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.common.version.Versioned;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.jgrapht.Graph;
+import org.jgrapht.ListenableGraph;
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphListener;
+import org.jgrapht.event.GraphVertexChangeEvent;
+import org.jgrapht.graph.AsUnmodifiableGraph;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.MaskSubgraph;
+import org.springframework.stereotype.Service;
+
+/**
+ * Read-only views of the graph as it was at an exact instant. The versions
+ * alive at any point during each second are gathered once from the interval
+ * trees of the node and edge indexes and cached by that second (the bucket).
+ * A view at an instant within the bucket filters them by [created, expired)
+ * as it is traversed, so it reflects the graph at that instant and costs
+ * nothing to create. The GraphView form works with the point queries in
+ * PathOperations (shortest paths, reachability, path enumeration), and the
+ * JGraphT form masks a graph of the bucket built on first use. A change to a
+ * version created at time T invalidates the cached buckets at or after T.
+ * This type is thread-safe.
+ */
+@Service
+public class HistoricalGraphs {
+
+    /**
+     * Resolution of the cache.
+     */
+    private static final ChronoUnit BUCKET = ChronoUnit.SECONDS;
+
+    /**
+     * Maximum number of cached buckets.
+     */
+    private static final int CACHE_SIZE = 32;
+
+    private final GraphOperations graphOperations;
+    private final NodeOperations nodeOperations;
+    private final EdgeOperations edgeOperations;
+
+    /**
+     * Buckets by start, least recently used first. Guarded by itself.
+     */
+    private final Map<Instant, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Instant, Bucket> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Earliest change made by the write in progress on each thread. The graph
+     * fires its events before the version indexes are updated, so buckets are
+     * invalidated again once the write commits in case one was rebuilt in
+     * between. Only set inside a write, whose commit always clears it.
+     */
+    private final ThreadLocal<Instant> pending = new ThreadLocal<>();
+
+    public HistoricalGraphs(final ListenableGraph<Node, Edge> graph, final GraphOperations graphOperations,
+            final NodeOperations nodeOperations, final EdgeOperations edgeOperations) {
+
+        this.graphOperations = graphOperations;
+        this.nodeOperations = nodeOperations;
+        this.edgeOperations = edgeOperations;
+        graph.addGraphListener(new GraphListener<>() {
+
+            @Override
+            public void edgeAdded(final GraphEdgeChangeEvent<Node, Edge> event) {
+                changed(event.getEdge().created());
+            }
+
+            @Override
+            public void edgeRemoved(final GraphEdgeChangeEvent<Node, Edge> event) {
+                changed(event.getEdge().created());
+            }
+
+            @Override
+            public void vertexAdded(final GraphVertexChangeEvent<Node> event) {
+                changed(event.getVertex().created());
+            }
+
+            @Override
+            public void vertexRemoved(final GraphVertexChangeEvent<Node> event) {
+                changed(event.getVertex().created());
+            }
+        });
+        graphOperations.addCommitListener(this::committed);
+    }
+
+    /**
+     * Returns the graph as it was at the timestamp as an immutable view.
+     */
+    public GraphView snapshotAt(final Instant timestamp) {
+
+        return new PointInTime(bucket(timestamp), timestamp);
+    }
+
+    /**
+     * Returns the graph as it was at the timestamp as a read-only JGraphT graph.
+     */
+    public Graph<Node, Edge> graphAt(final Instant timestamp) {
+
+        final var graph = bucket(timestamp).graph.get();
+        return new AsUnmodifiableGraph<>(new MaskSubgraph<>(graph, node -> !alive(node, timestamp),
+                edge -> !alive(edge, timestamp)));
+    }
+
+    private Bucket bucket(final Instant timestamp) {
+
+        final var start = timestamp.truncatedTo(BUCKET);
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(start, Bucket::new);
+        }
+    }
+
+    /**
+     * Invalidates the buckets affected by a change to a version created at the
+     * specified time. Inside a write the change is remembered until it commits;
+     * outside one there is no commit to wait for.
+     */
+    private void changed(final Instant created) {
+
+        invalidate(created);
+        if (graphOperations.writing()) {
+            final var earliest = pending.get();
+            if ((earliest == null) || created.isBefore(earliest)) {
+                pending.set(created);
+            }
+        }
+    }
+
+    private void committed() {
+
+        final var earliest = pending.get();
+        if (earliest != null) {
+            pending.remove();
+            invalidate(earliest);
+        }
+    }
+
+    /**
+     * Drops the buckets at or after the specified time. The lifetime of a changed
+     * version starts at its creation, so earlier buckets are unaffected.
+     */
+    private void invalidate(final Instant from) {
+
+        final var first = from.truncatedTo(BUCKET);
+        synchronized (buckets) {
+            buckets.keySet().removeIf(start -> !start.isBefore(first));
+        }
+    }
+
+    /**
+     * Checks whether a version is alive at an instant.
+     */
+    private static boolean alive(final Versioned version, final Instant timestamp) {
+
+        return !version.created().isAfter(timestamp)
+                && version.expired().map(expired -> expired.isAfter(timestamp)).orElse(true);
+    }
+
+    /**
+     * Versions alive at some point during one bucket, indexed by node ID, and a
+     * JGraphT graph of them built on first use.
+     */
+    private final class Bucket {
+
+        private final Lazy<Versions> versions;
+        private final Lazy<Graph<Node, Edge>> graph;
+
+        Bucket(final Instant start) {
+
+            final var end = start.plus(1, BUCKET);
+            versions = Lazy.of(() -> new Versions(nodeOperations.allDuring(start, end),
+                    edgeOperations.allDuring(start, end)));
+            graph = Lazy.of(() -> versions.get().toGraph());
+        }
+    }
+
+    /**
+     * Node versions by ID and edge versions by the IDs of their endpoints.
+     */
+    private static final class Versions {
+
+        private final List<Node> all;
+        private final Map<NanoId, List<Node>> nodes = new HashMap<>();
+        private final Map<NanoId, List<Edge>> outgoing = new HashMap<>();
+        private final Map<NanoId, List<Edge>> incoming = new HashMap<>();
+
+        Versions(final List<Node> nodes, final List<Edge> edges) {
+
+            all = nodes;
+            for (final var node : nodes) {
+                this.nodes.computeIfAbsent(node.locator().id(), id -> new ArrayList<>(1)).add(node);
+            }
+            for (final var edge : edges) {
+                outgoing.computeIfAbsent(edge.source().locator().id(), id -> new ArrayList<>()).add(edge);
+                incoming.computeIfAbsent(edge.target().locator().id(), id -> new ArrayList<>()).add(edge);
+            }
+        }
+
+        /**
+         * Builds a graph of every version in the bucket. Edges are attached to the
+         * node versions held by the index, matched by locator.
+         */
+        Graph<Node, Edge> toGraph() {
+
+            final var graph = new DefaultDirectedGraph<Node, Edge>(null, null, false);
+            final var byLocator = new HashMap<Locator, Node>();
+            for (final var node : all) {
+                graph.addVertex(node);
+                byLocator.put(node.locator(), node);
+            }
+            for (final var edges : outgoing.values()) {
+                for (final var edge : edges) {
+                    final var source = byLocator.get(edge.source().locator());
+                    final var target = byLocator.get(edge.target().locator());
+                    if ((source != null) && (target != null)) {
+                        graph.addEdge(source, target, edge);
+                    }
+                }
+            }
+            return graph;
+        }
+    }
+
+    /**
+     * View of a bucket at one instant, filtering its versions as they are read.
+     */
+    private static final class PointInTime implements GraphView {
+
+        private final Bucket bucket;
+        private final Instant timestamp;
+
+        PointInTime(final Bucket bucket, final Instant timestamp) {
+
+            this.bucket = bucket;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public Optional<Node> findNode(final NanoId id) {
+
+            return bucket.versions.get().nodes.getOrDefault(id, List.of()).stream()
+                    .filter(node -> alive(node, timestamp)).findFirst();
+        }
+
+        @Override
+        public int nodeCount() {
+
+            return (int) bucket.versions.get().all.stream().filter(node -> alive(node, timestamp)).count();
+        }
+
+        @Override
+        public Iterator<Edge> edgesOut(final NanoId nodeId) {
+
+            return filter(bucket.versions.get().outgoing.get(nodeId));
+        }
+
+        @Override
+        public Iterator<Edge> edgesIn(final NanoId nodeId) {
+
+            return filter(bucket.versions.get().incoming.get(nodeId));
+        }
+
+        private Iterator<Edge> filter(final List<Edge> edges) {
+
+            if (edges == null) {
+                return Collections.emptyIterator();
+            }
+            return edges.stream().filter(edge -> alive(edge, timestamp)).iterator();
+        }
+    }
+}
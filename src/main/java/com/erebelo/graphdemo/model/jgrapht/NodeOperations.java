@@ -8,7 +8,7 @@ package com.erebelo.graphdemo.model.jgrapht;
 
 import com.erebelo.graphdemo.common.version.Locator;
 import com.erebelo.graphdemo.common.version.NanoId;
-import com.erebelo.graphdemo.common.version.Versions;
+import com.erebelo.graphdemo.common.version.VersionIndex;
 import com.erebelo.graphdemo.model.Data;
 import com.erebelo.graphdemo.model.Edge;
 import com.erebelo.graphdemo.model.Node;
@@ -18,15 +18,24 @@ import com.erebelo.graphdemo.model.simple.SimpleNode;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.stream.Stream;
 import org.jgrapht.Graph;
 import org.springframework.stereotype.Service;
 
 /**
  * JGraphT-based implementation of node operations for versioned graph elements.
+ * Only active nodes (and their active edges) are kept in the graph, so
+ * traversals never see expired versions. Expired versions are moved to the
+ * version history, which is where version lookups are answered from. Mutations
+ * run as graph writes holding the stripes of the node and its connected edges,
+ * so writers on unrelated nodes proceed in parallel, and active lookups read
+ * the committed snapshot without locking.
  */
 @Service
 public class NodeOperations implements Operations<Node> {
@@ -35,10 +44,19 @@ public class NodeOperations implements Operations<Node> {
 
     private final EdgeOperations edgeDelegate;
 
-    public NodeOperations(final Graph<Node, Edge> graph, final EdgeOperations edgeDelegate) {
+    private final GraphOperations graphOperations;
+
+    /**
+     * Active and expired versions of every node keyed by ID.
+     */
+    private final VersionIndex<Node> versions = new VersionIndex<>();
+
+    public NodeOperations(final Graph<Node, Edge> graph, final EdgeOperations edgeDelegate,
+            final GraphOperations graphOperations) {
 
         this.graph = graph;
         this.edgeDelegate = edgeDelegate;
+        this.graphOperations = graphOperations;
     }
 
     public boolean contains(final Node node) {
@@ -54,52 +72,57 @@ public class NodeOperations implements Operations<Node> {
     public Node add(final Data data, final Instant timestamp) {
 
         final var locator = Locator.generate();
-        // TODO Should I call EdgeOperations#findEdgesAt here. If yes, how to avoid
-        // fetching whole graph?
-        final var node = new SimpleNode(locator, new ArrayList<>(), data, timestamp, Optional.empty());
-        graph.addVertex(node);
-        return node;
+        return graphOperations.write(List.of(locator.id()), () -> {
+            // TODO Should I call EdgeOperations#findEdgesAt here. If yes, how to avoid
+            // fetching whole graph?
+            final var node = new SimpleNode(locator, new ArrayList<>(), data, timestamp, Optional.empty());
+            insert(node);
+            return node;
+        });
     }
 
+    /**
+     * Updates a node by creating a new version. The current version and its
+     * connected edges move to the version history, and each connected edge gets a
+     * new version re-targeted at the new node. Every connected edge is handled
+     * exactly once, so the cost (and the number of graph events) is proportional
+     * to the degree of the node.
+     */
     public Node update(final NanoId id, final Data data, final Instant timestamp) {
 
-        final var existingNode = OperationsHelper.validateForExpiry(findActive(id), id, "Node");
-
-        // Collect edge information before expiring
-        final var edgeRecreationInfo = collectActiveEdgeInfo(existingNode);
-
-        // Expire the existing node and its edges
-        final var expired = expire(id, timestamp);
-
-        // Create new version
-        final var incremented = expired.locator().increment();
-        final var newNode = new SimpleNode(incremented, new ArrayList<>(), data, timestamp, Optional.empty());
-        graph.addVertex(newNode);
-
-        // Recreate edges to the new node
-        recreateEdgesForNode(newNode, edgeRecreationInfo, timestamp);
-
-        return newNode;
+        return withNodeLocked(id, (node, connectedEdges) -> replace(node, connectedEdges, data, timestamp));
     }
 
     @Override
     public Optional<Node> findActive(final NanoId id) {
-        return Versions.findActive(id, graph.vertexSet());
+        return graphOperations.snapshot().findNode(id);
     }
 
     @Override
     public Optional<Node> findAt(final NanoId id, final Instant timestamp) {
-        return Versions.findAt(id, timestamp, graph.vertexSet());
+        return versions.findAt(id, timestamp);
     }
 
     @Override
     public List<Node> findAllVersions(final NanoId id) {
-        return Versions.findAllVersions(id, graph.vertexSet());
+        return versions.findAllVersions(id);
     }
 
     @Override
     public List<Node> allActive() {
-        return Versions.allActive(graph.vertexSet());
+        return graphOperations.snapshot().nodes();
+    }
+
+    @Override
+    public List<Node> allAt(final Instant timestamp) {
+        return versions.allAt(timestamp);
+    }
+
+    /**
+     * Returns every node version active at some point in [from, to).
+     */
+    public List<Node> allDuring(final Instant from, final Instant to) {
+        return versions.allDuring(from, to);
     }
 
     public Optional<Node> findNodeAt(final NanoId id, final Instant timestamp) {
@@ -115,114 +138,115 @@ public class NodeOperations implements Operations<Node> {
      */
     public List<Node> getNeighbors(final Node node) {
 
-        final var outgoingNeighbors = graph.outgoingEdgesOf(node).stream().filter(edge -> edge.expired().isEmpty())
-                .map(Edge::target);
-
-        final var incomingNeighbors = graph.incomingEdgesOf(node).stream().filter(edge -> edge.expired().isEmpty())
-                .map(Edge::source);
-
-        return Stream.concat(outgoingNeighbors, incomingNeighbors).toList();
+        return graphOperations.snapshot().neighbors(node.locator().id());
     }
 
     @Override
     public Node expire(final NanoId id, final Instant timestamp) {
 
-        final var node = OperationsHelper.validateForExpiry(findActive(id), id, "Node");
-
-        // Collect all connected edges
-        final var allConnectedEdges = collectAllConnectedEdges(node);
-
-        // Expire active edges
-        expireActiveEdges(allConnectedEdges, timestamp);
-
-        // Create expired node
-        final var expiredNode = new SimpleNode(node.locator(), node.edges(), node.data(), node.created(),
-                Optional.of(timestamp));
-
-        // Remove old node and add expired version
-        graph.removeVertex(node); // This removes all connected edges
-        graph.addVertex(expiredNode);
-
-        // Recreate all edges with updated endpoints
-        recreateEdgesAfterNodeExpiry(expiredNode, node, allConnectedEdges, timestamp);
+        return withNodeLocked(id, (node, connectedEdges) -> retire(node, connectedEdges, timestamp));
+    }
 
-        return expiredNode;
+    /**
+     * Runs a mutation of an active node as a graph write holding the stripes of
+     * the node and of every connected edge (which are also locked by writers of
+     * the edges and of the nodes at their other ends). The connected edges are
+     * read before locking, so if they changed in the meantime the write is
+     * retried with the new set.
+     */
+    private Node withNodeLocked(final NanoId id, final BiFunction<Node, Collection<Edge>, Node> mutation) {
+
+        while (true) {
+            final var snapshot = graphOperations.snapshot();
+            final var expected = new HashSet<NanoId>();
+            Stream.concat(snapshot.edgesFrom(id).stream(), snapshot.edgesTo(id).stream())
+                    .forEach(edge -> expected.add(edge.locator().id()));
+            final var ids = new ArrayList<NanoId>(expected);
+            ids.add(id);
+            final var result = graphOperations.write(ids, () -> {
+                final var node = OperationsHelper.validateForExpiry(findActive(id), id, "Node");
+                final var connectedEdges = connectedEdges(node);
+                final var actual = new HashSet<NanoId>();
+                connectedEdges.forEach(edge -> actual.add(edge.locator().id()));
+                return actual.equals(expected) ? Optional.of(mutation.apply(node, connectedEdges))
+                        : Optional.<Node>empty();
+            });
+            if (result.isPresent()) {
+                return result.get();
+            }
+        }
     }
 
     /**
-     * Collects information about active edges connected to a node.
+     * Creates the next version of a node and connects it with new edges in place
+     * of its connected edges. As when edges were re-added one by one, each
+     * replacement edge gets a new ID (its ID is not locked, but nothing else can
+     * know it until the write commits) and keeps the data of the edge it replaces.
      */
-    private List<EdgeRecreationInfo> collectActiveEdgeInfo(final Node node) {
+    private Node replace(final Node node, final Collection<Edge> connectedEdges, final Data data,
+            final Instant timestamp) {
 
-        final var incomingEdgeInfo = graph.incomingEdgesOf(node).stream().filter(edge -> edge.expired().isEmpty())
-                .map(edge -> new EdgeRecreationInfo(edge.source(), node, edge.data(), true));
+        // Move the current version and its edges to the version history
+        retire(node, connectedEdges, timestamp);
 
-        final var outgoingEdgeInfo = graph.outgoingEdgesOf(node).stream().filter(edge -> edge.expired().isEmpty())
-                .map(edge -> new EdgeRecreationInfo(node, edge.target(), edge.data(), false));
+        // Create new version and connect new edges to it
+        final var newNode = new SimpleNode(node.locator().increment(), new ArrayList<>(), data, timestamp,
+                Optional.empty());
+        insert(newNode);
+        connectedEdges.forEach(edge -> edgeDelegate.insert(new SimpleEdge(Locator.generate(),
+                retarget(edge.source(), node, newNode), retarget(edge.target(), node, newNode), edge.data(),
+                timestamp, Optional.empty())));
 
-        return Stream.concat(incomingEdgeInfo, outgoingEdgeInfo).toList();
+        return newNode;
     }
 
     /**
-     * Collects all edges connected to a node.
+     * Collects every edge connected to a node (a self loop is collected once).
      */
-    private List<Edge> collectAllConnectedEdges(final Node node) {
+    private Collection<Edge> connectedEdges(final Node node) {
 
-        final var allConnectedEdges = new ArrayList<Edge>();
-        allConnectedEdges.addAll(graph.incomingEdgesOf(node));
-        allConnectedEdges.addAll(graph.outgoingEdgesOf(node));
-        return allConnectedEdges;
+        final var connectedEdges = new LinkedHashSet<Edge>();
+        connectedEdges.addAll(graph.incomingEdgesOf(node));
+        connectedEdges.addAll(graph.outgoingEdgesOf(node));
+        return connectedEdges;
     }
 
     /**
-     * Expires all active edges in the given collection.
+     * Expires a node and its connected edges. The graph only holds active
+     * elements, so each edge is removed from the graph and its expired copy (with
+     * the node endpoint replaced by the expired node) is moved to the edge
+     * history. The node, which no longer has edges, is then moved to the node
+     * history.
      */
-    private void expireActiveEdges(final Collection<Edge> edges, final Instant timestamp) {
+    private Node retire(final Node node, final Iterable<Edge> connectedEdges, final Instant timestamp) {
 
-        edges.stream().filter(edge -> edge.expired().isEmpty())
-                .forEach(edge -> edgeDelegate.expire(edge.locator().id(), timestamp));
+        final var expiredNode = new SimpleNode(node.locator(), node.edges(), node.data(), node.created(),
+                Optional.of(timestamp));
+        connectedEdges.forEach(edge -> edgeDelegate.retire(edge,
+                new SimpleEdge(edge.locator(), retarget(edge.source(), node, expiredNode),
+                        retarget(edge.target(), node, expiredNode), edge.data(), edge.created(),
+                        Optional.of(timestamp))));
+        graphOperations.expiring(expiredNode);
+        graph.removeVertex(node);
+        versions.put(expiredNode);
+        return expiredNode;
     }
 
     /**
-     * Recreates edges for a new node version.
+     * Returns the replacement if the endpoint is the specified node, otherwise the
+     * endpoint itself. Comparing locators avoids hashing the full node record.
      */
-    private void recreateEdgesForNode(final Node newNode, final Iterable<EdgeRecreationInfo> edgeInfo,
-            final Instant timestamp) {
+    private static Node retarget(final Node endpoint, final Node node, final Node replacement) {
 
-        edgeInfo.forEach(info -> {
-            if (info.incoming()) {
-                edgeDelegate.add(info.source(), newNode, info.data(), timestamp);
-            } else {
-                edgeDelegate.add(newNode, info.target(), info.data(), timestamp);
-            }
-        });
+        return endpoint.locator().equals(node.locator()) ? replacement : endpoint;
     }
 
     /**
-     * Recreates edges after a node has been expired.
+     * Adds an active node to the graph and records it in the version index.
      */
-    private void recreateEdgesAfterNodeExpiry(final Node expiredNode, final Node originalNode,
-            final Iterable<Edge> allConnectedEdges, final Instant timestamp) {
-
-        allConnectedEdges.forEach(edge -> {
-            // Update the source/target to point to the expired node if it was the original
-            // node
-            final var source = edge.source().equals(originalNode) ? expiredNode : edge.source();
-            final var target = edge.target().equals(originalNode) ? expiredNode : edge.target();
-
-            // If this edge was active, expire it; if it was already expired, keep its
-            // expiry time
-            final var expiredTime = edge.expired().isPresent() ? edge.expired().get() : timestamp;
-
-            final var recreatedEdge = new SimpleEdge(edge.locator(), source, target, edge.data(), edge.created(),
-                    Optional.of(expiredTime));
-            graph.addEdge(source, target, recreatedEdge);
-        });
-    }
+    private void insert(final Node node) {
 
-    /**
-     * Helper record to store edge information for recreation.
-     */
-    private record EdgeRecreationInfo(Node source, Node target, Data data, boolean incoming) {
+        graph.addVertex(node);
+        versions.put(node);
     }
 }
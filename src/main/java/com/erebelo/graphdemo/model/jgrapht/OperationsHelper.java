@@ -13,16 +13,10 @@ import com.erebelo.graphdemo.model.Element;
 import com.erebelo.graphdemo.model.Node;
 import com.erebelo.graphdemo.model.Path;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import org.jgrapht.Graph;
 import org.jgrapht.GraphPath;
-import org.jgrapht.alg.connectivity.ConnectivityInspector;
-import org.jgrapht.alg.cycle.CycleDetector;
-import org.jgrapht.graph.AsSubgraph;
 import org.springframework.stereotype.Service;
 
 /**
@@ -67,94 +61,27 @@ public class OperationsHelper {
     }
 
     /**
-     * Checks if a path contains a cycle (revisits the same node).
-     */
-    public static boolean containsCycle(final Path path) {
-
-        final var visitedNodes = new HashSet<Node>();
-        return path.elements().stream().filter(element -> element instanceof Node).map(element -> (Node) element)
-                .anyMatch(node -> !visitedNodes.add(node));
-    }
-
-    /**
-     * Validates component elements according to component constraints.
-     */
-    public static void validateComponentElements(final Collection<Element> elements, final Graph<Node, Edge> graph) {
-
-        if (elements.isEmpty()) {
-            throw new IllegalArgumentException("Component must contain at least one element");
-        }
-
-        final var nodes = new HashSet<Node>();
-        final var edges = new HashSet<Edge>();
-
-        elements.forEach(element -> {
-            if (element instanceof Node node) {
-                nodes.add(node);
-            } else if (element instanceof Edge edge) {
-                edges.add(edge);
-            } else {
-                throw new IllegalArgumentException("Unknown element type: " + element.getClass().getSimpleName());
-            }
-        });
-
-        if (nodes.isEmpty()) {
-            throw new IllegalArgumentException("Component must contain at least one node");
-        }
-
-        validateConnectivity(nodes, edges, graph);
-        validateNoCycles(nodes, edges, graph);
-        validateLeafNodesOnly(nodes, edges);
-    }
-
-    /**
-     * Validates that all elements in a component are connected.
-     */
-    private static void validateConnectivity(final Set<Node> nodes, final Set<Edge> edges,
-            final Graph<Node, Edge> graph) {
-
-        if ((nodes.size() == 1) && edges.isEmpty()) {
-            return;
-        }
-
-        // Create a subgraph containing only the component's nodes and edges
-        final var subgraph = new AsSubgraph<>(graph, nodes, edges);
-
-        // Use ConnectivityInspector to check if all nodes are connected
-        final var inspector = new ConnectivityInspector<>(subgraph);
-        if (!inspector.isConnected()) {
-            throw new IllegalArgumentException("All elements in a component must be connected");
-        }
-    }
-
-    /**
-     * Validates that a component contains no cycles.
+     * Converts the edges of a path in order, starting at the source node, to a
+     * path.
      */
-    private static void validateNoCycles(final Set<Node> nodes, final Set<Edge> edges, final Graph<Node, Edge> graph) {
-
-        // Create a subgraph containing only the component's nodes and edges
-        final var subgraph = new AsSubgraph<>(graph, nodes, edges);
+    public static Path toPath(final Node source, final List<Edge> edges) {
 
-        // Use JGraphT's CycleDetector to check for cycles
-        final var cycleDetector = new CycleDetector<>(subgraph);
-        if (cycleDetector.detectCycles()) {
-            throw new IllegalArgumentException("Components cannot contain cycles");
+        final List<Element> elements = new ArrayList<>((edges.size() * 2) + 1);
+        elements.add(source);
+        for (final var edge : edges) {
+            elements.add(edge);
+            elements.add(edge.target());
         }
+        return new Path(elements);
     }
 
     /**
-     * Validates that leaf elements are nodes only.
+     * Checks if a path contains a cycle (revisits the same node).
      */
-    private static void validateLeafNodesOnly(final Collection<Node> nodes, final Iterable<Edge> edges) {
-
-        edges.forEach(edge -> {
-            // Use the edge's source and target directly instead of querying the graph
-            final var source = edge.source();
-            final var target = edge.target();
+    public static boolean containsCycle(final Path path) {
 
-            if (!nodes.contains(source) || !nodes.contains(target)) {
-                throw new IllegalArgumentException("All edges in a component must connect nodes within the component");
-            }
-        });
+        final var visitedNodes = new HashSet<Node>();
+        return path.elements().stream().filter(element -> element instanceof Node).map(element -> (Node) element)
+                .anyMatch(node -> !visitedNodes.add(node));
     }
 }
@@ -0,0 +1,229 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Element;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily enumerates the simple directed paths between two nodes of a snapshot.
+ * Paths are produced one at a time by an iterative depth-first search that
+ * never revisits a node already on the current path, so cycles are pruned
+ * during the search rather than filtered afterwards. A backward breadth-first
+ * search from the target first records how far each node is from the target,
+ * so branches that cannot reach it within the length limit are never entered.
+ * Both searches walk the persistent adjacency of the snapshot, and memory is
+ * bounded by the nodes within the length limit of the target regardless of how
+ * many paths exist.
+ */
+public final class PathEnumerator {
+
+    /**
+     * Number of search steps between deadline checks.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    /**
+     * Type contains only static members.
+     */
+    private PathEnumerator() {
+    }
+
+    /**
+     * Returns a lazy stream of the simple paths from the source to the target with
+     * at most maxLength edges. Both must be active nodes of the snapshot. The
+     * stream ends after maxResults paths, or once the timeout (if not null)
+     * elapses, whichever comes first.
+     */
+    public static Stream<Path> stream(final GraphView snapshot, final Node source, final Node target,
+            final int maxLength, final long maxResults, final Duration timeout) {
+
+        final var deadline = (timeout == null) ? Long.MAX_VALUE : (System.nanoTime() + timeout.toNanos());
+        final var iterator = new PathIterator(snapshot, source, target, maxLength, deadline);
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .limit(maxResults);
+    }
+
+    /**
+     * Computes the distance (in edges) to the target along incoming edges of every
+     * node that can reach it within the length limit. Other nodes are absent.
+     */
+    private static Map<NanoId, Integer> distancesTo(final GraphView snapshot, final NanoId target,
+            final int maxLength) {
+
+        final var distances = new HashMap<NanoId, Integer>();
+        final var queue = new ArrayList<NanoId>();
+        distances.put(target, 0);
+        queue.add(target);
+        for (var head = 0; head < queue.size(); head++) {
+            final var current = queue.get(head);
+            final var distance = distances.get(current);
+            if (distance == maxLength) {
+                continue;
+            }
+            final var edges = snapshot.edgesIn(current);
+            while (edges.hasNext()) {
+                final var previous = edges.next().source().locator().id();
+                if (distances.putIfAbsent(previous, distance + 1) == null) {
+                    queue.add(previous);
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Depth-first search state, advanced one path at a time.
+     */
+    private static final class PathIterator implements Iterator<Path> {
+
+        private final GraphView snapshot;
+        private final Node source;
+        private final NanoId target;
+        private final int maxLength;
+        private final long deadline;
+        private final Map<NanoId, Integer> distances;
+        private final Set<NanoId> onPath = new HashSet<>();
+
+        /**
+         * Nodes on the current path, the remaining edges to try for each, and the
+         * edges between them.
+         */
+        private final List<NanoId> nodes = new ArrayList<>();
+        private final List<Iterator<Edge>> cursors = new ArrayList<>();
+        private final List<Edge> edges = new ArrayList<>();
+
+        private int steps = 0;
+        private Path next = null;
+
+        PathIterator(final GraphView snapshot, final Node source, final Node target, final int maxLength,
+                final long deadline) {
+
+            this.snapshot = snapshot;
+            this.source = source;
+            this.target = target.locator().id();
+            this.maxLength = Math.max(0, Math.min(maxLength, snapshot.nodeCount() - 1));
+            this.deadline = deadline;
+            distances = distancesTo(snapshot, this.target, this.maxLength);
+            final var sourceId = source.locator().id();
+            if (sourceId.equals(this.target)) {
+                next = new Path(List.of(source));
+            } else if (distances.containsKey(sourceId)) {
+                push(sourceId);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            if (next == null) {
+                next = advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Path next() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final var current = next;
+            next = null;
+            return current;
+        }
+
+        /**
+         * Resumes the search until the next path is found, returning null once the
+         * search is exhausted or the deadline passes.
+         */
+        private Path advance() {
+
+            while (!nodes.isEmpty()) {
+                if ((++steps % DEADLINE_CHECK_INTERVAL == 0) && (System.nanoTime() >= deadline)) {
+                    nodes.clear();
+                    return null;
+                }
+                final var top = nodes.size() - 1;
+                final var cursor = cursors.get(top);
+                if (!cursor.hasNext()) {
+                    pop();
+                    continue;
+                }
+                final var edge = cursor.next();
+                final var neighbor = edge.target().locator().id();
+                final var distance = distances.get(neighbor);
+                // Prune revisits (cycles) and neighbors too far from the target
+                if (onPath.contains(neighbor) || (distance == null) || ((nodes.size() + distance) > maxLength)) {
+                    continue;
+                }
+                edges.add(edge);
+                if (neighbor.equals(target)) {
+                    final var path = toPath();
+                    edges.remove(top);
+                    return path;
+                }
+                push(neighbor);
+            }
+            return null;
+        }
+
+        private void push(final NanoId node) {
+
+            onPath.add(node);
+            nodes.add(node);
+            cursors.add(snapshot.edgesOut(node));
+        }
+
+        /**
+         * Backtracks from the node on top of the stack, dropping the edge that led to
+         * it.
+         */
+        private void pop() {
+
+            final var top = nodes.size() - 1;
+            onPath.remove(nodes.remove(top));
+            cursors.remove(top);
+            if (top > 0) {
+                edges.remove(top - 1);
+            }
+        }
+
+        /**
+         * Builds the path from the source along the edges on the stack, the last of
+         * which reaches the target.
+         */
+        private Path toPath() {
+
+            final List<Element> elements = new ArrayList<>((edges.size() * 2) + 1);
+            elements.add(source);
+            for (final var edge : edges) {
+                elements.add(edge);
+                elements.add(edge.target());
+            }
+            return new Path(elements);
+        }
+    }
+}
@@ -1,13 +1,20 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
 package com.erebelo.graphdemo.model.jgrapht;
 
-import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.common.version.NanoId;
 import com.erebelo.graphdemo.model.Node;
 import com.erebelo.graphdemo.model.Path;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
 import java.util.List;
-import org.jgrapht.Graph;
-import org.jgrapht.alg.connectivity.ConnectivityInspector;
-import org.jgrapht.alg.shortestpath.AllDirectedPaths;
-import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Service;
 
 /**
@@ -17,49 +24,128 @@ import org.springframework.stereotype.Service;
 public class PathOperations {
 
     /**
-     * Delegate graph.
+     * Provides snapshots of the active graph.
+     */
+    private final GraphOperations graphOperations;
+
+    /**
+     * Pool dedicated to reachability reports, bounded to half the processors so
+     * a report leaves room for request handling.
      */
-    private final Graph<Node, Edge> graph;
+    private final ForkJoinPool reportPool =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
 
     /**
-     * Creates a new path operations delegating to the underlying graph.
+     * Creates a new path operations over snapshots of the active graph.
      */
-    public PathOperations(final Graph<Node, Edge> graph) {
+    public PathOperations(final GraphOperations graphOperations) {
 
-        this.graph = graph;
+        this.graphOperations = graphOperations;
     }
 
     /**
-     * Finds shortest path between two nodes.
+     * Shuts down the report pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+
+        reportPool.shutdownNow();
+    }
+
+    /**
+     * Finds the shortest path (fewest edges) between two nodes using a
+     * breadth-first search over the current snapshot.
      */
     public Path shortestPath(final Node source, final Node target) {
 
-        final var pathAlgorithm = new DijkstraShortestPath<>(graph);
-        final var jgraphtPath = pathAlgorithm.getPath(source, target);
-        if (jgraphtPath == null) {
+        return shortestPath(graphOperations.snapshot(), source, target);
+    }
+
+    /**
+     * Finds the shortest path (fewest edges) between two nodes in a specific
+     * snapshot.
+     */
+    public Path shortestPath(final GraphView root, final Node source, final Node target) {
+
+        final var edges = Reachability.shortestPath(root, idOf(root, source), idOf(root, target));
+        if (edges == null) {
             return new Path(List.of());
         }
-        return OperationsHelper.toPath(jgraphtPath);
+        return OperationsHelper.toPath(source, edges);
     }
 
     /**
-     * Checks if path exists between two nodes.
+     * Checks if a directed path of active edges exists from the source to the
+     * target.
      */
     public boolean pathExists(final Node source, final Node target) {
 
-        final var inspector = new ConnectivityInspector<>(graph);
-        return inspector.pathExists(source, target);
+        return pathExists(graphOperations.snapshot(), source, target);
+    }
+
+    /**
+     * Checks if a directed path of active edges exists from the source to the
+     * target in a specific snapshot.
+     */
+    public boolean pathExists(final GraphView root, final Node source, final Node target) {
+
+        return reachability(root, source, target, Integer.MAX_VALUE, null) == Reachability.Result.REACHABLE;
     }
 
     /**
-     * Returns all possible paths between two nodes.
+     * Searches for a directed path of at most maxDepth active edges from the
+     * source to the target, giving up once the timeout (if not null) elapses.
+     */
+    public Reachability.Result reachability(final GraphView root, final Node source, final Node target,
+            final int maxDepth, final Duration timeout) {
+
+        return Reachability.search(root, idOf(root, source), idOf(root, target), maxDepth, timeout);
+    }
+
+    /**
+     * Returns all simple (cycle free) paths between two nodes. Prefer paths() with
+     * limits on large or dense graphs, since the number of paths can grow
+     * exponentially.
      */
     public List<Path> allPaths(final Node source, final Node target) {
 
-        final var allPathsAlgorithm = new AllDirectedPaths<>(graph);
-        final var maxPathLength = graph.vertexSet().size();
-        final var jgraphtPaths = allPathsAlgorithm.getAllPaths(source, target, true, maxPathLength);
-        return jgraphtPaths.stream().map(OperationsHelper::toPath).filter(path -> !OperationsHelper.containsCycle(path))
-                .toList();
+        return paths(graphOperations.snapshot(), source, target, Integer.MAX_VALUE, Long.MAX_VALUE, null).toList();
+    }
+
+    /**
+     * Returns a lazy stream of the simple paths between two nodes in a specific
+     * snapshot, with at most maxLength edges each. The stream ends after
+     * maxResults paths or once the timeout (if not null) elapses, so callers can
+     * page through paths (e.g. with skip and limit) in bounded memory.
+     */
+    public Stream<Path> paths(final GraphView root, final Node source, final Node target, final int maxLength,
+            final long maxResults, final Duration timeout) {
+
+        // Both endpoints must be the active versions held by the snapshot
+        idOf(root, source);
+        idOf(root, target);
+        return PathEnumerator.stream(root, source, target, maxLength, maxResults, timeout);
+    }
+
+    /**
+     * Reports, for every node in a snapshot, the nodes it can reach. Searches run
+     * in parallel on a dedicated, bounded fork-join pool and each result is passed to the
+     * (thread-safe) sink as soon as it is ready.
+     */
+    public void reachableSets(final GraphSnapshot root, final BiConsumer<Node, List<Node>> sink) {
+
+        ReachabilityReport.run(root.csr(), reportPool, sink);
+    }
+
+    /**
+     * Returns the ID of a node, checking it is the active version in a snapshot.
+     */
+    static NanoId idOf(final GraphView root, final Node node) {
+
+        final var id = node.locator().id();
+        if (!root.findNode(id).map(active -> active.locator().equals(node.locator())).orElse(false)) {
+            throw new IllegalArgumentException("Node not in graph: " + id);
+        }
+        return id;
     }
 }
@@ -0,0 +1,191 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Direction-aware reachability over a snapshot of the active graph using a
+ * bidirectional breadth-first search: one frontier follows outgoing edges from
+ * the source, the other follows incoming edges back from the target, and the
+ * smaller frontier is expanded a level at a time until they meet. Searches
+ * walk the persistent adjacency of the snapshot directly, so a query on a
+ * freshly committed root costs what it explores rather than a rebuild of the
+ * whole graph into another form.
+ */
+public final class Reachability {
+
+    /**
+     * Number of edges scanned between deadline checks.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    /**
+     * Outcome of a reachability search.
+     */
+    public enum Result {
+
+        /**
+         * The target can be reached from the source within the limits.
+         */
+        REACHABLE,
+
+        /**
+         * The target cannot be reached from the source at all.
+         */
+        UNREACHABLE,
+
+        /**
+         * No path was found before the depth or time limit was reached.
+         */
+        LIMIT_REACHED
+    }
+
+    /**
+     * Type contains only static members.
+     */
+    private Reachability() {
+    }
+
+    /**
+     * Checks whether the target can be reached from the source along outgoing
+     * edges, without limits.
+     */
+    public static Result search(final GraphView snapshot, final NanoId source, final NanoId target) {
+
+        return search(snapshot, source, target, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Checks whether the target can be reached from the source along outgoing
+     * edges using a path of at most maxDepth edges, giving up once the timeout (if
+     * not null) elapses.
+     */
+    public static Result search(final GraphView snapshot, final NanoId source, final NanoId target,
+            final int maxDepth, final Duration timeout) {
+
+        if (source.equals(target)) {
+            return Result.REACHABLE;
+        }
+        final var deadline = (timeout == null) ? Long.MAX_VALUE : (System.nanoTime() + timeout.toNanos());
+        final var forward = new Frontier(source);
+        final var backward = new Frontier(target);
+
+        var depth = 0;
+        var scanned = 0;
+        while (!forward.exhausted() && !backward.exhausted()) {
+            if (depth >= maxDepth) {
+                return Result.LIMIT_REACHED;
+            }
+            final var expandForward = forward.width() <= backward.width();
+            final var side = expandForward ? forward : backward;
+            final var other = expandForward ? backward : forward;
+            final var levelEnd = side.queue.size();
+            while (side.head < levelEnd) {
+                final var current = side.queue.get(side.head++);
+                final var edges = expandForward ? snapshot.edgesOut(current) : snapshot.edgesIn(current);
+                while (edges.hasNext()) {
+                    final var edge = edges.next();
+                    final var next = (expandForward ? edge.target() : edge.source()).locator().id();
+                    if (other.visited.contains(next)) {
+                        return Result.REACHABLE;
+                    }
+                    if (side.visited.add(next)) {
+                        side.queue.add(next);
+                    }
+                    if ((++scanned % DEADLINE_CHECK_INTERVAL == 0) && (System.nanoTime() >= deadline)) {
+                        return Result.LIMIT_REACHED;
+                    }
+                }
+            }
+            depth++;
+        }
+        return Result.UNREACHABLE;
+    }
+
+    /**
+     * Finds a path with the fewest edges from the source to the target using a
+     * breadth-first search that stops as soon as the target is reached. The path
+     * is returned as its edges in order, an empty list when source and target are
+     * the same, or null if the target is not reachable.
+     */
+    public static List<Edge> shortestPath(final GraphView snapshot, final NanoId source, final NanoId target) {
+
+        if (source.equals(target)) {
+            return List.of();
+        }
+        // Edge by which each visited node was first reached
+        final var parents = new HashMap<NanoId, Edge>();
+        final var queue = new ArrayList<NanoId>();
+        queue.add(source);
+        for (var head = 0; head < queue.size(); head++) {
+            final var edges = snapshot.edgesOut(queue.get(head));
+            while (edges.hasNext()) {
+                final var edge = edges.next();
+                final var next = edge.target().locator().id();
+                if (!next.equals(source) && (parents.putIfAbsent(next, edge) == null)) {
+                    if (next.equals(target)) {
+                        return unwind(parents, source, target);
+                    }
+                    queue.add(next);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Walks parent edges back from the target to build the path in order.
+     */
+    private static List<Edge> unwind(final HashMap<NanoId, Edge> parents, final NanoId source,
+            final NanoId target) {
+
+        final var path = new ArrayList<Edge>();
+        for (var current = target; !current.equals(source);) {
+            final var edge = parents.get(current);
+            path.add(edge);
+            current = edge.source().locator().id();
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Breadth-first frontier for one direction: a queue in which each node is
+     * enqueued at most once, and the set of nodes visited so far.
+     */
+    private static final class Frontier {
+
+        private final List<NanoId> queue = new ArrayList<>();
+        private final Set<NanoId> visited = new HashSet<>();
+        private int head = 0;
+
+        Frontier(final NanoId start) {
+
+            queue.add(start);
+            visited.add(start);
+        }
+
+        boolean exhausted() {
+
+            return head == queue.size();
+        }
+
+        int width() {
+
+            return queue.size() - head;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.model.Node;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+
+/**
+ * Computes, for every node of a CSR snapshot, the set of nodes it can reach
+ * along outgoing edges. Source nodes are split recursively across a fork-join
+ * pool (a dedicated one, so a report cannot starve other users of the common
+ * pool) and each worker runs one breadth-first search per source using a
+ * visited bitset and queue reused per thread. Only the bits a search set are
+ * cleared afterwards, so the cost of each search is proportional to what it
+ * reaches. Results are handed to a sink as soon as each search completes
+ * rather than collected, so memory stays bounded by the snapshot size.
+ */
+public final class ReachabilityReport {
+
+    /**
+     * Number of sources below which a task runs its searches directly rather than
+     * splitting.
+     */
+    private static final int SPLIT_THRESHOLD = 64;
+
+    /**
+     * Search buffers reused by each worker thread.
+     */
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Type contains only static members.
+     */
+    private ReachabilityReport() {
+    }
+
+    /**
+     * Runs the report on the pool, passing each node and the nodes it can reach
+     * (excluding itself unless it lies on a cycle) to the sink. The sink is called
+     * concurrently from the pool's workers, in no particular order, and must be
+     * thread-safe. Returns once every node has been reported.
+     */
+    public static void run(final CsrSnapshot snapshot, final ForkJoinPool pool,
+            final BiConsumer<Node, List<Node>> sink) {
+
+        pool.invoke(new SearchTask(snapshot, sink, 0, snapshot.nodeCount()));
+    }
+
+    /**
+     * Returns the nodes reachable from the source.
+     */
+    private static List<Node> search(final CsrSnapshot snapshot, final int source) {
+
+        final var buffers = BUFFERS.get();
+        buffers.ensureCapacity(snapshot.nodeCount());
+        final var visited = buffers.visited;
+        final var queue = buffers.queue;
+        var head = 0;
+        var tail = 0;
+        var selfReachable = false;
+        try {
+            queue[tail++] = source;
+            visited[source >>> 6] |= 1L << source;
+            while (head < tail) {
+                final var current = queue[head++];
+                for (var slot = snapshot.outStart(current); slot < snapshot.outEnd(current); slot++) {
+                    final var next = snapshot.outTarget(slot);
+                    if (next == source) {
+                        selfReachable = true;
+                    }
+                    final var bit = 1L << next;
+                    if ((visited[next >>> 6] & bit) == 0) {
+                        visited[next >>> 6] |= bit;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        } finally {
+            // Leave the bitset clear for the next search on this thread, even if this one failed
+            for (var i = 0; i < tail; i++) {
+                visited[queue[i] >>> 6] = 0L;
+            }
+        }
+
+        final var reached = new ArrayList<Node>(selfReachable ? tail : (tail - 1));
+        if (selfReachable) {
+            reached.add(snapshot.node(source));
+        }
+        for (var i = 1; i < tail; i++) {
+            reached.add(snapshot.node(queue[i]));
+        }
+        return reached;
+    }
+
+    /**
+     * Reports a range of source nodes, splitting it in half until it is small
+     * enough to search directly.
+     */
+    private static final class SearchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient CsrSnapshot snapshot;
+        private final transient BiConsumer<Node, List<Node>> sink;
+        private final int from;
+        private final int to;
+
+        SearchTask(final CsrSnapshot snapshot, final BiConsumer<Node, List<Node>> sink, final int from,
+                final int to) {
+
+            this.snapshot = snapshot;
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if ((to - from) <= SPLIT_THRESHOLD) {
+                for (var source = from; source < to; source++) {
+                    sink.accept(snapshot.node(source), search(snapshot, source));
+                }
+                return;
+            }
+            final var middle = (from + to) >>> 1;
+            invokeAll(new SearchTask(snapshot, sink, from, middle), new SearchTask(snapshot, sink, middle, to));
+        }
+    }
+
+    /**
+     * Per-thread visited bitset and queue, in which each node is enqueued at most
+     * once per search.
+     */
+    private static final class Buffers {
+
+        private long[] visited = new long[0];
+        private int[] queue = new int[0];
+
+        void ensureCapacity(final int nodeCount) {
+
+            if (queue.length < nodeCount) {
+                queue = new int[nodeCount];
+                visited = new long[(nodeCount + 63) >>> 6];
+            }
+        }
+    }
+}
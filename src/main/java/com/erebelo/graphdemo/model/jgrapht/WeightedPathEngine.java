@@ -0,0 +1,695 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import com.erebelo.graphdemo.common.log.Log;
+import com.erebelo.graphdemo.common.thread.SimpleRunnable;
+import com.erebelo.graphdemo.common.thread.ThreadRegistry;
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+import org.jgrapht.ListenableGraph;
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphListener;
+import org.jgrapht.event.GraphVertexChangeEvent;
+
+/**
+ * Weighted shortest paths over the active graph, with edge weights taken from
+ * edge data by a weight extractor. Queries run A* over the snapshot adjacency,
+ * guided by ALT landmarks: distances to and from a few landmark nodes bound
+ * the remaining distance from any node through the triangle inequality, and
+ * rule out nodes that cannot reach the target at all, so typical queries
+ * settle only a small part of the graph.
+ * <p>
+ * The landmark distances are kept for a graph that only grows between
+ * rebuilds: every edge added is folded in by relaxing just the distances it
+ * shortens, while removed edges (and the old versions of updated edges) stay
+ * in it. Removals and weight increases only lengthen real distances, so the
+ * bounds stay valid for every root without any work, and additions and weight
+ * decreases cost what they change rather than a full recomputation. A
+ * background thread folds in pending additions and, once edges have been
+ * removed, rebuilds the landmarks on a schedule to tighten the bounds again.
+ * This type is thread-safe.
+ */
+public final class WeightedPathEngine {
+
+    /**
+     * Milliseconds between background passes, and the minimum between rebuilds.
+     */
+    private static final long SYNC_INTERVAL = 1000;
+    private static final long REBUILD_INTERVAL = 60_000;
+
+    private final GraphOperations graphOperations;
+    private final ToDoubleFunction<Edge> weight;
+    private final int landmarkCount;
+
+    /**
+     * Edges added to the graph but not yet folded into the landmarks.
+     */
+    private final Queue<Edge> added = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Edges removed from the graph since the landmarks were built.
+     */
+    private final AtomicLong removed = new AtomicLong();
+
+    /**
+     * Queries hold the read lock while they use the landmarks, and folding in
+     * additions or installing new landmarks takes the write lock.
+     */
+    private final ReentrantReadWriteLock locks = new ReentrantReadWriteLock();
+
+    /**
+     * Current landmarks. Only replaced under the write lock.
+     */
+    private volatile Landmarks landmarks;
+
+    /**
+     * Additions folded in while a rebuild is running, replayed onto the new
+     * landmarks, or null if no rebuild is running. Guarded by the write lock.
+     */
+    private List<Edge> replay = null;
+
+    /**
+     * Time (System.nanoTime) of the last rebuild, or 0 if there has been none.
+     */
+    private volatile long rebuilt = 0;
+
+    private Refresher refresher = null;
+
+    /**
+     * Creates an engine over the active graph using the weight extractor, which
+     * must return a non-negative weight for every edge.
+     */
+    public WeightedPathEngine(final ListenableGraph<Node, Edge> graph, final GraphOperations graphOperations,
+            final ToDoubleFunction<Edge> weight, final int landmarkCount) {
+
+        if (landmarkCount < 0) {
+            throw new IllegalArgumentException("Landmark count must not be negative: " + landmarkCount);
+        }
+        this.graphOperations = graphOperations;
+        this.weight = weight;
+        this.landmarkCount = landmarkCount;
+        landmarks = Landmarks.of(GraphSnapshot.EMPTY, weight, 0);
+        graph.addGraphListener(new GraphListener<>() {
+
+            @Override
+            public void edgeAdded(final GraphEdgeChangeEvent<Node, Edge> event) {
+                added.add(event.getEdge());
+            }
+
+            @Override
+            public void edgeRemoved(final GraphEdgeChangeEvent<Node, Edge> event) {
+                removed.incrementAndGet();
+            }
+
+            @Override
+            public void vertexAdded(final GraphVertexChangeEvent<Node> event) {
+                // Nodes only matter once they have edges
+            }
+
+            @Override
+            public void vertexRemoved(final GraphVertexChangeEvent<Node> event) {
+                // Removing a node removes its edges first
+            }
+        });
+        graphOperations.addCommitListener(this::trySync);
+    }
+
+    /**
+     * Returns the weight of an edge as the numeric value of its data, or 1.0 if
+     * the data is not a number.
+     */
+    public static double dataWeight(final Edge edge) {
+
+        final var data = edge.data();
+        return ((data != null) && (data.value() instanceof Number number)) ? number.doubleValue() : 1.0;
+    }
+
+    /**
+     * Starts maintaining the landmarks in the background.
+     */
+    public synchronized void start() {
+
+        if (refresher == null) {
+            refresher = new Refresher();
+            ThreadRegistry.INSTANCE.register(refresher).start();
+        }
+    }
+
+    /**
+     * Stops maintaining the landmarks in the background.
+     */
+    public synchronized void stop() {
+
+        if (refresher != null) {
+            refresher.kill9();
+            refresher = null;
+        }
+    }
+
+    /**
+     * Rebuilds the landmarks from the current root. Writers are paused only while
+     * the root is taken; the distances are computed without blocking writers or
+     * queries.
+     */
+    public synchronized void rebuild() {
+
+        final var root = graphOperations.exclusive(() -> {
+            withWriteLock(() -> {
+                drain();
+                replay = new ArrayList<>();
+            });
+            removed.set(0);
+            return graphOperations.snapshot();
+        });
+        rebuilt = System.nanoTime();
+        Landmarks fresh = null;
+        try {
+            fresh = Landmarks.of(root, weight, landmarkCount);
+        } finally {
+            final var built = fresh;
+            withWriteLock(() -> {
+                drain();
+                if (built != null) {
+                    replay.forEach(edge -> built.add(edge, weight));
+                    landmarks = built;
+                }
+                replay = null;
+            });
+        }
+    }
+
+    /**
+     * Finds the lowest weight path between two active nodes, returning an empty
+     * path if the target cannot be reached.
+     */
+    public Path shortestPath(final NanoId sourceId, final NanoId targetId) {
+
+        // Read the landmarks before the root, so a rebuild in between is detected
+        final var guide = landmarks;
+        final var root = graphOperations.snapshot();
+        final var source = root.findNode(sourceId)
+                .orElseThrow(() -> new IllegalArgumentException("Source node not found: " + sourceId));
+        root.findNode(targetId)
+                .orElseThrow(() -> new IllegalArgumentException("Target node not found: " + targetId));
+        // Every edge of the root was queued before it was published
+        withWriteLock(this::drain);
+
+        final List<Edge> edges;
+        final var lock = locks.readLock();
+        lock.lock();
+        try {
+            edges = search(root, (landmarks == guide) ? guide : null, sourceId, targetId);
+        } finally {
+            lock.unlock();
+        }
+        if (edges == null) {
+            return new Path(List.of());
+        }
+        return OperationsHelper.toPath(source, edges);
+    }
+
+    /**
+     * Runs A* from the source to the target, guided by the landmarks if not null,
+     * and returns the edges of the path in order, or null if there is none.
+     */
+    private List<Edge> search(final GraphSnapshot root, final Landmarks guide, final NanoId source,
+            final NanoId target) {
+
+        final var distances = new HashMap<NanoId, Double>();
+        final var parents = new HashMap<NanoId, Edge>();
+        final var settled = new HashSet<NanoId>();
+        final var queue = new PriorityQueue<Entry>(Comparator.comparingDouble(Entry::key));
+        distances.put(source, 0.0);
+        queue.add(new Entry(source, (guide == null) ? 0.0 : guide.bound(source, target)));
+        while (!queue.isEmpty()) {
+            final var current = queue.remove().node();
+            if (!settled.add(current)) {
+                continue;
+            }
+            if (current.equals(target)) {
+                return unwind(parents, source, target);
+            }
+            final var base = distances.get(current);
+            final var edges = root.edgesOut(current);
+            while (edges.hasNext()) {
+                final var edge = edges.next();
+                final var next = edge.target().locator().id();
+                if (settled.contains(next)) {
+                    continue;
+                }
+                final var distance = base + validate(edge, weight.applyAsDouble(edge));
+                final var known = distances.get(next);
+                if ((known == null) || (distance < known)) {
+                    final var bound = (guide == null) ? 0.0 : guide.bound(next, target);
+                    if (bound == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    distances.put(next, distance);
+                    parents.put(next, edge);
+                    queue.add(new Entry(next, distance + bound));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Walks parent edges back from the target to build the path in order.
+     */
+    private static List<Edge> unwind(final Map<NanoId, Edge> parents, final NanoId source, final NanoId target) {
+
+        final var path = new ArrayList<Edge>();
+        for (var current = target; !current.equals(source);) {
+            final var edge = parents.get(current);
+            path.add(edge);
+            current = edge.source().locator().id();
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Folds in queued additions if no query or other writer holds the landmarks,
+     * so writers never wait on queries. Anything left is folded in by the next
+     * query or background pass.
+     */
+    private void trySync() {
+
+        final var lock = locks.writeLock();
+        if (!added.isEmpty() && lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Folds every queued addition into the landmarks. Requires the write lock.
+     */
+    private void drain() {
+
+        for (var edge = added.poll(); edge != null; edge = added.poll()) {
+            landmarks.add(edge, weight);
+            if (replay != null) {
+                replay.add(edge);
+            }
+        }
+    }
+
+    private void withWriteLock(final Runnable action) {
+
+        final var lock = locks.writeLock();
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the landmarks should be rebuilt: edges were removed since they
+     * were built, or there were too few nodes to place them all.
+     */
+    private boolean stale() {
+
+        final var wanted = Math.min(landmarkCount, graphOperations.snapshot().nodeCount());
+        return (removed.get() > 0) || (landmarks.count() < wanted);
+    }
+
+    private static double validate(final Edge edge, final double value) {
+
+        if (!(value >= 0.0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Invalid weight " + value + " for edge: " + edge.locator().id());
+        }
+        return value;
+    }
+
+    /**
+     * Node waiting in the search queue, keyed by its distance plus its bound.
+     */
+    private record Entry(NanoId node, double key) {
+    }
+
+    /**
+     * Weighted edge of the landmark graph, from or to the node at its index.
+     */
+    private record Arc(int node, double weight) {
+    }
+
+    /**
+     * Edge of the landmark graph between the nodes at two indices.
+     */
+    private record Link(int source, int target, double weight) {
+    }
+
+    /**
+     * Landmark graph and the distances between its landmarks and every node. The
+     * graph holds every edge of the root the landmarks were built from and every
+     * edge added since, with nodes numbered by ID. For each landmark L and each
+     * of its edges (u, v, w), the distances satisfy from[L][v] <= from[L][u] + w
+     * and to[L][u] <= w + to[L][v], which is all the bounds rely on. Edges with an invalid weight are left out; a query that reaches one
+     * fails anyway. This type is not thread-safe; the engine guards it.
+     */
+    private static final class Landmarks {
+
+        private final Map<NanoId, Integer> nodes;
+        private final List<List<Arc>> out = new ArrayList<>();
+        private final List<List<Arc>> in = new ArrayList<>();
+
+        /**
+         * Distances from each landmark to every node, and from every node to each
+         * landmark, indexed by landmark and then node.
+         */
+        private double[][] from = new double[0][];
+        private double[][] to = new double[0][];
+
+        private Landmarks(final Map<NanoId, Integer> nodes) {
+
+            this.nodes = nodes;
+        }
+
+        /**
+         * Builds the landmark graph of a root and selects landmarks spread across it
+         * (each is the node farthest from those already selected).
+         */
+        static Landmarks of(final GraphSnapshot root, final ToDoubleFunction<Edge> weight, final int count) {
+
+            final var nodeCount = root.nodeCount();
+            final var landmarks = new Landmarks(new HashMap<>(nodeCount * 2));
+            for (final var node : root.nodes()) {
+                landmarks.node(node.locator().id());
+            }
+            for (final var edge : root.edges()) {
+                landmarks.link(edge, weight);
+            }
+
+            final var selected = Math.min(count, nodeCount);
+            landmarks.from = new double[selected][];
+            landmarks.to = new double[selected][];
+            final var nearest = new double[nodeCount];
+            Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+            var landmark = landmarks.busiest();
+            for (var i = 0; i < landmarks.from.length; i++) {
+                landmarks.from[i] = landmarks.distances(landmark, true);
+                landmarks.to[i] = landmarks.distances(landmark, false);
+                nearest[landmark] = -1.0;
+                var farthest = -1;
+                for (var node = 0; node < nodeCount; node++) {
+                    if (nearest[node] >= 0.0) {
+                        nearest[node] = Math.min(nearest[node], landmarks.from[i][node]);
+                        if ((farthest < 0) || (nearest[node] > nearest[farthest])) {
+                            farthest = node;
+                        }
+                    }
+                }
+                landmark = farthest;
+            }
+            return landmarks;
+        }
+
+        /**
+         * Returns the number of landmarks.
+         */
+        int count() {
+
+            return from.length;
+        }
+
+        /**
+         * Adds an edge, lowering the distances it shortens so the bounds stay valid.
+         */
+        void add(final Edge edge, final ToDoubleFunction<Edge> weight) {
+
+            final var link = link(edge, weight);
+            if (link == null) {
+                return;
+            }
+            for (var i = 0; i < from.length; i++) {
+                if ((from[i][link.source()] + link.weight()) < from[i][link.target()]) {
+                    from[i][link.target()] = from[i][link.source()] + link.weight();
+                    lower(from[i], link.target(), true);
+                }
+                if ((to[i][link.target()] + link.weight()) < to[i][link.source()]) {
+                    to[i][link.source()] = to[i][link.target()] + link.weight();
+                    lower(to[i], link.source(), false);
+                }
+            }
+        }
+
+        /**
+         * Returns a lower bound on the distance from the node to the target, or
+         * infinity if the landmarks show the target cannot be reached.
+         */
+        double bound(final NanoId nodeId, final NanoId targetId) {
+
+            final int node = nodes.getOrDefault(nodeId, -1);
+            final int target = nodes.getOrDefault(targetId, -1);
+            var bound = 0.0;
+            for (var i = 0; i < from.length; i++) {
+                final var fromNode = distance(from[i], node);
+                final var fromTarget = distance(from[i], target);
+                if (fromNode < Double.POSITIVE_INFINITY) {
+                    if (fromTarget == Double.POSITIVE_INFINITY) {
+                        return Double.POSITIVE_INFINITY;
+                    }
+                    bound = Math.max(bound, fromTarget - fromNode);
+                }
+                final var toNode = distance(to[i], node);
+                final var toTarget = distance(to[i], target);
+                if (toTarget < Double.POSITIVE_INFINITY) {
+                    if (toNode == Double.POSITIVE_INFINITY) {
+                        return Double.POSITIVE_INFINITY;
+                    }
+                    bound = Math.max(bound, toNode - toTarget);
+                }
+            }
+            return bound;
+        }
+
+        /**
+         * Returns the index of a node, adding it (unreachable from and to every
+         * landmark) if it is new.
+         */
+        private int node(final NanoId id) {
+
+            final int index = nodes.computeIfAbsent(id, k -> nodes.size());
+            if (index == out.size()) {
+                out.add(new ArrayList<>());
+                in.add(new ArrayList<>());
+                for (var i = 0; i < from.length; i++) {
+                    from[i] = widen(from[i], index);
+                    to[i] = widen(to[i], index);
+                }
+            }
+            return index;
+        }
+
+        /**
+         * Adds the arcs of an edge, returning its link, or null if its weight is
+         * invalid.
+         */
+        private Link link(final Edge edge, final ToDoubleFunction<Edge> weight) {
+
+            final double length;
+            try {
+                length = validate(edge, weight.applyAsDouble(edge));
+            } catch (final IllegalArgumentException e) {
+                Log.warn(WeightedPathEngine.class, () -> "Leaving edge out of landmarks", e);
+                return null;
+            }
+            final var source = node(edge.source().locator().id());
+            final var target = node(edge.target().locator().id());
+            out.get(source).add(new Arc(target, length));
+            in.get(target).add(new Arc(source, length));
+            return new Link(source, target, length);
+        }
+
+        /**
+         * Propagates a lowered distance from a node along outgoing arcs (forward) or
+         * incoming arcs (backward), visiting only the nodes whose distance drops.
+         */
+        private void lower(final double[] distances, final int start, final boolean forward) {
+
+            final var heap = new Heap();
+            heap.push(start, distances[start]);
+            while (!heap.isEmpty()) {
+                final var key = heap.peekKey();
+                final var current = heap.pop();
+                if (key > distances[current]) {
+                    continue;
+                }
+                for (final var arc : (forward ? out : in).get(current)) {
+                    final var distance = distances[current] + arc.weight();
+                    if (distance < distances[arc.node()]) {
+                        distances[arc.node()] = distance;
+                        heap.push(arc.node(), distance);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Runs Dijkstra from the landmark along outgoing arcs (forward) or incoming
+         * arcs (backward), returning the distance of every node.
+         */
+        private double[] distances(final int landmark, final boolean forward) {
+
+            final var distances = new double[out.size()];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            distances[landmark] = 0.0;
+            lower(distances, landmark, forward);
+            return distances;
+        }
+
+        /**
+         * Returns the node with the most arcs, or -1 if there are no nodes.
+         */
+        private int busiest() {
+
+            var busiest = -1;
+            var most = -1;
+            for (var node = 0; node < out.size(); node++) {
+                final var degree = out.get(node).size() + in.get(node).size();
+                if (degree > most) {
+                    busiest = node;
+                    most = degree;
+                }
+            }
+            return busiest;
+        }
+
+        private static double distance(final double[] distances, final int node) {
+
+            return ((node < 0) || (node >= distances.length)) ? Double.POSITIVE_INFINITY : distances[node];
+        }
+
+        /**
+         * Grows a distance array to hold the node, filling new slots with infinity.
+         */
+        private static double[] widen(final double[] distances, final int node) {
+
+            if (node < distances.length) {
+                return distances;
+            }
+            final var widened = Arrays.copyOf(distances, Math.max(16, distances.length * 2));
+            Arrays.fill(widened, distances.length, widened.length, Double.POSITIVE_INFINITY);
+            return widened;
+        }
+    }
+
+    /**
+     * Binary min-heap of nodes keyed by priority. A node is pushed again when its
+     * priority improves rather than decreased in place, and stale entries are
+     * skipped by the caller.
+     */
+    private static final class Heap {
+
+        private int[] nodes = new int[16];
+        private double[] keys = new double[16];
+        private int size = 0;
+
+        boolean isEmpty() {
+
+            return size == 0;
+        }
+
+        double peekKey() {
+
+            return keys[0];
+        }
+
+        void push(final int node, final double key) {
+
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            var i = size++;
+            while (i > 0) {
+                final var parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        }
+
+        int pop() {
+
+            final var top = nodes[0];
+            final var node = nodes[--size];
+            final var key = keys[size];
+            var i = 0;
+            while (true) {
+                var child = (i * 2) + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (((child + 1) < size) && (keys[child + 1] < keys[child])) {
+                    child++;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+            return top;
+        }
+    }
+
+    /**
+     * Folds in pending additions every second and rebuilds the landmarks on a
+     * schedule once they are stale.
+     */
+    private final class Refresher extends SimpleRunnable {
+
+        @Override
+        protected boolean go() {
+
+            try {
+                withWriteLock(WeightedPathEngine.this::drain);
+                final var due = (rebuilt == 0)
+                        || ((System.nanoTime() - rebuilt) >= TimeUnit.MILLISECONDS.toNanos(REBUILD_INTERVAL));
+                if (due && stale()) {
+                    rebuild();
+                }
+            } catch (final RuntimeException e) {
+                Log.warn(WeightedPathEngine.class, () -> "Unable to refresh landmarks", e);
+            }
+            return sleep(SYNC_INTERVAL);
+        }
+    }
+}
@@ -6,32 +6,49 @@
 
 package com.erebelo.graphdemo.model.serde;
 
-import com.erebelo.graphdemo.common.fp.Io;
 import com.erebelo.graphdemo.common.fp.Try;
+import com.erebelo.graphdemo.common.serde.JsonEngine;
 import com.erebelo.graphdemo.model.Data;
 import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.StringWriter;
 
 /**
- * Serde implementation that converts Data to and from JSON format.
+ * Serde implementation that converts Data to and from JSON format. Payloads are
+ * written and read with a streaming generator and parser, binding the value
+ * directly with a cached reader for its type rather than through a JsonNode
+ * tree. The type is written first, so the tree is only needed for documents
+ * that list the value before the type.
  */
 public final class JsonSerde implements Serde<String> {
 
     private static final String TYPE_FIELD = "_type";
     private static final String VALUE_FIELD = "_value";
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final JsonEngine ENGINE = new JsonEngine(new ObjectMapper());
 
     /**
      * Serializes Data to JSON format including type information.
      */
     @Override
     public String serialize(final Data target) {
+        // Data still in JSON form is written back as is rather than decoded and
+        // re-encoded
+        if ((target instanceof LazyData<?> lazy) && (lazy.serde() instanceof JsonSerde)) {
+            return (String) lazy.serialized();
+        }
         return Try.withReturn(() -> {
-            final var wrapper = objectMapper.createObjectNode();
-            wrapper.put(TYPE_FIELD, target.javaClass().getName());
-            wrapper.set(VALUE_FIELD, objectMapper.valueToTree(target.value()));
-            return objectMapper.writeValueAsString(wrapper);
+            final var json = new StringWriter();
+            try (var generator = ENGINE.generator(json)) {
+                generator.writeStartObject();
+                generator.writeStringField(TYPE_FIELD, target.javaClass().getName());
+                generator.writeFieldName(VALUE_FIELD);
+                ENGINE.write(target.value(), generator);
+                generator.writeEndObject();
+            }
+            return json.toString();
         });
     }
 
@@ -41,12 +58,59 @@ public final class JsonSerde implements Serde<String> {
     @Override
     public Data deserialize(final String target) {
         return Try.withReturn(() -> {
-            final var targetNode = objectMapper.readTree(target);
-            final var typeName = targetNode.get(TYPE_FIELD).asText();
-            final var valueNode = targetNode.get(VALUE_FIELD);
-            final var type = Io.withReturn(() -> Class.forName(typeName));
-            final var value = objectMapper.treeToValue(valueNode, type);
-            return new SimpleData(type, value);
+            try (var parser = ENGINE.parser(target)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected a JSON object: " + target);
+                }
+                Class<?> type = null;
+                Object value = null;
+                JsonNode deferred = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final var field = parser.currentName();
+                    parser.nextToken();
+                    if (TYPE_FIELD.equals(field)) {
+                        type = ENGINE.resolve(parser.getText());
+                    } else if (VALUE_FIELD.equals(field)) {
+                        if (type != null) {
+                            value = ENGINE.reader(type).readValue(parser);
+                        } else {
+                            deferred = parser.readValueAsTree();
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (type == null) {
+                    throw new IllegalArgumentException("Missing type information in JSON: " + target);
+                }
+                if (deferred != null) {
+                    value = ENGINE.reader(type).readValue(deferred);
+                }
+                return new SimpleData(type, value);
+            }
+        });
+    }
+
+    /**
+     * Reads the type of a JSON payload, skipping over the value.
+     */
+    @Override
+    public Class<?> type(final String target) {
+        return Try.withReturn(() -> {
+            try (var parser = ENGINE.parser(target)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected a JSON object: " + target);
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final var field = parser.currentName();
+                    parser.nextToken();
+                    if (TYPE_FIELD.equals(field)) {
+                        return ENGINE.resolve(parser.getText());
+                    }
+                    parser.skipChildren();
+                }
+                throw new IllegalArgumentException("Missing type information in JSON: " + target);
+            }
         });
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.serde;
+
+import com.erebelo.graphdemo.model.Data;
+import java.util.Objects;
+
+/**
+ * Data that keeps its serialized form and only deserializes it when the value
+ * is first accessed, so elements that are loaded just for their IDs or
+ * structure never pay for decoding their payload. The type is read on its own,
+ * without binding the value. Both are memoized. Concurrent first accesses may
+ * each decode, but they all see an equal result. Equality and hashing follow
+ * the Data contract, so lazy data equals the SimpleData it was saved from
+ * whatever its encoding (format or field order). Hashing only reads the type.
+ * Comparing decodes the payload, except that two lazy data with identical
+ * serialized forms are equal without decoding.
+ */
+public final class LazyData<S> implements Data {
+
+    private final S serialized;
+    private final Serde<S> serde;
+    private volatile Class<?> type = null;
+    private volatile Data decoded = null;
+
+    public LazyData(final S serialized, final Serde<S> serde) {
+
+        this.serialized = serialized;
+        this.serde = serde;
+    }
+
+    /**
+     * Returns the serialized form, without decoding it.
+     */
+    public S serialized() {
+
+        return serialized;
+    }
+
+    /**
+     * Returns the serde that produced the serialized form.
+     */
+    public Serde<S> serde() {
+
+        return serde;
+    }
+
+    /**
+     * Returns true if the payload has been decoded.
+     */
+    public boolean decoded() {
+
+        return decoded != null;
+    }
+
+    @Override
+    public Class<?> javaClass() {
+
+        var current = type;
+        if (current == null) {
+            final var data = decoded;
+            current = (data != null) ? data.javaClass() : serde.type(serialized);
+            type = current;
+        }
+        return current;
+    }
+
+    @Override
+    public Object value() {
+
+        return decode().value();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+
+        if (this == other) {
+            return true;
+        }
+        if ((other instanceof LazyData<?> lazy) && Objects.deepEquals(serialized, lazy.serialized)) {
+            return true;
+        }
+        if (!(other instanceof Data data)) {
+            return false;
+        }
+        final var current = decode();
+        return Data.matches(data, current.javaClass(), current.value());
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Data.hash(javaClass());
+    }
+
+    @Override
+    public String toString() {
+
+        return "LazyData[serialized=" + serialized + ']';
+    }
+
+    private Data decode() {
+
+        var current = decoded;
+        if (current == null) {
+            current = serde.deserialize(serialized);
+            decoded = current;
+        }
+        return current;
+    }
+}
@@ -6,8 +6,8 @@
 
 package com.erebelo.graphdemo.model.serde;
 
-import com.erebelo.graphdemo.common.fp.Io;
 import com.erebelo.graphdemo.common.fp.Try;
+import com.erebelo.graphdemo.common.serde.JsonEngine;
 import com.erebelo.graphdemo.model.Data;
 import com.erebelo.graphdemo.model.simple.SimpleData;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -30,6 +30,8 @@ public final class PropertiesSerde implements Serde<Map<String, Object>> {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final JsonEngine ENGINE = new JsonEngine(objectMapper);
+
     /**
      * Serializes Data to flattened properties. Each value's key will be prefixed by
      * DATA_PREFIX.
@@ -40,7 +42,7 @@ public final class PropertiesSerde implements Serde<Map<String, Object>> {
         return Try.withReturn(() -> {
             final var properties = new HashMap<String, Object>();
             properties.put(DATA_TYPE, data.javaClass().getName());
-            final var jsonString = objectMapper.writeValueAsString(data.value());
+            final var jsonString = ENGINE.write(data.value());
             final var flattenedMap = JsonFlattener.flattenAsMap(jsonString);
             flattenedMap.forEach((key, value) -> properties.put(DATA_PREFIX + key, value));
             return properties;
@@ -67,11 +69,7 @@ public final class PropertiesSerde implements Serde<Map<String, Object>> {
 
         // Unflatten complex types back to JSON and deserialize normally
         final var unflattenedJson = JsonUnflattener.unflatten(dataProperties);
-        return Try.withReturn(() -> {
-            final var jsonNode = objectMapper.readTree(unflattenedJson);
-            final var value = objectMapper.treeToValue(jsonNode, type);
-            return new SimpleData(type, value);
-        });
+        return Try.withReturn(() -> new SimpleData(type, ENGINE.read(unflattenedJson, type)));
     }
 
     /**
@@ -98,6 +96,6 @@ public final class PropertiesSerde implements Serde<Map<String, Object>> {
         if (typeName == null) {
             throw new IllegalArgumentException("Missing type information in properties");
         }
-        return Io.withReturn(() -> Class.forName(typeName));
+        return ENGINE.resolve(typeName);
     }
 }
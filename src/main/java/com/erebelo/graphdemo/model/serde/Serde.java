@@ -24,4 +24,22 @@ public interface Serde<S> {
      * Deserializes an instance.
      */
     Data deserialize(S target);
+
+    /**
+     * Returns the type of a serialized instance. Implementations should read only
+     * the type, without binding the value.
+     */
+    default Class<?> type(final S target) {
+
+        return deserialize(target).javaClass();
+    }
+
+    /**
+     * Wraps a serialized instance as data that is only deserialized on first
+     * access.
+     */
+    default Data deserializeLazily(final S target) {
+
+        return new LazyData<>(target, this);
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.serde;
+
+import com.erebelo.graphdemo.common.fp.Try;
+import com.erebelo.graphdemo.common.serde.JsonEngine;
+import com.erebelo.graphdemo.model.Data;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Serde implementation that converts Data to and from Smile, Jackson's binary
+ * JSON format. A payload is a two element array of the type and the value. The
+ * type is written as its code in a TypeDictionary when it has one and by name
+ * otherwise, so common payloads carry a small int rather than a class name.
+ * Payloads are written and read with a streaming generator and parser, binding
+ * the value with a cached reader for its type.
+ */
+public final class SmileSerde implements Serde<byte[]> {
+
+    private static final JsonEngine ENGINE = new JsonEngine(new SmileMapper());
+
+    private final TypeDictionary dictionary;
+
+    /**
+     * Creates a serde that encodes only the built-in types.
+     */
+    public SmileSerde() {
+
+        this(List.of());
+    }
+
+    /**
+     * Creates a serde that also encodes the registered types, which take codes in
+     * list order. Payloads are only readable with the same (or a longer) list.
+     */
+    public SmileSerde(final List<Class<?>> registered) {
+
+        dictionary = new TypeDictionary(registered);
+    }
+
+    /**
+     * Serializes Data to Smile including type information.
+     */
+    @Override
+    public byte[] serialize(final Data target) {
+        // Data still in Smile form is written back as is rather than decoded and
+        // re-encoded
+        if ((target instanceof LazyData<?> lazy) && (lazy.serde() instanceof SmileSerde)) {
+            return (byte[]) lazy.serialized();
+        }
+        return Try.withReturn(() -> {
+            final var smile = new ByteArrayOutputStream();
+            try (var generator = ENGINE.generator(smile)) {
+                generator.writeStartArray();
+                final var code = dictionary.encode(target.javaClass());
+                if (code >= 0) {
+                    generator.writeNumber(code);
+                } else {
+                    generator.writeString(target.javaClass().getName());
+                }
+                ENGINE.write(target.value(), generator);
+                generator.writeEndArray();
+            }
+            return smile.toByteArray();
+        });
+    }
+
+    /**
+     * Deserializes Smile to Data, restoring type information.
+     */
+    @Override
+    public Data deserialize(final byte[] target) {
+        return Try.withReturn(() -> {
+            try (var parser = ENGINE.parser(target)) {
+                final var type = type(parser);
+                parser.nextToken();
+                final var value = ENGINE.reader(type).readValue(parser);
+                return new SimpleData(type, value);
+            }
+        });
+    }
+
+    /**
+     * Reads the type of a Smile payload, without reading the value.
+     */
+    @Override
+    public Class<?> type(final byte[] target) {
+        return Try.withReturn(() -> {
+            try (var parser = ENGINE.parser(target)) {
+                return type(parser);
+            }
+        });
+    }
+
+    /**
+     * Reads the opening of a payload up to and including its type.
+     */
+    private Class<?> type(final JsonParser parser) throws IOException {
+
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Expected a Smile array");
+        }
+        final var token = parser.nextToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return dictionary.decode(parser.getIntValue());
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return ENGINE.resolve(parser.getText());
+        }
+        throw new IllegalArgumentException("Missing type information in Smile payload");
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.serde;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Dictionary of payload types encoded as small ints, so binary payloads need
+ * not carry a full class name. Codes are persisted, so the built-in list and
+ * the registered list may only ever be appended to. Built-in types take codes
+ * from zero and registered types from REGISTERED_BASE upwards; types in
+ * neither list are written by name. Instances are immutable and thread-safe.
+ */
+public final class TypeDictionary {
+
+    /**
+     * First code of the registered types, leaving room for more built-in types.
+     */
+    public static final int REGISTERED_BASE = 256;
+
+    /**
+     * Built-in types by code. Append only.
+     */
+    private static final List<Class<?>> BUILT_IN = List.of(String.class, Integer.class, Long.class, Double.class,
+            Float.class, Boolean.class, Short.class, Byte.class, Character.class, BigInteger.class, BigDecimal.class,
+            LinkedHashMap.class, HashMap.class, TreeMap.class, ArrayList.class, LinkedList.class, HashSet.class,
+            LinkedHashSet.class, TreeSet.class, Map.class, List.class, Set.class, Object.class, UUID.class,
+            byte[].class);
+
+    private final List<Class<?>> registered;
+    private final Map<Class<?>, Integer> codes = new HashMap<>();
+
+    /**
+     * Creates a dictionary of the built-in types and the registered types, which
+     * take codes in list order.
+     */
+    public TypeDictionary(final List<Class<?>> registered) {
+
+        this.registered = List.copyOf(registered);
+        for (var i = 0; i < BUILT_IN.size(); i++) {
+            codes.put(BUILT_IN.get(i), i);
+        }
+        for (var i = 0; i < this.registered.size(); i++) {
+            codes.putIfAbsent(this.registered.get(i), REGISTERED_BASE + i);
+        }
+    }
+
+    /**
+     * Returns the code of a type, or -1 if it is not in the dictionary.
+     */
+    public int encode(final Class<?> type) {
+
+        return codes.getOrDefault(type, -1);
+    }
+
+    /**
+     * Returns the type with the specified code.
+     */
+    public Class<?> decode(final int code) {
+
+        if ((code >= 0) && (code < BUILT_IN.size())) {
+            return BUILT_IN.get(code);
+        }
+        final var index = code - REGISTERED_BASE;
+        if ((index >= 0) && (index < registered.size())) {
+            return registered.get(index);
+        }
+        throw new IllegalArgumentException("Unknown type code: " + code);
+    }
+}
@@ -12,4 +12,19 @@ import com.erebelo.graphdemo.model.Data;
  * Simple implementation of Data interface.
  */
 public record SimpleData(Class<?> javaClass, Object value) implements Data {
+
+    @Override
+    public boolean equals(final Object other) {
+
+        return (this == other) || ((other instanceof Data data) && Data.matches(data, javaClass, value));
+    }
+
+    /**
+     * Hashes the class only, as the Data contract requires.
+     */
+    @Override
+    public int hashCode() {
+
+        return Data.hash(javaClass);
+    }
 }
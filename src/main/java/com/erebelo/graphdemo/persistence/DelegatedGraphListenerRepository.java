@@ -6,70 +6,88 @@
 package com.erebelo.graphdemo.persistence;
 
 import com.erebelo.graphdemo.common.annotation.Stable;
-import com.erebelo.graphdemo.common.fp.Io;
-import com.erebelo.graphdemo.common.fp.Proc0;
 import com.erebelo.graphdemo.model.Edge;
 import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
 import org.jgrapht.event.GraphEdgeChangeEvent;
 import org.jgrapht.event.GraphVertexChangeEvent;
-import org.springframework.stereotype.Repository;
 
 /**
  * Graph listener that queues up database operations in response to graph events
- * and then executes then defers execution until the flush() method is called.
+ * and then defers execution until the flush() method is called. Operations are
+ * queued as data rather than closures, folded into their net effect on each
+ * version (so intermediate steps such as removing and re-adding an element are
+ * never persisted) and handed to the delegate as a whole, so it can apply a
+ * flush as a few batches rather than one round trip per element. The graph
+ * only fires a removal with the active version, so the expiry of a removed
+ * element is taken from the write that removed it. A write fires its events
+ * and flushes on the writing thread, so each thread has its own queue and a
+ * flush only sends the writes of its own commit (in its own transaction),
+ * never those of a concurrent writer.
  */
-@Repository("delegatedGraphListenerRepository")
 @Stable
 public class DelegatedGraphListenerRepository implements GraphListenerRepository {
 
-    private final Collection<Proc0> operations = new ArrayList<>();
+    /**
+     * Writes queued by each thread since its last flush, in event order.
+     */
+    private final ThreadLocal<List<GraphWrite>> operations = ThreadLocal.withInitial(ArrayList::new);
 
     private final GraphRepository delegate;
+    private final GraphOperations graphOperations;
 
-    public DelegatedGraphListenerRepository(final GraphRepository delegate) {
+    public DelegatedGraphListenerRepository(final GraphRepository delegate, final GraphOperations graphOperations) {
 
         this.delegate = delegate;
+        this.graphOperations = graphOperations;
     }
 
     @Override
     public void vertexAdded(final GraphVertexChangeEvent<Node> event) {
 
         final var vertex = event.getVertex();
-        operations.add(() -> delegate.nodes().save(vertex));
+        queue(GraphWrite.saveNode(vertex));
     }
 
     @Override
     public void vertexRemoved(final GraphVertexChangeEvent<Node> event) {
 
         final var vertex = event.getVertex();
-        final var expiredTime = vertex.expired().orElseGet(Instant::now);
-        operations.add(() -> delegate.nodes().expire(vertex.locator().id(), expiredTime));
+        final var expiredTime = graphOperations.expiry(vertex).or(vertex::expired).orElseGet(Instant::now);
+        queue(GraphWrite.expireNode(vertex, expiredTime));
     }
 
     @Override
     public void edgeAdded(final GraphEdgeChangeEvent<Node, Edge> event) {
 
         final var edge = event.getEdge();
-        operations.add(() -> delegate.edges().save(edge));
+        queue(GraphWrite.saveEdge(edge));
     }
 
     @Override
     public void edgeRemoved(final GraphEdgeChangeEvent<Node, Edge> event) {
 
         final var edge = event.getEdge();
-        final var expiredTime = edge.expired().orElseGet(Instant::now);
-        operations.add(() -> delegate.edges().expire(edge.locator().id(), expiredTime));
+        final var expiredTime = graphOperations.expiry(edge).or(edge::expired).orElseGet(Instant::now);
+        queue(GraphWrite.expireEdge(edge, expiredTime));
     }
 
     @Override
     public void flush() {
 
-        Io.withVoid(() -> {
-            operations.forEach(proc -> Io.withVoid(proc));
-            operations.clear();
-        });
+        final var queued = operations.get();
+        if (queued.isEmpty()) {
+            return;
+        }
+        operations.remove();
+        delegate.writeAll(GraphWriteCoalescer.coalesce(queued));
+    }
+
+    private void queue(final GraphWrite write) {
+
+        operations.get().add(write);
     }
 }
@@ -23,4 +23,11 @@ public interface GraphListenerRepository extends GraphListener<Node, Edge> {
      * Execute the queued operations to the persistent store.
      */
     void flush();
+
+    /**
+     * Waits until the operations flushed so far are visible in the persistent
+     * store. Repositories that write them during flush() return immediately.
+     */
+    default void awaitPersisted() {
+    }
 }
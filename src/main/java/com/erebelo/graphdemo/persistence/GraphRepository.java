@@ -6,9 +6,12 @@
 package com.erebelo.graphdemo.persistence;
 
 import com.erebelo.graphdemo.common.annotation.Stable;
+import com.erebelo.graphdemo.common.version.Versioned;
 import com.erebelo.graphdemo.model.Component;
 import com.erebelo.graphdemo.model.Edge;
 import com.erebelo.graphdemo.model.Node;
+import java.time.Instant;
+import java.util.List;
 
 /**
  * Common interface for graph persistence operations. Provides CRUD operations
@@ -22,4 +25,33 @@ public interface GraphRepository {
     ExtendedVersionedRepository<Edge> edges();
 
     ExtendedVersionedRepository<Component> components();
+
+    /**
+     * Applies queued writes in order. Implementations may batch them, provided
+     * the writes to each collection keep their relative order.
+     */
+    default void writeAll(final List<GraphWrite> writes) {
+
+        for (final var write : writes) {
+            final var id = write.element().locator().id();
+            switch (write.kind()) {
+                case SAVE_NODE -> save(nodes(), (Node) write.element(), write.expired());
+                case EXPIRE_NODE -> nodes().expire(id, write.expired());
+                case SAVE_EDGE -> save(edges(), (Edge) write.element(), write.expired());
+                case EXPIRE_EDGE -> edges().expire(id, write.expired());
+            }
+        }
+    }
+
+    /**
+     * Saves a version, expiring it at the specified time if there is one.
+     */
+    private static <T extends Versioned> void save(final ExtendedVersionedRepository<T> repository, final T item,
+            final Instant expired) {
+
+        repository.save(item);
+        if (expired != null) {
+            repository.expire(item.locator().id(), expired);
+        }
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence;
+
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Element;
+import com.erebelo.graphdemo.model.Node;
+import java.time.Instant;
+
+/**
+ * Queued write of a graph element, either saving a version or expiring the
+ * active version of its ID at the specified time. A save normally has no time;
+ * one with a time saves the version already expired at that time.
+ */
+public record GraphWrite(Kind kind, Element element, Instant expired) {
+
+    /**
+     * Kinds of queued writes.
+     */
+    public enum Kind {
+        SAVE_NODE, EXPIRE_NODE, SAVE_EDGE, EXPIRE_EDGE
+    }
+
+    /**
+     * Creates a write saving a node version.
+     */
+    public static GraphWrite saveNode(final Node node) {
+
+        return new GraphWrite(Kind.SAVE_NODE, node, null);
+    }
+
+    /**
+     * Creates a write expiring the active version of a node.
+     */
+    public static GraphWrite expireNode(final Node node, final Instant expired) {
+
+        return new GraphWrite(Kind.EXPIRE_NODE, node, expired);
+    }
+
+    /**
+     * Creates a write saving an edge version.
+     */
+    public static GraphWrite saveEdge(final Edge edge) {
+
+        return new GraphWrite(Kind.SAVE_EDGE, edge, null);
+    }
+
+    /**
+     * Creates a write expiring the active version of an edge.
+     */
+    public static GraphWrite expireEdge(final Edge edge, final Instant expired) {
+
+        return new GraphWrite(Kind.EXPIRE_EDGE, edge, expired);
+    }
+
+    /**
+     * Returns a save of the same version already expired at the specified time.
+     */
+    public GraphWrite expiredAt(final Instant time) {
+
+        return new GraphWrite(kind, element, time);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Node;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Folds a log of queued writes into the net effect on each version, keyed by
+ * locator. A version is immutable, so saving it again after it was expired in
+ * the same log restores the stored state (when the log began by expiring it)
+ * or leaves a single save, and a version saved and then expired in the same
+ * log is saved already expired. Net writes are ordered by the first write to
+ * each version, which keeps the writes to each ID in version order.
+ */
+public final class GraphWriteCoalescer {
+
+    /**
+     * Type contains only static members.
+     */
+    private GraphWriteCoalescer() {
+    }
+
+    /**
+     * Returns the net writes of a log.
+     */
+    public static List<GraphWrite> coalesce(final List<GraphWrite> writes) {
+
+        final var versions = new LinkedHashMap<Key, Net>();
+        for (final var write : writes) {
+            final var element = write.element();
+            versions.computeIfAbsent(new Key(element instanceof Node, element.locator()), key -> new Net(write))
+                    .apply(write);
+        }
+        final var net = new ArrayList<GraphWrite>(versions.size());
+        for (final var version : versions.values()) {
+            final var write = version.write();
+            if (write != null) {
+                net.add(write);
+            }
+        }
+        return net;
+    }
+
+    /**
+     * Version of a node or an edge. Node and edge IDs are generated separately,
+     * so the kind is part of the key.
+     */
+    private record Key(boolean node, Locator locator) {
+    }
+
+    /**
+     * Net effect of the writes to one version so far.
+     */
+    private static final class Net {
+
+        /**
+         * True if the version was stored before the log, which is the case when the
+         * first write expires it.
+         */
+        private final boolean stored;
+
+        /**
+         * Save still to be made, or null.
+         */
+        private GraphWrite save = null;
+
+        /**
+         * Expire still to be made (or expiry to save with), or null.
+         */
+        private GraphWrite expire = null;
+
+        Net(final GraphWrite first) {
+
+            stored = isExpire(first);
+        }
+
+        void apply(final GraphWrite write) {
+
+            if (isExpire(write)) {
+                expire = write;
+            } else {
+                expire = null;
+                save = stored ? null : write;
+            }
+        }
+
+        GraphWrite write() {
+
+            if (save == null) {
+                return expire;
+            }
+            return (expire == null) ? save : save.expiredAt(expire.expired());
+        }
+
+        private static boolean isExpire(final GraphWrite write) {
+
+            return switch (write.kind()) {
+                case EXPIRE_NODE, EXPIRE_EDGE -> true;
+                case SAVE_NODE, SAVE_EDGE -> false;
+            };
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence;
+
+import com.erebelo.graphdemo.common.log.Log;
+import com.erebelo.graphdemo.common.thread.SimpleRunnable;
+import com.erebelo.graphdemo.common.thread.ThreadRegistry;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphVertexChangeEvent;
+
+/**
+ * Graph listener that persists graph events behind the caller. A flush folds
+ * the queued events into their net writes, appends them to a local journal
+ * (forced to disk) and hands them to a bounded queue, so it returns without
+ * waiting for the delegate repository. A drainer thread registered with
+ * ThreadRegistry takes the writes from the queue in batches and applies them
+ * through the delegate, retrying a failed batch until it succeeds. When the
+ * queue is full, flush() blocks until the drainer makes room, which pushes
+ * back on writers instead of growing without bound. Writes left in the
+ * journal by a previous run are applied before any new ones. Readers of the
+ * delegate call awaitPersisted() first to see their own thread's flushed
+ * writes (and any recovered ones).
+ * When the drainer is stopped (by stop() or ThreadRegistry.kill9()) it drains
+ * what is queued before exiting; anything it cannot write stays in the journal
+ * for the next run. close() stops the drainer and closes the journal.
+ */
+public class WriteBehindGraphListenerRepository implements GraphListenerRepository, AutoCloseable {
+
+    /**
+     * Milliseconds the drainer waits for writes, and between retries.
+     */
+    private static final long POLL_INTERVAL = 100;
+    private static final long RETRY_INTERVAL = 1000;
+
+    /**
+     * Milliseconds stop() waits for the final drain.
+     */
+    private static final long STOP_TIMEOUT = 30_000;
+
+    private final GraphRepository delegate;
+    private final GraphOperations graphOperations;
+    private final WriteJournal journal;
+    private final BlockingQueue<GraphWrite> queue;
+    private final int batchSize;
+    private final Duration awaitTimeout;
+
+    /**
+     * Writes recovered from the journal, applied before the queue. Only used by
+     * the drainer.
+     */
+    private final Queue<GraphWrite> recovered;
+
+    /**
+     * Batch that failed and is retried before anything else. Only used by the
+     * drainer.
+     */
+    private List<GraphWrite> failed = null;
+
+    /**
+     * Writes handed to the drainer (including recovered ones), guarded by the
+     * queue, and writes applied through the delegate, guarded by progress.
+     */
+    private long flushed;
+    private long persisted = 0;
+    private final Object progress = new Object();
+
+    /**
+     * Value of flushed after each thread's last flush, which is how far the
+     * drainer must get before that thread's writes are persisted. A thread that
+     * has not flushed only waits for the recovered writes.
+     */
+    private final ThreadLocal<Long> lastFlushed;
+
+    /**
+     * Events queued by each thread since its last flush. A write fires its events
+     * and flushes on the writing thread, so a flush only journals its own commit.
+     */
+    private final ThreadLocal<List<GraphWrite>> operations = ThreadLocal.withInitial(ArrayList::new);
+
+    private Thread drainer = null;
+    private Drainer runnable = null;
+
+    public WriteBehindGraphListenerRepository(final GraphRepository delegate, final GraphOperations graphOperations,
+            final WriteJournal journal, final int capacity, final int batchSize, final Duration awaitTimeout) {
+
+        if ((capacity < 1) || (batchSize < 1)) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive: " + capacity + ", "
+                    + batchSize);
+        }
+        if (awaitTimeout.isNegative()) {
+            throw new IllegalArgumentException("Await timeout must not be negative: " + awaitTimeout);
+        }
+        this.delegate = delegate;
+        this.graphOperations = graphOperations;
+        this.journal = journal;
+        this.batchSize = batchSize;
+        this.awaitTimeout = awaitTimeout;
+        queue = new ArrayBlockingQueue<>(capacity);
+        recovered = new ArrayDeque<>(journal.recover());
+        flushed = recovered.size();
+        final long recoveredCount = recovered.size();
+        lastFlushed = ThreadLocal.withInitial(() -> recoveredCount);
+    }
+
+    /**
+     * Starts draining writes in the background.
+     */
+    public synchronized void start() {
+
+        if (drainer == null) {
+            runnable = new Drainer();
+            drainer = ThreadRegistry.INSTANCE.register(runnable);
+            drainer.start();
+        }
+    }
+
+    /**
+     * Stops draining, waiting for the writes already queued to be applied.
+     */
+    public void stop() {
+
+        final Thread stopping;
+        synchronized (this) {
+            if (drainer == null) {
+                return;
+            }
+            runnable.kill9();
+            stopping = drainer;
+            drainer = null;
+            runnable = null;
+        }
+        try {
+            stopping.join(STOP_TIMEOUT);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops draining and closes the journal.
+     */
+    @Override
+    public void close() {
+
+        stop();
+        journal.close();
+    }
+
+    /**
+     * Waits until every write this thread has flushed has been applied through the
+     * delegate, so a read from it that follows sees them. Writes flushed by other
+     * threads after them are not waited for.
+     */
+    @Override
+    public void awaitPersisted() {
+
+        final long target = lastFlushed.get();
+        final var deadline = System.currentTimeMillis() + awaitTimeout.toMillis();
+        synchronized (progress) {
+            while (persisted < target) {
+                final var remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Timed out waiting for graph writes to be persisted");
+                }
+                try {
+                    progress.wait(remaining);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for graph writes to be persisted", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of writes waiting to be applied.
+     */
+    public int backlog() {
+
+        return queue.size();
+    }
+
+    @Override
+    public void vertexAdded(final GraphVertexChangeEvent<Node> event) {
+
+        queue(GraphWrite.saveNode(event.getVertex()));
+    }
+
+    @Override
+    public void vertexRemoved(final GraphVertexChangeEvent<Node> event) {
+
+        final var vertex = event.getVertex();
+        queue(GraphWrite.expireNode(vertex,
+                graphOperations.expiry(vertex).or(vertex::expired).orElseGet(Instant::now)));
+    }
+
+    @Override
+    public void edgeAdded(final GraphEdgeChangeEvent<Node, Edge> event) {
+
+        queue(GraphWrite.saveEdge(event.getEdge()));
+    }
+
+    @Override
+    public void edgeRemoved(final GraphEdgeChangeEvent<Node, Edge> event) {
+
+        final var edge = event.getEdge();
+        queue(GraphWrite.expireEdge(edge, graphOperations.expiry(edge).or(edge::expired).orElseGet(Instant::now)));
+    }
+
+    /**
+     * Journals the queued writes and hands them to the drainer, blocking while the
+     * queue is full. The writes are durable once this returns.
+     */
+    @Override
+    public void flush() {
+
+        final var queued = operations.get();
+        if (queued.isEmpty()) {
+            return;
+        }
+        operations.remove();
+        final var writes = GraphWriteCoalescer.coalesce(queued);
+        // Journal and queue under one lock so both keep the same order
+        synchronized (queue) {
+            journal.append(writes);
+            var interrupted = false;
+            for (final var write : writes) {
+                while (true) {
+                    try {
+                        queue.put(write);
+                        break;
+                    } catch (final InterruptedException e) {
+                        // The write is already journaled, so it must be queued
+                        interrupted = true;
+                    }
+                }
+            }
+            flushed += writes.size();
+            lastFlushed.set(flushed);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void queue(final GraphWrite write) {
+
+        operations.get().add(write);
+    }
+
+    /**
+     * Applies the next batch of writes, waiting up to the timeout for one. Returns
+     * false if there was nothing to apply.
+     */
+    private boolean drain(final long timeout) throws InterruptedException {
+
+        var batch = failed;
+        if (batch == null) {
+            batch = new ArrayList<>(batchSize);
+            while ((batch.size() < batchSize) && !recovered.isEmpty()) {
+                batch.add(recovered.remove());
+            }
+            if (batch.isEmpty()) {
+                final var first = (timeout > 0) ? queue.poll(timeout, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first == null) {
+                    return false;
+                }
+                batch.add(first);
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+        try {
+            delegate.writeAll(GraphWriteCoalescer.coalesce(batch));
+        } catch (final RuntimeException e) {
+            failed = batch;
+            throw e;
+        }
+        failed = null;
+        journal.persisted(batch.size());
+        synchronized (progress) {
+            persisted += batch.size();
+            progress.notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Applies queued writes until stopped, then drains the rest.
+     */
+    private final class Drainer extends SimpleRunnable {
+
+        @Override
+        protected boolean go() {
+
+            try {
+                drain(POLL_INTERVAL);
+                return true;
+            } catch (final InterruptedException e) {
+                return false;
+            } catch (final RuntimeException e) {
+                Log.warn(WriteBehindGraphListenerRepository.class, () -> "Unable to persist graph writes", e);
+                return sleep(RETRY_INTERVAL);
+            }
+        }
+
+        @Override
+        protected void stopped() {
+
+            // Clear an interrupt from ThreadRegistry so the final drain can run
+            Thread.interrupted();
+            try {
+                while (drain(0)) {
+                    // Drain until the queue is empty
+                }
+            } catch (final InterruptedException | RuntimeException e) {
+                Log.warn(WriteBehindGraphListenerRepository.class,
+                        () -> "Unable to drain graph writes, leaving them in the journal", e);
+            }
+        }
+    }
+}
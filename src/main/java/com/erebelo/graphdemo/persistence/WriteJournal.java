@@ -0,0 +1,330 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence;
+
+import com.erebelo.graphdemo.common.fp.Io;
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Element;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.serde.JsonSerde;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import com.erebelo.graphdemo.model.simple.SimpleType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Local append-only log of the graph writes not yet persisted by the
+ * delegate repository. Each append is forced to disk before it returns, so an
+ * acknowledged write survives a crash. The log is truncated whenever every
+ * write appended so far has been persisted; under steady load, once the
+ * persisted prefix passes a threshold and makes up at least half the file, the
+ * unpersisted tail is copied to a new file that atomically replaces the log.
+ * Prefixes are dropped a whole append at a time, so recovery may replay writes
+ * that were already persisted, which is safe because replay applies them in
+ * order. Records are length prefixed, so a record torn by a crash is dropped
+ * on recovery. Replayed edges only carry the
+ * locators of their endpoints, which is all the repository needs to store
+ * them. This type is thread-safe.
+ */
+public final class WriteJournal implements AutoCloseable {
+
+    private static final JsonSerde SERDE = new JsonSerde();
+
+    /**
+     * Default bytes of persisted prefix before the journal is compacted.
+     */
+    public static final long DEFAULT_COMPACT_THRESHOLD = 16L << 20;
+
+    private final Path file;
+    private final long compactThreshold;
+    private FileChannel channel;
+
+    /**
+     * Appends (or the recovered content) not yet fully persisted, oldest first.
+     */
+    private final Deque<Append> unpersisted = new ArrayDeque<>();
+
+    /**
+     * Writes of the oldest unpersisted append that have been persisted.
+     */
+    private long persisted = 0;
+
+    /**
+     * Offset of the oldest unpersisted append (everything before it has been
+     * persisted) and of the end of the journal.
+     */
+    private long start = 0;
+    private long end = 0;
+
+    /**
+     * Opens the journal at the specified path, creating it if needed.
+     */
+    public WriteJournal(final Path file) {
+
+        this(file, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    /**
+     * Opens the journal at the specified path, compacting it once its persisted
+     * prefix reaches the threshold (in bytes).
+     */
+    public WriteJournal(final Path file, final long compactThreshold) {
+
+        if (compactThreshold < 1) {
+            throw new IllegalArgumentException("Compact threshold must be positive: " + compactThreshold);
+        }
+        this.file = file;
+        this.compactThreshold = compactThreshold;
+        channel = open(file);
+    }
+
+    /**
+     * Returns the writes left in the journal by a previous run, in order. These
+     * count as appended, so they must be persisted like any other write.
+     */
+    public synchronized List<GraphWrite> recover() {
+
+        return Io.withReturn(() -> {
+            final var size = channel.size();
+            final var content = ByteBuffer.allocate(Math.toIntExact(size));
+            while (content.hasRemaining() && (channel.read(content, content.position()) >= 0)) {
+                // Read the whole file
+            }
+            final var writes = new ArrayList<GraphWrite>();
+            content.flip();
+            var valid = 0;
+            while (content.remaining() >= Integer.BYTES) {
+                final var length = content.getInt();
+                if ((length < 0) || (length > content.remaining())) {
+                    break;
+                }
+                final var record = new byte[length];
+                content.get(record);
+                writes.add(decode(record));
+                valid = content.position();
+            }
+            // Drop a torn record left by a crash and continue after the valid ones
+            channel.truncate(valid);
+            channel.position(valid);
+            end = valid;
+            if (!writes.isEmpty()) {
+                unpersisted.add(new Append(end, writes.size()));
+            }
+            return writes;
+        });
+    }
+
+    /**
+     * Appends writes and forces them to disk.
+     */
+    public synchronized void append(final List<GraphWrite> writes) {
+
+        if (writes.isEmpty()) {
+            return;
+        }
+        Io.withVoid(() -> {
+            final var bytes = new ByteArrayOutputStream();
+            final var out = new DataOutputStream(bytes);
+            for (final var write : writes) {
+                final var record = encode(write);
+                out.writeInt(record.length);
+                out.write(record);
+            }
+            final var buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            end = channel.position();
+        });
+        unpersisted.add(new Append(end, writes.size()));
+    }
+
+    /**
+     * Records that the oldest writes have been persisted. The journal is
+     * truncated once every appended write has been, and compacted once the
+     * persisted prefix is large enough.
+     */
+    public synchronized void persisted(final int count) {
+
+        persisted += count;
+        while (!unpersisted.isEmpty() && (persisted >= unpersisted.peek().count())) {
+            final var oldest = unpersisted.remove();
+            persisted -= oldest.count();
+            start = oldest.end();
+        }
+        if (unpersisted.isEmpty()) {
+            Io.withVoid(() -> {
+                channel.truncate(0);
+                channel.position(0);
+            });
+            persisted = 0;
+            start = 0;
+            end = 0;
+        } else if ((start >= compactThreshold) && (start >= (end - start))) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns the size of the journal in bytes.
+     */
+    public synchronized long size() {
+
+        return end;
+    }
+
+    @Override
+    public synchronized void close() {
+
+        Io.withVoid(channel::close);
+    }
+
+    /**
+     * Copies the unpersisted tail to a new file, forces it to disk and moves it
+     * over the journal. A crash part way leaves either the old journal or the
+     * new one in place, and both hold every unpersisted write.
+     */
+    private void compact() {
+
+        final var shift = start;
+        final var compacted = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Io.withVoid(() -> {
+                try (var target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    var copied = 0L;
+                    while (copied < (end - shift)) {
+                        copied += channel.transferTo(shift + copied, end - shift - copied, target);
+                    }
+                    target.force(false);
+                }
+                channel.close();
+                Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            });
+        } finally {
+            // Append to whichever journal is in place, even if compacting failed
+            if (!channel.isOpen()) {
+                channel = open(file);
+            }
+            Io.withVoid(() -> channel.position(channel.size()));
+        }
+        final var shifted = new ArrayList<Append>(unpersisted.size());
+        unpersisted.forEach(append -> shifted.add(new Append(append.end() - shift, append.count())));
+        unpersisted.clear();
+        unpersisted.addAll(shifted);
+        start = 0;
+        end -= shift;
+    }
+
+    private static FileChannel open(final Path file) {
+
+        return Io.withReturn(() -> FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+    }
+
+    private static byte[] encode(final GraphWrite write) throws IOException {
+
+        final var bytes = new ByteArrayOutputStream();
+        final var out = new DataOutputStream(bytes);
+        final var element = write.element();
+        out.writeByte(write.kind().ordinal());
+        writeInstant(out, write.expired());
+        writeLocator(out, element.locator());
+        out.writeUTF(element.type().code());
+        writeInstant(out, element.created());
+        writeInstant(out, element.expired().orElse(null));
+        final var data = SERDE.serialize(element.data()).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(data.length);
+        out.write(data);
+        if (element instanceof Edge edge) {
+            writeLocator(out, edge.source().locator());
+            writeLocator(out, edge.target().locator());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static GraphWrite decode(final byte[] record) throws IOException {
+
+        final var in = new DataInputStream(new ByteArrayInputStream(record));
+        final var kind = GraphWrite.Kind.values()[in.readByte()];
+        final var expired = readInstant(in);
+        final var locator = readLocator(in);
+        final var type = new SimpleType(in.readUTF());
+        final var created = readInstant(in);
+        final var elementExpired = Optional.ofNullable(readInstant(in));
+        final var data = new byte[in.readInt()];
+        in.readFully(data);
+        final var payload = SERDE.deserializeLazily(new String(data, StandardCharsets.UTF_8));
+        final Element element = switch (kind) {
+            case SAVE_NODE, EXPIRE_NODE -> new SimpleNode(locator, type, new ArrayList<>(), payload, created,
+                    elementExpired, new HashSet<>());
+            case SAVE_EDGE, EXPIRE_EDGE -> new SimpleEdge(locator, type, endpoint(readLocator(in)),
+                    endpoint(readLocator(in)), payload, created, elementExpired, new HashSet<>());
+        };
+        return new GraphWrite(kind, element, expired);
+    }
+
+    /**
+     * Creates a stand-in for the endpoint of a replayed edge.
+     */
+    private static Node endpoint(final Locator locator) {
+
+        return new SimpleNode(locator, new ArrayList<>(), null, Instant.EPOCH, Optional.empty());
+    }
+
+    private static void writeLocator(final DataOutputStream out, final Locator locator) throws IOException {
+
+        out.writeUTF(locator.id().id());
+        out.writeInt(locator.version());
+    }
+
+    private static Locator readLocator(final DataInputStream in) throws IOException {
+
+        return new Locator(new NanoId(in.readUTF()), in.readInt());
+    }
+
+    private static void writeInstant(final DataOutputStream out, final Instant instant) throws IOException {
+
+        out.writeBoolean(instant != null);
+        if (instant != null) {
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        }
+    }
+
+    private static Instant readInstant(final DataInputStream in) throws IOException {
+
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+
+    /**
+     * Writes appended in one call, and the offset just past them.
+     */
+    private record Append(long end, int count) {
+    }
+}
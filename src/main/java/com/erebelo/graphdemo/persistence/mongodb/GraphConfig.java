@@ -2,16 +2,39 @@ package com.erebelo.graphdemo.persistence.mongodb;
 
 import com.erebelo.graphdemo.model.Edge;
 import com.erebelo.graphdemo.model.Node;
-import org.jgrapht.Graph;
+import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
+import com.erebelo.graphdemo.model.jgrapht.WeightedPathEngine;
+import org.jgrapht.ListenableGraph;
 import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.jgrapht.graph.concurrent.AsSynchronizedGraph;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class GraphConfig {
 
+    /**
+     * Shared graph of active elements. Write stripes only exclude writers of the
+     * same IDs, while every write mutates the vertex and edge maps of the one
+     * underlying graph, which are not thread-safe, so each mutation still takes
+     * the graph's own lock. The lock covers just the map update: listeners run
+     * outside it and readers use the snapshots rather than the graph.
+     */
     @Bean
-    public Graph<Node, Edge> graph() {
-        return new DefaultDirectedGraph<>(null, null, false);
+    public ListenableGraph<Node, Edge> graph() {
+        return new DefaultListenableGraph<>(new AsSynchronizedGraph<>(new DefaultDirectedGraph<>(null, null, false)));
+    }
+
+    /**
+     * Weighted shortest paths over the shared graph, weighing each edge by the
+     * numeric value of its data.
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public WeightedPathEngine weightedPathEngine(ListenableGraph<Node, Edge> graph, GraphOperations graphOperations,
+            Environment environment) {
+        return new WeightedPathEngine(graph, graphOperations, WeightedPathEngine::dataWeight,
+                environment.getProperty("graph.paths.landmarks", Integer.class, 8));
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence.mongodb;
+
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import java.util.List;
+import org.bson.Document;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends writes to a collection as ordered bulkWrite batches of at most the
+ * configured size, so a flush costs one round trip per batch rather than per
+ * write. Ordered batches stop at the first failure and are sent in sequence,
+ * so writes to the same document apply in the order given. Batches run in the
+ * session of the transaction bound to the current thread (or the fixed
+ * session, if one was supplied) and outside a session only when there is
+ * none. This type is thread-safe.
+ */
+public final class MongoBulkWriter {
+
+    /**
+     * Default maximum number of writes per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final BulkWriteOptions ORDERED = new BulkWriteOptions().ordered(true);
+
+    private final int batchSize;
+    private final ClientSession session;
+
+    /**
+     * Creates a writer that uses the session bound to the current thread.
+     */
+    public MongoBulkWriter(final int batchSize) {
+
+        this(batchSize, null);
+    }
+
+    /**
+     * Creates a writer that uses a fixed session.
+     */
+    MongoBulkWriter(final int batchSize, final ClientSession session) {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.session = session;
+    }
+
+    /**
+     * Writes the models to the collection in order.
+     */
+    public void write(final MongoCollection<Document> collection, final List<WriteModel<Document>> models) {
+
+        final var current = (session != null) ? session
+                : (ClientSession) TransactionSynchronizationManager.getResource(MongoTransactionManager.SESSION_KEY);
+        for (var from = 0; from < models.size(); from += batchSize) {
+            final var batch = models.subList(from, Math.min(from + batchSize, models.size()));
+            if (current == null) {
+                collection.bulkWrite(batch, ORDERED);
+            } else {
+                collection.bulkWrite(current, batch, ORDERED);
+            }
+        }
+    }
+}
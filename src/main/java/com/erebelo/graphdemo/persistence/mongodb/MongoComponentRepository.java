@@ -20,25 +20,27 @@ import com.erebelo.graphdemo.common.fp.Io;
 import com.erebelo.graphdemo.common.version.Locator;
 import com.erebelo.graphdemo.common.version.NanoId;
 import com.erebelo.graphdemo.model.Component;
+import com.erebelo.graphdemo.model.Edge;
 import com.erebelo.graphdemo.model.Element;
 import com.erebelo.graphdemo.model.Node;
-import com.erebelo.graphdemo.model.serde.JsonSerde;
-import com.erebelo.graphdemo.model.serde.Serde;
 import com.erebelo.graphdemo.model.simple.SimpleComponent;
 import com.erebelo.graphdemo.persistence.ExtendedVersionedRepository;
+import com.erebelo.graphdemo.persistence.mongodb.MongoHelper.VersionedDocumentData;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.springframework.stereotype.Repository;
 
 /**
- * MongoDB implementation of ComponentRepository using JsonSerde for data
+ * MongoDB implementation of ComponentRepository using a PayloadCodec for data
  * serialization.
  */
 @Repository("mongoComponentRepository")
@@ -46,12 +48,13 @@ public class MongoComponentRepository implements ExtendedVersionedRepository<Com
 
     private final MongoCollection<Document> collection;
     private final MongoCollection<Document> elementsCollection;
-    private final Serde<String> serde = new JsonSerde();
+    private final PayloadCodec codec;
     private final MongoNodeRepository nodeRepository;
     private final MongoEdgeRepository edgeRepository;
 
     public MongoComponentRepository(final MongoDatabase database, final MongoNodeRepository nodeRepository,
-            final MongoEdgeRepository edgeRepository) {
+            final MongoEdgeRepository edgeRepository, final PayloadCodec codec) {
+        this.codec = codec;
         collection = database.getCollection("components");
         elementsCollection = database.getCollection("component_elements");
         this.nodeRepository = nodeRepository;
@@ -62,20 +65,22 @@ public class MongoComponentRepository implements ExtendedVersionedRepository<Com
     public Component save(final Component component) {
         return Io.withReturn(() -> {
             final var document = MongoHelper.createBaseDocument(component.locator(), "component", component.created(),
-                    serde.serialize(component.data()));
+                    codec.encode(component.data()));
             MongoHelper.addExpiryToDocument(document, component.expired());
 
             collection.insertOne(document);
 
-            // Save component elements relationships
+            // Save component elements relationships in one round trip
+            final var elementDocs = new ArrayList<Document>();
             for (final var element : component.elements()) {
-                final var elementDoc = new Document().append("componentId", component.locator().id().id())
+                elementDocs.add(new Document().append("componentId", component.locator().id().id())
                         .append("componentVersionId", component.locator().version())
                         .append("elementId", element.locator().id().id())
                         .append("elementVersionId", element.locator().version())
-                        .append("elementType", (element instanceof Node) ? "node" : "edge");
-
-                elementsCollection.insertOne(elementDoc);
+                        .append("elementType", (element instanceof Node) ? "node" : "edge"));
+            }
+            if (!elementDocs.isEmpty()) {
+                elementsCollection.insertMany(elementDocs);
             }
 
             return component;
@@ -87,14 +92,14 @@ public class MongoComponentRepository implements ExtendedVersionedRepository<Com
         final var document = collection.find(and(eq("id", componentId.id()), not(exists("expired"))))
                 .sort(descending("versionId")).first();
 
-        return Optional.ofNullable(document).map(this::documentToComponent);
+        return Optional.ofNullable(document).map(found -> documentsToComponents(List.of(found)).get(0));
     }
 
     @Override
     public List<Component> findAll(final NanoId componentId) {
         final var documents = collection.find(eq("id", componentId.id())).sort(ascending("versionId"));
 
-        return StreamSupport.stream(documents.spliterator(), false).map(this::documentToComponent).toList();
+        return documentsToComponents(documents);
     }
 
     @Override
@@ -102,7 +107,7 @@ public class MongoComponentRepository implements ExtendedVersionedRepository<Com
         final var document = collection.find(and(eq("id", locator.id().id()), eq("versionId", locator.version())))
                 .first();
 
-        return Optional.ofNullable(document).map(this::documentToComponent);
+        return Optional.ofNullable(document).map(found -> documentsToComponents(List.of(found)).get(0));
     }
 
     @Override
@@ -111,7 +116,7 @@ public class MongoComponentRepository implements ExtendedVersionedRepository<Com
         final var document = collection.find(and(eq("id", componentId.id()), lte("created", timestampStr),
                 or(not(exists("expired")), gt("expired", timestampStr)))).sort(descending("versionId")).first();
 
-        return Optional.ofNullable(document).map(this::documentToComponent);
+        return Optional.ofNullable(document).map(found -> documentsToComponents(List.of(found)).get(0));
     }
 
     @Override
@@ -128,34 +133,80 @@ public class MongoComponentRepository implements ExtendedVersionedRepository<Com
         return result.getModifiedCount() > 0;
     }
 
-    private Component documentToComponent(final Document document) {
+    /**
+     * Converts component documents, loading the elements of every version with a
+     * fixed number of queries: one for the element relationships, one for the
+     * edges and one for the nodes (including the edge endpoints).
+     */
+    private List<Component> documentsToComponents(final Iterable<Document> documents) {
         return Io.withReturn(() -> {
-            final var versionedData = MongoHelper.extractVersionedData(document);
-            final var data = serde.deserialize(versionedData.serializedData());
-
-            // Load component elements
-            final var elements = new ArrayList<Element>();
-            final var elementDocs = elementsCollection.find(and(eq("componentId", versionedData.locator().id().id()),
-                    eq("componentVersionId", versionedData.locator().version())));
-
-            for (final var elementDoc : elementDocs) {
-                final var elementId = new NanoId(elementDoc.getString("elementId"));
-                final var elementVersionId = elementDoc.getInteger("elementVersionId");
-                final var elementLocator = new Locator(elementId, elementVersionId);
-                final var elementType = elementDoc.getString("elementType");
-
-                if ("node".equals(elementType)) {
-                    nodeRepository.find(elementLocator).ifPresent(elements::add);
-                } else if ("edge".equals(elementType)) {
-                    edgeRepository.find(elementLocator).ifPresent(elements::add);
+            final var loaded = new ArrayList<VersionedDocumentData>();
+            final var versionFilters = new ArrayList<Bson>();
+            for (final var document : documents) {
+                final var versionedData = MongoHelper.extractVersionedData(document);
+                loaded.add(versionedData);
+                versionFilters.add(and(eq("componentId", versionedData.locator().id().id()),
+                        eq("componentVersionId", versionedData.locator().version())));
+            }
+            if (loaded.isEmpty()) {
+                return List.of();
+            }
+
+            // Load the element relationships of every version
+            final var references = new HashMap<Locator, List<Document>>();
+            for (final var elementDoc : elementsCollection
+                    .find((versionFilters.size() == 1) ? versionFilters.get(0) : or(versionFilters))) {
+                final var componentLocator = new Locator(new NanoId(elementDoc.getString("componentId")),
+                        elementDoc.getInteger("componentVersionId"));
+                references.computeIfAbsent(componentLocator, key -> new ArrayList<>()).add(elementDoc);
+            }
+
+            // Load the referenced edges, then the referenced nodes and edge endpoints
+            final var nodeLocators = new HashSet<Locator>();
+            final var edgeLocators = new HashSet<Locator>();
+            for (final var versionedData : loaded) {
+                for (final var elementDoc : references.getOrDefault(versionedData.locator(), List.of())) {
+                    final var elementType = elementDoc.getString("elementType");
+                    if ("node".equals(elementType)) {
+                        nodeLocators.add(elementLocator(elementDoc));
+                    } else if ("edge".equals(elementType)) {
+                        edgeLocators.add(elementLocator(elementDoc));
+                    }
                 }
             }
+            final var edgeDocs = edgeRepository.findDocuments(edgeLocators);
+            edgeDocs.forEach(edgeDoc -> nodeLocators.addAll(MongoEdgeRepository.endpoints(edgeDoc)));
+            final var nodes = nodeRepository.findByLocators(nodeLocators);
+            final var edges = new HashMap<Locator, Edge>();
+            for (final var edgeDoc : edgeDocs) {
+                final var edge = edgeRepository.documentToEdge(edgeDoc, nodes);
+                edges.put(edge.locator(), edge);
+            }
 
-            return new SimpleComponent(versionedData.locator(), elements, data, versionedData.created(),
-                    versionedData.expired());
+            final var components = new ArrayList<Component>(loaded.size());
+            for (final var versionedData : loaded) {
+                final var elements = new ArrayList<Element>();
+                for (final var elementDoc : references.getOrDefault(versionedData.locator(), List.of())) {
+                    final var elementType = elementDoc.getString("elementType");
+                    final var elementLocator = elementLocator(elementDoc);
+                    if ("node".equals(elementType) && nodes.containsKey(elementLocator)) {
+                        elements.add(nodes.get(elementLocator));
+                    } else if ("edge".equals(elementType) && edges.containsKey(elementLocator)) {
+                        elements.add(edges.get(elementLocator));
+                    }
+                }
+                final var data = codec.decode(versionedData.serializedData());
+                components.add(new SimpleComponent(versionedData.locator(), elements, data, versionedData.created(),
+                        versionedData.expired()));
+            }
+            return components;
         });
     }
 
+    private static Locator elementLocator(final Document elementDoc) {
+        return new Locator(new NanoId(elementDoc.getString("elementId")), elementDoc.getInteger("elementVersionId"));
+    }
+
     @Override
     public List<NanoId> allIds() {
         return MongoHelper.convertToNanoIdList(collection.distinct("id", String.class));
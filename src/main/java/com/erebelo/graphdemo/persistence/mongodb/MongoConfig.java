@@ -1,10 +1,23 @@
 package com.erebelo.graphdemo.persistence.mongodb;
 
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
+import com.erebelo.graphdemo.persistence.DelegatedGraphListenerRepository;
+import com.erebelo.graphdemo.persistence.GraphListenerRepository;
+import com.erebelo.graphdemo.persistence.WriteBehindGraphListenerRepository;
+import com.erebelo.graphdemo.persistence.WriteJournal;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.jgrapht.ListenableGraph;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class MongoConfig {
@@ -23,4 +36,61 @@ public class MongoConfig {
     public MongoDatabase mongoDatabase(MongoSession mongoSession) {
         return mongoSession.database();
     }
+
+    @Bean
+    public PayloadCodec payloadCodec(Environment environment) {
+        return PayloadCodec.of(environment.getProperty("graph.payload.format", "json"),
+                List.of(environment.getProperty("graph.payload.smile-types", String[].class, new String[0])));
+    }
+
+    @Bean
+    public MongoBulkWriter mongoBulkWriter(Environment environment) {
+        return new MongoBulkWriter(batchSize(environment));
+    }
+
+    /**
+     * Persists graph changes synchronously: the events of each write are flushed
+     * to MongoDB as the write commits, inside the caller's transaction.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "graph.persistence.write-behind.enabled", havingValue = "false",
+            matchIfMissing = true)
+    public DelegatedGraphListenerRepository delegatedGraphListenerRepository(
+            MongoGraphRepository mongoGraphRepository, ListenableGraph<Node, Edge> graph,
+            GraphOperations graphOperations) {
+        return attach(new DelegatedGraphListenerRepository(mongoGraphRepository, graphOperations), graph,
+                graphOperations);
+    }
+
+    /**
+     * Persists graph changes behind the caller: the events of each write are
+     * journaled as the write commits and applied to MongoDB in the background.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "graph.persistence.write-behind.enabled", havingValue = "true")
+    public WriteBehindGraphListenerRepository writeBehindGraphListenerRepository(
+            MongoGraphRepository mongoGraphRepository, ListenableGraph<Node, Edge> graph,
+            GraphOperations graphOperations, Environment environment) {
+        final var journal = new WriteJournal(
+                Path.of(environment.getProperty("graph.persistence.write-behind.journal", "graph-writes.journal")));
+        return attach(new WriteBehindGraphListenerRepository(mongoGraphRepository, graphOperations, journal,
+                environment.getProperty("graph.persistence.write-behind.capacity", Integer.class, 10_000),
+                batchSize(environment), environment.getProperty("graph.persistence.write-behind.await-timeout",
+                        Duration.class, Duration.ofSeconds(30))), graph, graphOperations);
+    }
+
+    /**
+     * Registers a listener repository for every graph event and flushes it once
+     * each write commits.
+     */
+    private static <T extends GraphListenerRepository> T attach(final T repository,
+            final ListenableGraph<Node, Edge> graph, final GraphOperations graphOperations) {
+        graph.addGraphListener(repository);
+        graphOperations.addCommitListener(repository::flush);
+        return repository;
+    }
+
+    private static int batchSize(Environment environment) {
+        return environment.getProperty("graph.mongo.batch-size", Integer.class, MongoBulkWriter.DEFAULT_BATCH_SIZE);
+    }
 }
@@ -20,8 +20,7 @@ import com.erebelo.graphdemo.common.fp.Io;
 import com.erebelo.graphdemo.common.version.Locator;
 import com.erebelo.graphdemo.common.version.NanoId;
 import com.erebelo.graphdemo.model.Edge;
-import com.erebelo.graphdemo.model.serde.JsonSerde;
-import com.erebelo.graphdemo.model.serde.Serde;
+import com.erebelo.graphdemo.model.Node;
 import com.erebelo.graphdemo.model.simple.SimpleEdge;
 import com.erebelo.graphdemo.model.simple.SimpleType;
 import com.erebelo.graphdemo.persistence.ExtendedVersionedRepository;
@@ -29,25 +28,29 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 import org.bson.Document;
 import org.springframework.stereotype.Repository;
 
 /**
- * MongoDB implementation of EdgeRepository using JsonSerde for data
+ * MongoDB implementation of EdgeRepository using a PayloadCodec for data
  * serialization.
  */
 @Repository("mongoEdgeRepository")
 public class MongoEdgeRepository implements ExtendedVersionedRepository<Edge> {
 
     private final MongoCollection<Document> collection;
-    private final Serde<String> serde = new JsonSerde();
+    private final PayloadCodec codec;
     private final MongoNodeRepository nodeRepository;
 
-    public MongoEdgeRepository(final MongoDatabase database, final MongoNodeRepository nodeRepository) {
+    public MongoEdgeRepository(final MongoDatabase database, final MongoNodeRepository nodeRepository,
+            final PayloadCodec codec) {
+        this.codec = codec;
         collection = database.getCollection("edges");
         this.nodeRepository = nodeRepository;
     }
@@ -55,16 +58,7 @@ public class MongoEdgeRepository implements ExtendedVersionedRepository<Edge> {
     @Override
     public Edge save(final Edge edge) {
         return Io.withReturn(() -> {
-            final var document = MongoHelper
-                    .createBaseDocument(edge.locator(), edge.type().code(), edge.created(),
-                            serde.serialize(edge.data()))
-                    .append("sourceId", edge.source().locator().id().id())
-                    .append("sourceVersionId", edge.source().locator().version())
-                    .append("targetId", edge.target().locator().id().id())
-                    .append("targetVersionId", edge.target().locator().version());
-            MongoHelper.addExpiryToDocument(document, edge.expired());
-
-            collection.insertOne(document);
+            collection.insertOne(toDocument(edge));
             return edge;
         });
     }
@@ -74,14 +68,14 @@ public class MongoEdgeRepository implements ExtendedVersionedRepository<Edge> {
         final var document = collection.find(and(eq("id", edgeId.id()), not(exists("expired"))))
                 .sort(descending("versionId")).first();
 
-        return Optional.ofNullable(document).map(this::documentToEdge);
+        return Optional.ofNullable(document).map(found -> documentsToEdges(List.of(found)).get(0));
     }
 
     @Override
     public List<Edge> findAll(final NanoId edgeId) {
         final var documents = collection.find(eq("id", edgeId.id())).sort(ascending("versionId"));
 
-        return StreamSupport.stream(documents.spliterator(), false).map(this::documentToEdge).toList();
+        return documentsToEdges(documents);
     }
 
     @Override
@@ -89,7 +83,7 @@ public class MongoEdgeRepository implements ExtendedVersionedRepository<Edge> {
         final var document = collection.find(and(eq("id", locator.id().id()), eq("versionId", locator.version())))
                 .first();
 
-        return Optional.ofNullable(document).map(this::documentToEdge);
+        return Optional.ofNullable(document).map(found -> documentsToEdges(List.of(found)).get(0));
     }
 
     @Override
@@ -98,7 +92,7 @@ public class MongoEdgeRepository implements ExtendedVersionedRepository<Edge> {
         final var document = collection.find(and(eq("id", edgeId.id()), lte("created", timestampStr),
                 or(not(exists("expired")), gt("expired", timestampStr)))).sort(descending("versionId")).first();
 
-        return Optional.ofNullable(document).map(this::documentToEdge);
+        return Optional.ofNullable(document).map(found -> documentsToEdges(List.of(found)).get(0));
     }
 
     @Override
@@ -109,28 +103,79 @@ public class MongoEdgeRepository implements ExtendedVersionedRepository<Edge> {
 
     @Override
     public boolean expire(final NanoId elementId, final Instant expiredAt) {
-        final var result = collection.updateMany(and(eq("id", elementId.id()), not(exists("expired"))),
-                new Document("$set", new Document("expired", expiredAt.truncatedTo(ChronoUnit.MILLIS).toString())));
+        final var result = collection.updateMany(MongoHelper.activeFilter(elementId),
+                MongoHelper.expireUpdate(expiredAt));
         return result.getModifiedCount() > 0;
     }
 
-    private Edge documentToEdge(final Document document) {
-        return Io.withReturn(() -> {
-            final var versionedData = MongoHelper.extractVersionedData(document);
-            final var data = serde.deserialize(versionedData.serializedData());
+    /**
+     * Creates the document holding a version.
+     */
+    Document toDocument(final Edge edge) {
+        final var document = MongoHelper.createBaseDocument(edge.locator(), edge.type().code(), edge.created(),
+                codec.encode(edge.data())).append("sourceId", edge.source().locator().id().id())
+                .append("sourceVersionId", edge.source().locator().version())
+                .append("targetId", edge.target().locator().id().id())
+                .append("targetVersionId", edge.target().locator().version());
+        MongoHelper.addExpiryToDocument(document, edge.expired());
+        return document;
+    }
+
+    /**
+     * Returns the collection holding the versions.
+     */
+    MongoCollection<Document> collection() {
+        return collection;
+    }
+
+    /**
+     * Finds the documents of the versions with the specified locators in one
+     * query per IN_BATCH_SIZE locators, leaving out any that are not found.
+     */
+    List<Document> findDocuments(final Collection<Locator> locators) {
+        final var documents = new ArrayList<Document>();
+        MongoHelper.locatorsFilters(locators).forEach(filter -> collection.find(filter).into(documents));
+        return documents;
+    }
+
+    /**
+     * Returns the locators of the source and target of an edge document.
+     */
+    static List<Locator> endpoints(final Document document) {
+        return List.of(new Locator(new NanoId(document.getString("sourceId")), document.getInteger("sourceVersionId")),
+                new Locator(new NanoId(document.getString("targetId")), document.getInteger("targetVersionId")));
+    }
 
-            // Retrieve source and target nodes
-            final var sourceId = new NanoId(document.getString("sourceId"));
-            final var sourceVersionId = document.getInteger("sourceVersionId");
-            final var targetId = new NanoId(document.getString("targetId"));
-            final var targetVersionId = document.getInteger("targetVersionId");
+    /**
+     * Decodes a result set of edge documents, in order. The endpoints of every
+     * edge are collected first and resolved together (rather than with two
+     * queries per edge), and edges sharing an endpoint share its node instance.
+     */
+    List<Edge> documentsToEdges(final Iterable<Document> documents) {
+        final var loaded = new ArrayList<Document>();
+        final var endpoints = new HashSet<Locator>();
+        for (final var document : documents) {
+            loaded.add(document);
+            endpoints.addAll(endpoints(document));
+        }
+        final var nodes = nodeRepository.findByLocators(endpoints);
+        return loaded.stream().map(document -> documentToEdge(document, nodes)).toList();
+    }
 
-            final var sourceLocator = new Locator(sourceId, sourceVersionId);
-            final var targetLocator = new Locator(targetId, targetVersionId);
+    /**
+     * Converts an edge document, taking its endpoints from the loaded nodes.
+     */
+    Edge documentToEdge(final Document document, final Map<Locator, Node> nodes) {
+        return Io.withReturn(() -> {
+            final var versionedData = MongoHelper.extractVersionedData(document);
+            final var data = codec.decode(versionedData.serializedData());
 
-            final var source = nodeRepository.find(sourceLocator)
+            final var endpoints = endpoints(document);
+            final var sourceLocator = endpoints.get(0);
+            final var targetLocator = endpoints.get(1);
+            final var source = Optional.ofNullable(nodes.get(sourceLocator))
                     .orElseThrow(() -> new IllegalStateException("Source node not found: " + sourceLocator));
-            final var target = nodeRepository.find(targetLocator)
+            final var target = Optional.ofNullable(nodes.get(targetLocator))
                     .orElseThrow(() -> new IllegalStateException("Target node not found: " + targetLocator));
 
             final var type = new SimpleType(versionedData.type());
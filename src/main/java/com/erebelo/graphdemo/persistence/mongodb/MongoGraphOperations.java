@@ -72,7 +72,8 @@ public class MongoGraphOperations {
     }
 
     /**
-     * Finds all incoming edges to a node using $lookup.
+     * Finds all incoming edges to a node using $lookup, decoding the looked up
+     * edge documents as one batch.
      */
     public List<Edge> findIncomingEdges(final NanoId nodeId) {
         final var pipeline = Arrays.asList(
@@ -81,17 +82,12 @@ public class MongoGraphOperations {
                 Aggregates.match(Filters.not(Filters.exists("incomingEdges.expired"))),
                 Aggregates.replaceRoot("$incomingEdges"));
 
-        final var edges = new ArrayList<Edge>();
-        final var results = database.getCollection("nodes").aggregate(pipeline);
-        for (final var doc : results) {
-            final var edgeId = new NanoId(doc.getString("id"));
-            edgeRepository.findActive(edgeId).ifPresent(edges::add);
-        }
-        return edges;
+        return edgeRepository.documentsToEdges(database.getCollection("nodes").aggregate(pipeline));
     }
 
     /**
-     * Finds all outgoing edges from a node using $lookup.
+     * Finds all outgoing edges from a node using $lookup, decoding the looked up
+     * edge documents as one batch.
      */
     public List<Edge> findOutgoingEdges(final NanoId nodeId) {
         final var pipeline = Arrays.asList(
@@ -100,13 +96,7 @@ public class MongoGraphOperations {
                 Aggregates.match(Filters.not(Filters.exists("outgoingEdges.expired"))),
                 Aggregates.replaceRoot("$outgoingEdges"));
 
-        final var edges = new ArrayList<Edge>();
-        final var results = database.getCollection("nodes").aggregate(pipeline);
-        for (final var doc : results) {
-            final var edgeId = new NanoId(doc.getString("id"));
-            edgeRepository.findActive(edgeId).ifPresent(edges::add);
-        }
-        return edges;
+        return edgeRepository.documentsToEdges(database.getCollection("nodes").aggregate(pipeline));
     }
 
     /**
@@ -11,6 +11,16 @@ import com.erebelo.graphdemo.model.Edge;
 import com.erebelo.graphdemo.model.Node;
 import com.erebelo.graphdemo.persistence.ExtendedVersionedRepository;
 import com.erebelo.graphdemo.persistence.GraphRepository;
+import com.erebelo.graphdemo.persistence.GraphWrite;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.WriteModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.bson.Document;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -20,26 +30,31 @@ import org.springframework.stereotype.Repository;
 @Repository("mongoGraphRepository")
 public class MongoGraphRepository implements GraphRepository {
 
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+
     private final MongoNodeRepository nodes;
     private final MongoEdgeRepository edges;
     private final MongoComponentRepository components;
     private final MongoGraphOperations graphOperations;
+    private final MongoBulkWriter bulkWriter;
 
     public MongoGraphRepository(MongoNodeRepository nodes, MongoEdgeRepository edges,
-            MongoComponentRepository components, MongoGraphOperations graphOperations) {
+            MongoComponentRepository components, MongoGraphOperations graphOperations, MongoBulkWriter bulkWriter) {
         this.nodes = nodes;
         this.edges = edges;
         this.components = components;
         this.graphOperations = graphOperations;
+        this.bulkWriter = bulkWriter;
     }
 
-    public static MongoGraphRepository create(final MongoSession session) {
+    public static MongoGraphRepository create(final MongoSession session, final PayloadCodec codec) {
 
-        final var nodeRepository = new MongoNodeRepository(session.database());
-        final var edgeRepository = new MongoEdgeRepository(session.database(), nodeRepository);
+        final var nodeRepository = new MongoNodeRepository(session.database(), codec);
+        final var edgeRepository = new MongoEdgeRepository(session.database(), nodeRepository, codec);
         final var graphOperations = new MongoGraphOperations(session.database(), nodeRepository, edgeRepository);
         return new MongoGraphRepository(nodeRepository, edgeRepository,
-                new MongoComponentRepository(session.database(), nodeRepository, edgeRepository), graphOperations);
+                new MongoComponentRepository(session.database(), nodeRepository, edgeRepository, codec),
+                graphOperations, new MongoBulkWriter(MongoBulkWriter.DEFAULT_BATCH_SIZE, session.clientSession()));
     }
 
     @Override
@@ -56,4 +71,39 @@ public class MongoGraphRepository implements GraphRepository {
     public ExtendedVersionedRepository<Component> components() {
         return components;
     }
+
+    /**
+     * Groups the writes by collection and sends each group as ordered bulk
+     * batches. Writes to different collections are independent, so only the
+     * order within each collection needs to be kept.
+     */
+    @Override
+    public void writeAll(final List<GraphWrite> writes) {
+        final var nodeWrites = new ArrayList<WriteModel<Document>>();
+        final var edgeWrites = new ArrayList<WriteModel<Document>>();
+        for (final var write : writes) {
+            switch (write.kind()) {
+                case SAVE_NODE -> nodeWrites.add(insertModel(nodes.toDocument((Node) write.element()), write));
+                case EXPIRE_NODE -> nodeWrites.add(expireModel(write));
+                case SAVE_EDGE -> edgeWrites.add(insertModel(edges.toDocument((Edge) write.element()), write));
+                case EXPIRE_EDGE -> edgeWrites.add(expireModel(write));
+            }
+        }
+        bulkWriter.write(nodes.collection(), nodeWrites);
+        bulkWriter.write(edges.collection(), edgeWrites);
+    }
+
+    /**
+     * Creates an insert of a version as an upsert by document ID, so writes
+     * replayed from a journal after a crash are idempotent.
+     */
+    private static WriteModel<Document> insertModel(final Document document, final GraphWrite write) {
+        MongoHelper.addExpiryToDocument(document, Optional.ofNullable(write.expired()));
+        return new ReplaceOneModel<>(Filters.eq("_id", document.get("_id")), document, UPSERT);
+    }
+
+    private static WriteModel<Document> expireModel(final GraphWrite write) {
+        return new UpdateManyModel<>(MongoHelper.activeFilter(write.element().locator().id()),
+                MongoHelper.expireUpdate(write.expired()));
+    }
 }
@@ -9,18 +9,27 @@ package com.erebelo.graphdemo.persistence.mongodb;
 import com.erebelo.graphdemo.common.fp.Io;
 import com.erebelo.graphdemo.common.version.Locator;
 import com.erebelo.graphdemo.common.version.NanoId;
+import com.mongodb.client.model.Filters;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.StreamSupport;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 /**
  * Utility class containing common MongoDB operations for graph persistence.
  */
 final class MongoHelper {
 
+    /**
+     * Maximum number of values in one $in filter.
+     */
+    static final int IN_BATCH_SIZE = 5000;
+
     /**
      * Private constructor for utility class.
      */
@@ -40,13 +49,36 @@ final class MongoHelper {
      * Creates a base document with common fields for versioned entities.
      */
     static Document createBaseDocument(final Locator locator, final String type, final Instant created,
-            final String serializedData) {
+            final Object serializedData) {
 
-        return new Document().append("_id", locator.id().id() + ':' + locator.version()).append("id", locator.id().id())
+        return new Document().append("_id", documentId(locator)).append("id", locator.id().id())
                 .append("versionId", locator.version()).append("type", type).append("created", formatTimestamp(created))
                 .append("data", serializedData);
     }
 
+    /**
+     * Returns the document ID of a version.
+     */
+    static String documentId(final Locator locator) {
+
+        return locator.id().id() + ':' + locator.version();
+    }
+
+    /**
+     * Creates the filters matching the documents of the specified versions, each
+     * an $in over at most IN_BATCH_SIZE document IDs so large result sets stay
+     * well within the BSON document limit.
+     */
+    static List<Bson> locatorsFilters(final Collection<Locator> locators) {
+
+        final var ids = locators.stream().map(MongoHelper::documentId).toList();
+        final var filters = new ArrayList<Bson>();
+        for (var from = 0; from < ids.size(); from += IN_BATCH_SIZE) {
+            filters.add(Filters.in("_id", ids.subList(from, Math.min(from + IN_BATCH_SIZE, ids.size()))));
+        }
+        return filters;
+    }
+
     /**
      * Adds expiry field to a document if expired timestamp is present.
      */
@@ -55,6 +87,22 @@ final class MongoHelper {
         expired.ifPresent(expiredTime -> document.append("expired", formatTimestamp(expiredTime)));
     }
 
+    /**
+     * Creates the filter matching the active version of an ID.
+     */
+    static Bson activeFilter(final NanoId id) {
+
+        return Filters.and(Filters.eq("id", id.id()), Filters.not(Filters.exists("expired")));
+    }
+
+    /**
+     * Creates the update that expires a version at the specified time.
+     */
+    static Bson expireUpdate(final Instant expiredAt) {
+
+        return new Document("$set", new Document("expired", formatTimestamp(expiredAt)));
+    }
+
     /**
      * Extracts common versioned entity fields from a MongoDB document.
      */
@@ -72,10 +120,10 @@ final class MongoHelper {
                 expired = Optional.of(Instant.parse(expiredStr));
             }
 
-            final var json = document.getString("data");
+            final var data = document.get("data");
             final var locator = new Locator(id, versionId);
 
-            return new VersionedDocumentData(locator, type, created, expired, json);
+            return new VersionedDocumentData(locator, type, created, expired, data);
         });
     }
 
@@ -91,6 +139,6 @@ final class MongoHelper {
      * Record containing extracted versioned document data.
      */
     record VersionedDocumentData(Locator locator, String type, Instant created, Optional<Instant> expired,
-            String serializedData) {
+            Object serializedData) {
     }
 }
@@ -20,8 +20,6 @@ import com.erebelo.graphdemo.common.fp.Io;
 import com.erebelo.graphdemo.common.version.Locator;
 import com.erebelo.graphdemo.common.version.NanoId;
 import com.erebelo.graphdemo.model.Node;
-import com.erebelo.graphdemo.model.serde.JsonSerde;
-import com.erebelo.graphdemo.model.serde.Serde;
 import com.erebelo.graphdemo.model.simple.SimpleNode;
 import com.erebelo.graphdemo.model.simple.SimpleType;
 import com.erebelo.graphdemo.persistence.ExtendedVersionedRepository;
@@ -29,35 +27,35 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.StreamSupport;
 import org.bson.Document;
 import org.springframework.stereotype.Repository;
 
 /**
- * MongoDB implementation of NodeRepository using JsonSerde for data
+ * MongoDB implementation of NodeRepository using a PayloadCodec for data
  * serialization.
  */
 @Repository("mongoNodeRepository")
 public class MongoNodeRepository implements ExtendedVersionedRepository<Node> {
 
     private final MongoCollection<Document> collection;
-    private final Serde<String> serde = new JsonSerde();
+    private final PayloadCodec codec;
 
-    public MongoNodeRepository(final MongoDatabase database) {
+    public MongoNodeRepository(final MongoDatabase database, final PayloadCodec codec) {
+        this.codec = codec;
         collection = database.getCollection("nodes");
     }
 
     @Override
     public Node save(final Node node) {
         return Io.withReturn(() -> {
-            final var document = MongoHelper.createBaseDocument(node.locator(), node.type().code(), node.created(),
-                    serde.serialize(node.data()));
-            MongoHelper.addExpiryToDocument(document, node.expired());
-
-            collection.insertOne(document);
+            collection.insertOne(toDocument(node));
             return node;
         });
     }
@@ -102,15 +100,48 @@ public class MongoNodeRepository implements ExtendedVersionedRepository<Node> {
 
     @Override
     public boolean expire(final NanoId elementId, final Instant expiredAt) {
-        final var result = collection.updateMany(and(eq("id", elementId.id()), not(exists("expired"))),
-                new Document("$set", new Document("expired", expiredAt.truncatedTo(ChronoUnit.MILLIS).toString())));
+        final var result = collection.updateMany(MongoHelper.activeFilter(elementId),
+                MongoHelper.expireUpdate(expiredAt));
         return result.getModifiedCount() > 0;
     }
 
+    /**
+     * Creates the document holding a version.
+     */
+    Document toDocument(final Node node) {
+        final var document = MongoHelper.createBaseDocument(node.locator(), node.type().code(), node.created(),
+                codec.encode(node.data()));
+        MongoHelper.addExpiryToDocument(document, node.expired());
+        return document;
+    }
+
+    /**
+     * Returns the collection holding the versions.
+     */
+    MongoCollection<Document> collection() {
+        return collection;
+    }
+
+    /**
+     * Finds the versions with the specified locators in one query per
+     * IN_BATCH_SIZE locators, leaving out any that are not found. Each version is
+     * decoded once, so callers can share the instances.
+     */
+    Map<Locator, Node> findByLocators(final Collection<Locator> locators) {
+        final var found = new HashMap<Locator, Node>();
+        for (final var filter : MongoHelper.locatorsFilters(locators)) {
+            for (final var document : collection.find(filter)) {
+                final var node = documentToNode(document);
+                found.put(node.locator(), node);
+            }
+        }
+        return found;
+    }
+
     private Node documentToNode(final Document document) {
         return Io.withReturn(() -> {
             final var versionedData = MongoHelper.extractVersionedData(document);
-            final var data = serde.deserialize(versionedData.serializedData());
+            final var data = codec.decode(versionedData.serializedData());
             final var type = new SimpleType(versionedData.type());
 
             return new SimpleNode(versionedData.locator(), type, List.of(), data, versionedData.created(),
@@ -48,4 +48,9 @@ public final class MongoSession implements Session {
 
         return database;
     }
+
+    ClientSession clientSession() {
+
+        return clientSession;
+    }
 }
@@ -21,7 +21,7 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 public final class MongoTransactionManager implements PlatformTransactionManager {
 
     private final MongoClient mongoClient;
-    private static final String SESSION_KEY = "mongodb.client.session";
+    static final String SESSION_KEY = "mongodb.client.session";
 
     public MongoTransactionManager(final MongoClient mongoClient) {
 
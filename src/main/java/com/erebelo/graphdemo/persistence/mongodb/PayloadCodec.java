@@ -0,0 +1,124 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence.mongodb;
+
+import com.erebelo.graphdemo.model.Data;
+import com.erebelo.graphdemo.model.serde.JsonSerde;
+import com.erebelo.graphdemo.model.serde.SmileSerde;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.bson.types.Binary;
+
+/**
+ * Encodes the data payload of a document in the format selected for the
+ * deployment: JSON text stored as a BSON string, or Smile stored as BSON
+ * binary, which is smaller and cheaper to encode and decode. Payloads are
+ * decoded by their stored form rather than the selected format, so documents
+ * written in either format stay readable while a deployment migrates between
+ * them. Smile payloads encode the registered types (see TypeDictionary) as
+ * small codes; the list is persisted with the data, so a deployment may only
+ * append to it. Payloads are decoded lazily. This type is thread-safe.
+ */
+public final class PayloadCodec {
+
+    /**
+     * Storage formats of payloads.
+     */
+    public enum Format {
+        JSON, SMILE
+    }
+
+    private final Format format;
+    private final JsonSerde json = new JsonSerde();
+    private final SmileSerde smile;
+
+    public PayloadCodec(final Format format) {
+
+        this(format, List.of());
+    }
+
+    /**
+     * Creates a codec whose Smile payloads also encode the registered types, which
+     * take codes in list order.
+     */
+    public PayloadCodec(final Format format, final List<Class<?>> registered) {
+
+        this.format = format;
+        smile = new SmileSerde(registered);
+    }
+
+    /**
+     * Creates a codec for a format by name, ignoring case.
+     */
+    public static PayloadCodec of(final String format) {
+
+        return of(format, List.of());
+    }
+
+    /**
+     * Creates a codec for a format by name, ignoring case, registering the Smile
+     * types by class name.
+     */
+    public static PayloadCodec of(final String format, final List<String> registered) {
+
+        final Format selected;
+        try {
+            selected = Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown payload format: " + format, e);
+        }
+        final var types = new ArrayList<Class<?>>(registered.size());
+        for (final var name : registered) {
+            if (name.isBlank()) {
+                continue;
+            }
+            try {
+                types.add(Class.forName(name.trim()));
+            } catch (final ClassNotFoundException e) {
+                throw new IllegalArgumentException("Unknown payload type: " + name, e);
+            }
+        }
+        return new PayloadCodec(selected, types);
+    }
+
+    /**
+     * Returns the format payloads are written in.
+     */
+    public Format format() {
+
+        return format;
+    }
+
+    /**
+     * Encodes a payload for storage in a document.
+     */
+    public Object encode(final Data data) {
+
+        return switch (format) {
+            case JSON -> json.serialize(data);
+            case SMILE -> new Binary(smile.serialize(data));
+        };
+    }
+
+    /**
+     * Decodes a stored payload in either format.
+     */
+    public Data decode(final Object stored) {
+
+        if (stored instanceof String text) {
+            return json.deserializeLazily(text);
+        }
+        if (stored instanceof Binary binary) {
+            return smile.deserializeLazily(binary.getData());
+        }
+        if (stored instanceof byte[] bytes) {
+            return smile.deserializeLazily(bytes);
+        }
+        throw new IllegalArgumentException("Unsupported payload: " + ((stored == null) ? null : stored.getClass()));
+    }
+}
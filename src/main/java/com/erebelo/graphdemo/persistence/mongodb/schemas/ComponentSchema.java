@@ -10,6 +10,7 @@ import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.CreateCollectionOptions;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.ValidationOptions;
+import java.util.Arrays;
 import org.bson.Document;
 
 /**
@@ -26,7 +27,7 @@ public final class ComponentSchema {
 
     public static final Document COMPONENT_SCHEMA = new Document("$jsonSchema",
             new Document().append("bsonType", "object")
-                    .append("required", java.util.Arrays.asList("_id", "id", "versionId", "type", "created", "data"))
+                    .append("required", Arrays.asList("_id", "id", "versionId", "type", "created", "data"))
                     .append("properties", new Document()
                             .append("_id",
                                     new Document().append("bsonType", "string").append("description",
@@ -39,7 +40,7 @@ public final class ComponentSchema {
                                             "Version number of the component"))
                             .append("type",
                                     new Document().append("bsonType", "string")
-                                            .append("enum", java.util.Arrays.asList("component"))
+                                            .append("enum", Arrays.asList("component"))
                                             .append("description", "Type must be 'component'"))
                             .append("created",
                                     new Document().append("bsonType", "string")
@@ -50,14 +51,14 @@ public final class ComponentSchema {
                                     .append("pattern", "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d{3})?Z?$")
                                     .append("description", "ISO 8601 timestamp when component expired (optional)"))
                             .append("data",
-                                    new Document().append("bsonType", "string").append("description",
-                                            "Serialized JSON data of the component")))
+                                    new Document().append("bsonType", Arrays.asList("string", "binData"))
+                                            .append("description", "Serialized JSON or Smile data of the component")))
                     .append("additionalProperties", false));
 
     public static final Document ELEMENTS_SCHEMA = new Document("$jsonSchema", new Document()
             .append("bsonType", "object")
             .append("required",
-                    java.util.Arrays.asList("componentId", "componentVersionId", "elementId", "elementVersionId",
+                    Arrays.asList("componentId", "componentVersionId", "elementId", "elementVersionId",
                             "elementType"))
             .append("properties",
                     new Document()
@@ -75,7 +76,7 @@ public final class ComponentSchema {
                                             "Version number of the element"))
                             .append("elementType",
                                     new Document().append("bsonType", "string")
-                                            .append("enum", java.util.Arrays.asList("node", "edge"))
+                                            .append("enum", Arrays.asList("node", "edge"))
                                             .append("description", "Type of element: 'node' or 'edge'")))
             .append("additionalProperties", false));
 
@@ -11,6 +11,7 @@ import com.mongodb.client.model.CreateCollectionOptions;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
 import com.mongodb.client.model.ValidationOptions;
+import java.util.Arrays;
 import org.bson.Document;
 
 /**
@@ -27,7 +28,7 @@ public final class EdgeSchema {
             new Document()
                     .append("bsonType", "object").append(
                             "required",
-                            java.util.Arrays.asList(
+                            Arrays.asList(
                                     "_id", "id", "versionId", "type", "created", "data", "sourceId", "sourceVersionId",
                                     "targetId", "targetVersionId"))
                     .append("properties", new Document()
@@ -54,8 +55,8 @@ public final class EdgeSchema {
                                                     "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d{3})?Z?$")
                                             .append("description", "ISO 8601 timestamp when edge expired (optional)"))
                             .append("data",
-                                    new Document().append("bsonType", "string").append("description",
-                                            "Serialized JSON data of the edge"))
+                                    new Document().append("bsonType", Arrays.asList("string", "binData"))
+                                            .append("description", "Serialized JSON or Smile data of the edge"))
                             .append("sourceId",
                                     new Document().append("bsonType", "string").append("pattern", "^[0-9a-zA-Z_-]{21}$")
                                             .append("description", "NanoId of the source node"))
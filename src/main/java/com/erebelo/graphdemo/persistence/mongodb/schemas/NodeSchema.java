@@ -9,6 +9,7 @@ package com.erebelo.graphdemo.persistence.mongodb.schemas;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.CreateCollectionOptions;
 import com.mongodb.client.model.ValidationOptions;
+import java.util.Arrays;
 import org.bson.Document;
 
 /**
@@ -23,7 +24,7 @@ public final class NodeSchema {
 
     public static final Document SCHEMA = new Document("$jsonSchema",
             new Document().append("bsonType", "object")
-                    .append("required", java.util.Arrays.asList("_id", "id", "versionId", "type", "created", "data"))
+                    .append("required", Arrays.asList("_id", "id", "versionId", "type", "created", "data"))
                     .append("properties", new Document()
                             .append("_id",
                                     new Document().append("bsonType", "string").append("description",
@@ -48,8 +49,8 @@ public final class NodeSchema {
                                                     "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d{3})?Z?$")
                                             .append("description", "ISO 8601 timestamp when node expired (optional)"))
                             .append("data",
-                                    new Document().append("bsonType", "string").append("description",
-                                            "Serialized JSON data of the node")))
+                                    new Document().append("bsonType", Arrays.asList("string", "binData"))
+                                            .append("description", "Serialized JSON or Smile data of the node")))
                     .append("additionalProperties", false));
 
     public static void createCollection(final MongoDatabase database) {
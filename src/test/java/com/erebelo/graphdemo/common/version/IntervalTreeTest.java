@@ -0,0 +1,108 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.common.version;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests point-in-time and range queries over [created, expired) lifetimes.
+ */
+class IntervalTreeTest {
+
+    private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void lifetimesAreHalfOpen() {
+
+        final var tree = new IntervalTree<Item>();
+        final var item = item(10, 20);
+        tree.put(item);
+
+        assertEquals(List.of(), tree.stab(at(9)));
+        assertEquals(List.of(item), tree.stab(at(10)));
+        assertEquals(List.of(item), tree.stab(at(19)));
+        assertEquals(List.of(), tree.stab(at(20)));
+        assertEquals(List.of(), tree.overlapping(at(20), at(30)));
+        assertEquals(List.of(item), tree.overlapping(at(19), at(30)));
+        assertEquals(List.of(), tree.overlapping(at(0), at(10)));
+    }
+
+    @Test
+    void replacesItemWithSameLocator() {
+
+        final var tree = new IntervalTree<Item>();
+        final var locator = Locator.generate();
+        tree.put(new Item(locator, at(0), Optional.empty()));
+        final var expired = new Item(locator, at(0), Optional.of(at(5)));
+        tree.put(expired);
+
+        assertEquals(1, tree.size());
+        assertEquals(List.of(), tree.stab(at(7)));
+        assertEquals(List.of(expired), tree.stab(at(3)));
+    }
+
+    @Test
+    void matchesLinearScan() {
+
+        final var random = new Random(7);
+        final var tree = new IntervalTree<Item>();
+        final var items = new ArrayList<Item>();
+        for (var i = 0; i < 500; i++) {
+            final var start = random.nextInt(1000);
+            final var item = random.nextInt(4) == 0 ? new Item(Locator.generate(), at(start), Optional.empty())
+                    : item(start, start + 1 + random.nextInt(100));
+            items.add(item);
+            tree.put(item);
+        }
+        for (var i = 0; i < 200; i++) {
+            final var from = random.nextInt(1100);
+            final var to = from + random.nextInt(50);
+            assertEquals(expected(items, from, from + 1), new HashSet<>(tree.stab(at(from))));
+            assertEquals(expected(items, from, to), new HashSet<>(tree.overlapping(at(from), at(to))));
+        }
+    }
+
+    /**
+     * Items whose lifetime overlaps [from, to) in seconds.
+     */
+    private static Set<Item> expected(final List<Item> items, final int from, final int to) {
+
+        final var found = new HashSet<Item>();
+        for (final var item : items) {
+            final var end = item.expired().orElse(Instant.MAX);
+            if (item.created().isBefore(at(to)) && end.isAfter(at(from))) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    private static Item item(final int created, final int expired) {
+
+        return new Item(Locator.generate(), at(created), Optional.of(at(expired)));
+    }
+
+    private static Instant at(final int seconds) {
+
+        return EPOCH.plusSeconds(seconds);
+    }
+
+    /**
+     * Minimal versioned item.
+     */
+    record Item(Locator locator, Instant created, Optional<Instant> expired) implements Versioned {
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.common.version;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.common.version.IntervalTreeTest.Item;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests active, historical and point-in-time lookups of versions by ID.
+ */
+class VersionIndexTest {
+
+    private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final VersionIndex<Item> index = new VersionIndex<>();
+
+    @Test
+    void findsVersionActiveAtTimestamp() {
+
+        final var id = NanoId.generate();
+        final var first = expire(id, 1, 0, 10);
+        final var second = expire(id, 2, 10, 20);
+        final var third = new Item(new Locator(id, 3), at(20), Optional.empty());
+        index.put(third);
+
+        assertTrue(index.findAt(id, at(-1)).isEmpty());
+        assertEquals(first, index.findAt(id, at(5)).orElseThrow());
+        assertEquals(second, index.findAt(id, at(10)).orElseThrow());
+        assertEquals(third, index.findAt(id, at(25)).orElseThrow());
+        assertEquals(third, index.findActive(id).orElseThrow());
+        assertEquals(List.of(first, second, third), index.findAllVersions(id));
+        assertEquals(List.of(second), index.allAt(at(15)));
+    }
+
+    @Test
+    void expiringActiveVersionMovesItToHistory() {
+
+        final var id = NanoId.generate();
+        final var locator = new Locator(id, 1);
+        index.put(new Item(locator, at(0), Optional.empty()));
+        final var other = new Item(Locator.generate(), at(0), Optional.empty());
+        index.put(other);
+        final var expired = new Item(locator, at(0), Optional.of(at(5)));
+        index.put(expired);
+
+        assertTrue(index.findActive(id).isEmpty());
+        assertEquals(List.of(other), index.allActive());
+        assertEquals(List.of(expired), index.findAllVersions(id));
+        assertEquals(expired, index.findAt(id, at(3)).orElseThrow());
+        assertTrue(index.findAt(id, at(5)).isEmpty());
+    }
+
+    @Test
+    void keepsHistoryInVersionOrder() {
+
+        final var id = NanoId.generate();
+        final var third = expire(id, 3, 20, 30);
+        final var first = expire(id, 1, 0, 10);
+        final var second = expire(id, 2, 10, 20);
+
+        assertEquals(List.of(first, second, third), index.findAllVersions(id));
+    }
+
+    @Test
+    void unknownIdsFindNothing() {
+
+        final var id = NanoId.generate();
+
+        assertTrue(index.findActive(id).isEmpty());
+        assertTrue(index.findAt(id, at(0)).isEmpty());
+        assertTrue(index.findAllVersions(id).isEmpty());
+        assertTrue(index.allActive().isEmpty());
+    }
+
+    private Item expire(final NanoId id, final int version, final int created, final int expired) {
+
+        final var item = new Item(new Locator(id, version), at(created), Optional.of(at(expired)));
+        index.put(item);
+        return item;
+    }
+
+    private static Instant at(final int seconds) {
+
+        return EPOCH.plusSeconds(seconds);
+    }
+}
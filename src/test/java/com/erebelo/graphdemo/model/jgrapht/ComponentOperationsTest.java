@@ -0,0 +1,129 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Component;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Element;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests component membership and the active version and history of each
+ * component.
+ */
+class ComponentOperationsTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final ComponentOperations componentOperations = new ComponentOperations(
+            new GraphOperations(new DefaultListenableGraph<>(new DefaultDirectedGraph<>(null, null, false))));
+
+    @Test
+    void findsComponentsContainingAnyVersionOfElement() {
+
+        final var a = node(Locator.generate());
+        final var b = node(Locator.generate());
+        final var edge = edge(a, b);
+        final var both = component(List.of(a, b, edge));
+        final var single = component(List.of(b));
+        final var newer = node(a.locator().increment());
+
+        assertEquals(List.of(both), componentOperations.findComponentsContaining(a.locator().id()));
+        assertEquals(List.of(both), componentOperations.findComponentsContaining(newer));
+        assertEquals(List.of(both), componentOperations.findComponentsContaining(edge));
+        assertEquals(Set.of(both, single), Set.copyOf(componentOperations.findComponentsContaining(b)));
+        assertEquals(List.of(), componentOperations.findComponentsContaining(Locator.generate().id()));
+    }
+
+    @Test
+    void membershipFollowsUpdatesAndExpiry() {
+
+        final var a = node(Locator.generate());
+        final var b = node(Locator.generate());
+        final var both = component(List.of(a, b, edge(a, b)));
+        final var single = component(List.of(b));
+
+        final var updated = componentOperations.update(both.locator().id(), List.of(a),
+                new SimpleData(String.class, "a"), NOW.plusSeconds(1));
+        componentOperations.expire(single.locator().id(), NOW.plusSeconds(2));
+
+        assertEquals(List.of(updated), componentOperations.findComponentsContaining(a));
+        assertEquals(List.of(), componentOperations.findComponentsContaining(b));
+    }
+
+    @Test
+    void keepsActiveVersionAndOrderedHistory() {
+
+        final var a = node(Locator.generate());
+        final var first = component(List.of(a));
+        final var id = first.locator().id();
+        var latest = first;
+        for (var i = 1; i <= 5; i++) {
+            latest = componentOperations.update(id, List.of(a), new SimpleData(String.class, "v" + i),
+                    NOW.plusSeconds(i));
+        }
+
+        assertEquals(Optional.of(latest), componentOperations.findActive(id));
+        assertEquals(6, latest.locator().version());
+        final var versions = componentOperations.findAllVersions(id);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), versions.stream().map(version -> version.locator().version()).toList());
+        for (var i = 0; i < 5; i++) {
+            assertEquals(Optional.of(NOW.plusSeconds(i + 1)), versions.get(i).expired());
+        }
+        assertEquals(3, componentOperations.findAt(id, NOW.plusMillis(2500)).orElseThrow().locator().version());
+        assertEquals(6, componentOperations.findAt(id, NOW.plusSeconds(60)).orElseThrow().locator().version());
+        assertEquals(Optional.empty(), componentOperations.findAt(id, NOW.minusSeconds(1)));
+        assertEquals(List.of(latest), componentOperations.allActive());
+        assertEquals(List.of(versions.get(2)), componentOperations.allAt(NOW.plusMillis(2500)));
+    }
+
+    @Test
+    void expireClearsActiveVersion() {
+
+        final var component = component(List.of(node(Locator.generate())));
+        final var id = component.locator().id();
+
+        final var expired = componentOperations.expire(id, NOW.plusSeconds(1));
+
+        assertEquals(Optional.empty(), componentOperations.findActive(id));
+        assertEquals(List.of(), componentOperations.allActive());
+        assertEquals(List.of(expired), componentOperations.findAllVersions(id));
+        assertEquals(Optional.of(expired), componentOperations.findAt(id, NOW));
+        assertThrows(IllegalArgumentException.class, () -> componentOperations.expire(id, NOW.plusSeconds(2)));
+    }
+
+    private Component component(final List<Element> elements) {
+
+        return componentOperations.add(elements, new SimpleData(String.class, "component"), NOW);
+    }
+
+    private static Node node(final Locator locator) {
+
+        return new SimpleNode(locator, new ArrayList<>(), new SimpleData(String.class, "node"), NOW, Optional.empty());
+    }
+
+    private static Edge edge(final Node source, final Node target) {
+
+        return new SimpleEdge(Locator.generate(), source, target, new SimpleData(String.class, "edge"), NOW,
+                Optional.empty());
+    }
+}
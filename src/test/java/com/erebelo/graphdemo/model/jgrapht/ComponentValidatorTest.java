@@ -0,0 +1,158 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Element;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the connectivity, cycle and containment checks on components.
+ */
+class ComponentValidatorTest {
+
+    private final List<Element> elements = new ArrayList<>();
+
+    @Test
+    void acceptsConnectedAcyclicComponent() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        final var d = node();
+        edge(a, b);
+        edge(a, c);
+        edge(b, d);
+        edge(c, d);
+
+        assertDoesNotThrow(() -> ComponentValidator.validate(elements));
+    }
+
+    @Test
+    void acceptsSingleNode() {
+
+        node();
+
+        assertDoesNotThrow(() -> ComponentValidator.validate(elements));
+    }
+
+    @Test
+    void rejectsEmptyComponent() {
+
+        assertEquals("Component must contain at least one element", reject());
+    }
+
+    @Test
+    void rejectsComponentWithoutNodes() {
+
+        final var a = new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "a"),
+                Instant.EPOCH, Optional.empty());
+        elements.add(new SimpleEdge(Locator.generate(), a, a, new SimpleData(String.class, "edge"), Instant.EPOCH,
+                Optional.empty()));
+
+        assertEquals("Component must contain at least one node", reject());
+    }
+
+    @Test
+    void rejectsDisconnectedNodes() {
+
+        final var a = node();
+        final var b = node();
+        node();
+        edge(a, b);
+
+        assertEquals("All elements in a component must be connected", reject());
+    }
+
+    @Test
+    void rejectsDirectedCycle() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        edge(a, b);
+        edge(b, c);
+        edge(c, a);
+
+        assertEquals("Components cannot contain cycles", reject());
+    }
+
+    @Test
+    void rejectsSelfLoop() {
+
+        final var a = node();
+        edge(a, a);
+
+        assertEquals("Components cannot contain cycles", reject());
+    }
+
+    @Test
+    void rejectsEdgeLeavingComponent() {
+
+        final var a = node();
+        final var b = node();
+        edge(a, b);
+        final var outside = new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "x"),
+                Instant.EPOCH, Optional.empty());
+        edge(b, outside);
+
+        assertEquals("All edges in a component must connect nodes within the component", reject());
+    }
+
+    @Test
+    void handlesLongChainsIteratively() {
+
+        var previous = node();
+        final var first = previous;
+        for (var i = 0; i < 100_000; i++) {
+            final var next = node();
+            edge(previous, next);
+            previous = next;
+        }
+
+        assertDoesNotThrow(() -> ComponentValidator.validate(elements));
+
+        edge(previous, first);
+
+        assertEquals("Components cannot contain cycles", reject());
+    }
+
+    private String reject() {
+
+        return assertThrows(IllegalArgumentException.class, () -> ComponentValidator.validate(elements))
+                .getMessage();
+    }
+
+    private Node node() {
+
+        final var node = new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"),
+                Instant.EPOCH, Optional.empty());
+        elements.add(node);
+        return node;
+    }
+
+    private Edge edge(final Node source, final Node target) {
+
+        final var edge = new SimpleEdge(Locator.generate(), source, target, new SimpleData(String.class, "edge"),
+                Instant.EPOCH, Optional.empty());
+        elements.add(edge);
+        return edge;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests incremental weakly connected components.
+ */
+class ConnectivityTrackerTest {
+
+    private final DefaultListenableGraph<Node, Edge> graph =
+            new DefaultListenableGraph<>(new DefaultDirectedGraph<>(null, null, false));
+    private final GraphOperations graphOperations = new GraphOperations(graph);
+    private final ConnectivityTracker tracker = new ConnectivityTracker(graph, graphOperations);
+
+    @Test
+    void connectsAcrossEdgeDirection() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        edge(a, b);
+        edge(c, b);
+
+        assertTrue(tracker.connected(a.locator().id(), c.locator().id()));
+    }
+
+    @Test
+    void splitsWhenLastEdgeBetweenNodesIsRemoved() {
+
+        final var a = node();
+        final var b = node();
+        final var first = edge(a, b);
+        final var second = edge(b, a);
+
+        graph.removeEdge(first);
+        assertTrue(tracker.connected(a.locator().id(), b.locator().id()));
+        graph.removeEdge(second);
+        assertFalse(tracker.connected(a.locator().id(), b.locator().id()));
+    }
+
+    @Test
+    void staysConnectedWhenEdgeIsReplaced() {
+
+        final var a = node();
+        final var b = node();
+        final var edge = edge(a, b);
+
+        graph.removeEdge(edge);
+        edge(a, b);
+
+        assertTrue(tracker.connected(a.locator().id(), b.locator().id()));
+    }
+
+    @Test
+    void groupsInOrderOfFirstNode() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        final var d = node();
+        edge(a, c);
+        edge(b, d);
+        final var lone = node();
+
+        assertEquals(List.of(List.of(a, c), List.of(b, d), List.of(lone)),
+                tracker.groups(List.of(a, b, c, d, lone)));
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+
+        final var nodes = new ArrayList<Node>();
+        nodes.add(node());
+        for (var i = 1; i < 100; i++) {
+            nodes.add(node());
+            edge(nodes.get(i - 1), nodes.get(i));
+        }
+
+        assertTrue(tracker.connected(nodes.get(0).locator().id(), nodes.get(99).locator().id()));
+        assertEquals(1, tracker.groups(nodes).size());
+    }
+
+    @Test
+    void rebuildsFromPublishedRoot() throws Exception {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        edge(a, b);
+        graph.removeEdge(edge(b, c));
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var writer = Executors.newSingleThreadExecutor();
+        try {
+            final var written = writer.submit(() -> graphOperations.write(List.of(b.locator().id()), () -> {
+                edge(b, c);
+                started.countDown();
+                await(release);
+                return null;
+            }));
+            started.await();
+
+            // The removal above forces a rebuild, which must not see the open write
+            assertTrue(tracker.connected(a.locator().id(), b.locator().id()));
+            assertFalse(tracker.connected(b.locator().id(), c.locator().id()));
+            release.countDown();
+            written.get();
+        } finally {
+            writer.shutdownNow();
+        }
+
+        assertTrue(tracker.connected(a.locator().id(), c.locator().id()));
+    }
+
+    private static void await(final CountDownLatch latch) {
+
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Node node() {
+
+        final var node = new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"),
+                Instant.EPOCH, Optional.empty());
+        graph.addVertex(node);
+        return node;
+    }
+
+    private Edge edge(final Node source, final Node target) {
+
+        final var edge = new SimpleEdge(Locator.generate(), source, target, new SimpleData(String.class, "edge"),
+                Instant.EPOCH, Optional.empty());
+        graph.addEdge(source, target, edge);
+        return edge;
+    }
+}
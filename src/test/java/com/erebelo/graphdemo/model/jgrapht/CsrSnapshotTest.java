@@ -0,0 +1,129 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the compressed sparse row form of a graph root.
+ */
+class CsrSnapshotTest {
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<Edge> edges = new ArrayList<>();
+
+    @Test
+    void indexesEveryNodeById() {
+
+        final var a = node();
+        final var b = node();
+        edge(a, b);
+        final var snapshot = CsrSnapshot.of(nodes, edges);
+
+        assertEquals(2, snapshot.nodeCount());
+        assertEquals(1, snapshot.edgeCount());
+        assertSame(a, snapshot.node(snapshot.indexOf(a.locator().id())));
+        assertSame(b, snapshot.node(snapshot.indexOf(b.locator().id())));
+        assertEquals(-1, snapshot.indexOf(NanoId.generate()));
+    }
+
+    @Test
+    void holdsAdjacencyInBothDirections() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        final var ab = edge(a, b);
+        final var ac = edge(a, c);
+        final var cb = edge(c, b);
+        final var snapshot = CsrSnapshot.of(nodes, edges);
+
+        assertEquals(Set.of(ab, ac), outgoing(snapshot, a));
+        assertEquals(Set.of(), outgoing(snapshot, b));
+        assertEquals(Set.of(cb), outgoing(snapshot, c));
+        assertEquals(Set.of(), incoming(snapshot, a));
+        assertEquals(Set.of(ab, cb), incoming(snapshot, b));
+        assertEquals(Set.of(ac), incoming(snapshot, c));
+    }
+
+    @Test
+    void buildsOnceForEachRoot() {
+
+        final var a = node();
+        final var b = node();
+        final var root = GraphSnapshot.of(nodes, edges);
+        final var next = root.withEdge(edge(a, b));
+
+        assertSame(root.csr(), root.csr());
+        assertEquals(0, root.csr().edgeCount());
+        assertEquals(1, next.csr().edgeCount());
+    }
+
+    /**
+     * Returns the outgoing edges of a node, checking each slot's target against the
+     * edge.
+     */
+    private static Set<Edge> outgoing(final CsrSnapshot snapshot, final Node node) {
+
+        final var index = snapshot.indexOf(node.locator().id());
+        final var found = new HashSet<Edge>();
+        for (var slot = snapshot.outStart(index); slot < snapshot.outEnd(index); slot++) {
+            final var edge = snapshot.edge(snapshot.outEdge(slot));
+            assertSame(edge.target(), snapshot.node(snapshot.outTarget(slot)));
+            found.add(edge);
+        }
+        return found;
+    }
+
+    /**
+     * Returns the incoming edges of a node, checking each slot's source against the
+     * edge.
+     */
+    private static Set<Edge> incoming(final CsrSnapshot snapshot, final Node node) {
+
+        final var index = snapshot.indexOf(node.locator().id());
+        final var found = new HashSet<Edge>();
+        for (var slot = snapshot.inStart(index); slot < snapshot.inEnd(index); slot++) {
+            final var edge = snapshot.edge(snapshot.inEdge(slot));
+            assertSame(edge.source(), snapshot.node(snapshot.inSource(slot)));
+            found.add(edge);
+        }
+        return found;
+    }
+
+    private Node node() {
+
+        final var node = new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"),
+                Instant.EPOCH, Optional.empty());
+        nodes.add(node);
+        return node;
+    }
+
+    private Edge edge(final Node source, final Node target) {
+
+        final var edge = new SimpleEdge(Locator.generate(), source, target, new SimpleData(String.class, "edge"),
+                Instant.EPOCH, Optional.empty());
+        edges.add(edge);
+        return edge;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import java.time.Instant;
+import java.util.List;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests adding edges between the active versions of their endpoints and
+ * expiring them out of the graph.
+ */
+class EdgeOperationsTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final DefaultListenableGraph<Node, Edge> graph =
+            new DefaultListenableGraph<>(new DefaultDirectedGraph<>(null, null, false));
+    private final GraphOperations graphOperations = new GraphOperations(graph);
+    private final EdgeOperations edgeOperations = new EdgeOperations(graph, graphOperations);
+    private final NodeOperations nodeOperations = new NodeOperations(graph, edgeOperations, graphOperations);
+
+    @Test
+    void attachesToCurrentVersionOfStaleEndpoint() {
+
+        final var stale = nodeOperations.add(new SimpleData(String.class, "a"), NOW);
+        final var target = nodeOperations.add(new SimpleData(String.class, "b"), NOW);
+        final var current = nodeOperations.update(stale.locator().id(), new SimpleData(String.class, "a2"),
+                NOW.plusSeconds(1));
+
+        final var edge = edgeOperations.add(stale, target, new SimpleData(String.class, "edge"), NOW.plusSeconds(2));
+
+        assertEquals(current.locator(), edge.source().locator());
+        assertTrue(graph.containsEdge(edge));
+        assertEquals(1, graphOperations.snapshot().edgesFrom(current.locator().id()).size());
+    }
+
+    @Test
+    void rejectsExpiredEndpoint() {
+
+        final var source = nodeOperations.add(new SimpleData(String.class, "a"), NOW);
+        final var target = nodeOperations.add(new SimpleData(String.class, "b"), NOW);
+        nodeOperations.expire(target.locator().id(), NOW.plusSeconds(1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> edgeOperations.add(source, target, new SimpleData(String.class, "edge"), NOW.plusSeconds(2)));
+    }
+
+    @Test
+    void expireMovesEdgeToHistory() {
+
+        final var source = nodeOperations.add(new SimpleData(String.class, "a"), NOW);
+        final var target = nodeOperations.add(new SimpleData(String.class, "b"), NOW);
+        final var edge = edgeOperations.add(source, target, new SimpleData(String.class, "edge"), NOW);
+
+        final var expired = edgeOperations.expire(edge.locator().id(), NOW.plusSeconds(1));
+
+        assertFalse(graph.containsEdge(edge));
+        assertTrue(graph.edgeSet().isEmpty());
+        assertTrue(edgeOperations.findActive(edge.locator().id()).isEmpty());
+        assertEquals(edge.locator(), edgeOperations.findAt(edge.locator().id(), NOW).orElseThrow().locator());
+        assertEquals(List.of(expired), edgeOperations.findAllVersions(edge.locator().id()));
+        assertEquals(List.of(), edgeOperations.getEdgesFrom(source));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.jgrapht.graph.concurrent.AsSynchronizedGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that readers see immutable, consistent snapshots while writers run.
+ */
+class GraphOperationsTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    /**
+     * Synchronized like the application's graph, since writers of unrelated
+     * stripes mutate it in parallel.
+     */
+    private final DefaultListenableGraph<Node, Edge> graph =
+            new DefaultListenableGraph<>(new AsSynchronizedGraph<>(new DefaultDirectedGraph<>(null, null, false)));
+    private final GraphOperations graphOperations = new GraphOperations(graph);
+    private final EdgeOperations edgeOperations = new EdgeOperations(graph, graphOperations);
+    private final NodeOperations nodeOperations = new NodeOperations(graph, edgeOperations, graphOperations);
+
+    @Test
+    void snapshotIsUnaffectedByLaterWrites() {
+
+        final var a = node("a");
+        final var b = node("b");
+        final var edge = edgeOperations.add(a, b, new SimpleData(String.class, "edge"), NOW);
+        final var snapshot = graphOperations.snapshot();
+
+        nodeOperations.update(a.locator().id(), new SimpleData(String.class, "a2"), NOW.plusSeconds(1));
+        nodeOperations.expire(b.locator().id(), NOW.plusSeconds(2));
+        node("c");
+
+        assertEquals(Set.of(a, b), Set.copyOf(snapshot.nodes()));
+        assertEquals(List.of(edge), snapshot.edges());
+        assertEquals(List.of(edge), snapshot.edgesFrom(a.locator().id()));
+        assertEquals(Optional.of(b), snapshot.findNode(b.locator().id()));
+        assertEquals(2, graphOperations.snapshot().nodes().size());
+        assertTrue(graphOperations.snapshot().findNode(b.locator().id()).isEmpty());
+    }
+
+    @Test
+    void readersDoNotSeeWriteInProgress() throws Exception {
+
+        final var entered = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newSingleThreadExecutor();
+        try {
+            final var writer = executor.submit(() -> graphOperations.write(List.of(NanoId.generate()), () -> {
+                final var node = node("pending");
+                entered.countDown();
+                await(release);
+                return node;
+            }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            assertTrue(graphOperations.snapshot().nodes().isEmpty());
+            release.countDown();
+            final var written = writer.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(written), graphOperations.snapshot().nodes());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void readersSeeConsistentRootsUnderConcurrentWriters() throws Exception {
+
+        final var writers = 4;
+        final var executor = Executors.newFixedThreadPool(writers + 2);
+        final var done = new AtomicBoolean();
+        try {
+            final var written = new ArrayList<Future<?>>();
+            for (var w = 0; w < writers; w++) {
+                written.add(executor.submit(() -> {
+                    var previous = node("start");
+                    for (var i = 0; i < 100; i++) {
+                        final var next = node("node" + i);
+                        edgeOperations.add(previous, next, new SimpleData(String.class, "edge"), NOW);
+                        previous = nodeOperations.update(next.locator().id(), new SimpleData(String.class, "next"),
+                                NOW.plusSeconds(1));
+                    }
+                }));
+            }
+            final var readers = new ArrayList<Future<Integer>>();
+            for (var r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    var checked = 0;
+                    while (!done.get() || (checked == 0)) {
+                        assertConsistent(graphOperations.snapshot());
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            for (final var writer : written) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            for (final var reader : readers) {
+                assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+
+        final var root = graphOperations.snapshot();
+        assertEquals(writers * 101, root.nodes().size());
+        assertEquals(writers * 100, root.edges().size());
+        assertConsistent(root);
+    }
+
+    /**
+     * Checks that every edge of a root connects the active versions of its
+     * endpoints held by that same root.
+     */
+    private static void assertConsistent(final GraphSnapshot root) {
+
+        for (final var edge : root.edges()) {
+            assertEquals(Optional.of(edge.source()), root.findNode(edge.source().locator().id()));
+            assertEquals(Optional.of(edge.target()), root.findNode(edge.target().locator().id()));
+            assertTrue(root.edgesFrom(edge.source().locator().id()).contains(edge));
+            assertTrue(root.edgesTo(edge.target().locator().id()).contains(edge));
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Node node(final String value) {
+
+        return nodeOperations.add(new SimpleData(String.class, value), NOW);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import java.time.Instant;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests point-in-time views of the graph within and across cached buckets.
+ */
+class HistoricalGraphsTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final DefaultListenableGraph<Node, Edge> graph =
+            new DefaultListenableGraph<>(new DefaultDirectedGraph<>(null, null, false));
+    private final GraphOperations graphOperations = new GraphOperations(graph);
+    private final EdgeOperations edgeOperations = new EdgeOperations(graph, graphOperations);
+    private final NodeOperations nodeOperations = new NodeOperations(graph, edgeOperations, graphOperations);
+    private final HistoricalGraphs historicalGraphs =
+            new HistoricalGraphs(graph, graphOperations, nodeOperations, edgeOperations);
+
+    @Test
+    void filtersAtExactInstantWithinBucket() {
+
+        final var source = nodeOperations.add(new SimpleData(String.class, "a"), NOW);
+        final var target = nodeOperations.add(new SimpleData(String.class, "b"), NOW.plusMillis(500));
+        edgeOperations.add(source, target, new SimpleData(String.class, "edge"), NOW.plusMillis(500));
+        final var sourceId = source.locator().id();
+        final var targetId = target.locator().id();
+
+        final var before = historicalGraphs.snapshotAt(NOW.plusMillis(100));
+        assertTrue(before.findNode(targetId).isEmpty());
+        assertEquals(1, before.nodeCount());
+        assertFalse(before.edgesOut(sourceId).hasNext());
+
+        final var after = historicalGraphs.snapshotAt(NOW.plusMillis(600));
+        assertTrue(after.findNode(targetId).isPresent());
+        assertEquals(Reachability.Result.REACHABLE, Reachability.search(after, sourceId, targetId));
+    }
+
+    @Test
+    void graphMasksVersionsNotAliveAtInstant() {
+
+        final var source = nodeOperations.add(new SimpleData(String.class, "a"), NOW);
+        final var target = nodeOperations.add(new SimpleData(String.class, "b"), NOW);
+        edgeOperations.add(source, target, new SimpleData(String.class, "edge"), NOW);
+        nodeOperations.expire(target.locator().id(), NOW.plusMillis(400));
+
+        final var during = historicalGraphs.graphAt(NOW.plusMillis(200));
+        assertEquals(2, during.vertexSet().size());
+        assertEquals(1, during.edgeSet().size());
+
+        final var later = historicalGraphs.graphAt(NOW.plusMillis(800));
+        assertEquals(1, later.vertexSet().size());
+        assertTrue(later.edgeSet().isEmpty());
+    }
+
+    @Test
+    void resolvesVersionAliveAtInstant() {
+
+        final var first = nodeOperations.add(new SimpleData(String.class, "a"), NOW);
+        final var second = nodeOperations.update(first.locator().id(), new SimpleData(String.class, "a2"),
+                NOW.plusMillis(300));
+        final var id = first.locator().id();
+
+        assertEquals(first.locator(), historicalGraphs.snapshotAt(NOW.plusMillis(200)).findNode(id).orElseThrow()
+                .locator());
+        assertEquals(second.locator(), historicalGraphs.snapshotAt(NOW.plusMillis(400)).findNode(id).orElseThrow()
+                .locator());
+    }
+
+    @Test
+    void invalidatesCachedBucketOnChange() {
+
+        final var timestamp = NOW.plusMillis(2700);
+        assertEquals(0, historicalGraphs.snapshotAt(timestamp).nodeCount());
+
+        final var node = nodeOperations.add(new SimpleData(String.class, "a"), NOW.plusMillis(2500));
+
+        assertTrue(historicalGraphs.snapshotAt(timestamp).findNode(node.locator().id()).isPresent());
+        assertEquals(1, historicalGraphs.graphAt(timestamp).vertexSet().size());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphListener;
+import org.jgrapht.event.GraphVertexChangeEvent;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that node updates touch only the node and its connected edges, and
+ * that the graph keeps only active versions.
+ */
+class NodeOperationsTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final DefaultListenableGraph<Node, Edge> graph =
+            new DefaultListenableGraph<>(new DefaultDirectedGraph<>(null, null, false));
+    private final GraphOperations graphOperations = new GraphOperations(graph);
+    private final EdgeOperations edgeOperations = new EdgeOperations(graph, graphOperations);
+    private final NodeOperations nodeOperations = new NodeOperations(graph, edgeOperations, graphOperations);
+
+    @Test
+    void updateEmitsEventsProportionalToDegree() {
+
+        final var hub = node("hub");
+        final var outgoing = List.of(edge(hub, node("a")), edge(hub, node("b")), edge(hub, node("c")));
+        final var incoming = List.of(edge(node("d"), hub), edge(node("e"), hub));
+        final var previous = node("f");
+        for (var i = 0; i < 50; i++) {
+            final var next = node("g" + i);
+            edge(previous, next);
+        }
+        final var events = new ArrayList<String>();
+        graph.addGraphListener(new GraphListener<>() {
+
+            @Override
+            public void edgeAdded(final GraphEdgeChangeEvent<Node, Edge> event) {
+                events.add("edgeAdded");
+            }
+
+            @Override
+            public void edgeRemoved(final GraphEdgeChangeEvent<Node, Edge> event) {
+                events.add("edgeRemoved");
+            }
+
+            @Override
+            public void vertexAdded(final GraphVertexChangeEvent<Node> event) {
+                events.add("vertexAdded");
+            }
+
+            @Override
+            public void vertexRemoved(final GraphVertexChangeEvent<Node> event) {
+                events.add("vertexRemoved");
+            }
+        });
+
+        nodeOperations.update(hub.locator().id(), new SimpleData(String.class, "hub2"), NOW.plusSeconds(1));
+
+        // One removal and one addition for the node and for each of its 5 edges
+        assertEquals(12, events.size());
+        assertEquals(5, events.stream().filter("edgeRemoved"::equals).count());
+        assertEquals(5, events.stream().filter("edgeAdded"::equals).count());
+    }
+
+    @Test
+    void updateReconnectsEdgesAndKeepsHistory() {
+
+        final var hub = node("hub");
+        final var target = node("a");
+        final var source = node("b");
+        final var out = edge(hub, target);
+        final var in = edge(source, hub);
+        final var later = NOW.plusSeconds(1);
+
+        final var updated = nodeOperations.update(hub.locator().id(), new SimpleData(String.class, "hub2"), later);
+
+        final var snapshot = graphOperations.snapshot();
+        final var newOut = List.copyOf(snapshot.edgesFrom(hub.locator().id()));
+        final var newIn = List.copyOf(snapshot.edgesTo(hub.locator().id()));
+        assertEquals(1, newOut.size());
+        assertEquals(1, newIn.size());
+        assertEquals(updated.locator(), newOut.get(0).source().locator());
+        assertEquals(target.locator(), newOut.get(0).target().locator());
+        assertEquals(source.locator(), newIn.get(0).source().locator());
+        assertEquals(updated.locator(), newIn.get(0).target().locator());
+        assertFalse(newOut.get(0).locator().id().equals(out.locator().id()));
+        assertEquals(out.data(), newOut.get(0).data());
+        assertEquals(later, newOut.get(0).created());
+
+        final var versions = nodeOperations.findAllVersions(hub.locator().id());
+        assertEquals(List.of(hub.locator(), updated.locator()), versions.stream().map(Node::locator).toList());
+        assertEquals(Optional.of(later), versions.get(0).expired());
+        for (final var edge : List.of(out, in)) {
+            final var history = edgeOperations.findAllVersions(edge.locator().id());
+            assertEquals(1, history.size());
+            assertEquals(Optional.of(later), history.get(0).expired());
+            assertTrue(List.of(history.get(0).source(), history.get(0).target()).contains(versions.get(0)));
+        }
+        assertEquals(out.locator(), edgeOperations.findAt(out.locator().id(), NOW).orElseThrow().locator());
+    }
+
+    @Test
+    void graphHoldsOnlyActiveVersions() {
+
+        final var a = node("a");
+        final var b = node("b");
+        final var c = node("c");
+        edge(a, b);
+        edge(b, c);
+
+        final var updated = nodeOperations.update(a.locator().id(), new SimpleData(String.class, "a2"),
+                NOW.plusSeconds(1));
+        nodeOperations.expire(c.locator().id(), NOW.plusSeconds(2));
+
+        assertEquals(Set.of(updated, b), graph.vertexSet());
+        assertEquals(Set.copyOf(edgeOperations.allActive()), graph.edgeSet());
+        assertEquals(1, graph.edgeSet().size());
+        assertEquals(List.of(b), nodeOperations.getNeighbors(updated));
+        assertEquals(List.of(updated), nodeOperations.getNeighbors(b));
+        // Expired versions are still found through the version history
+        assertEquals(a.locator(), nodeOperations.findAt(a.locator().id(), NOW).orElseThrow().locator());
+        assertEquals(c.locator(), nodeOperations.findAt(c.locator().id(), NOW).orElseThrow().locator());
+        assertTrue(nodeOperations.findActive(c.locator().id()).isEmpty());
+        assertEquals(2, nodeOperations.findAllVersions(a.locator().id()).size());
+    }
+
+    private Node node(final String value) {
+
+        return nodeOperations.add(new SimpleData(String.class, value), NOW);
+    }
+
+    private Edge edge(final Node source, final Node target) {
+
+        return edgeOperations.add(source, target, new SimpleData(String.class, "edge"), NOW);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.Path;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests lazy enumeration of simple paths over the persistent snapshot
+ * adjacency.
+ */
+class PathEnumeratorTest {
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<Edge> edges = new ArrayList<>();
+
+    @Test
+    void enumeratesSimplePathsAndSkipsCycles() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        final var d = node();
+        final var ab = edge(a, b);
+        final var ac = edge(a, c);
+        final var bd = edge(b, d);
+        final var cd = edge(c, d);
+        final var bc = edge(b, c);
+        edge(c, a);
+
+        assertEquals(Set.of(List.of(ab, bd), List.of(ac, cd), List.of(ab, bc, cd)), paths(a, d, 10, 100));
+    }
+
+    @Test
+    void respectsLengthAndResultLimits() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        final var ab = edge(a, b);
+        final var bc = edge(b, c);
+        final var ac = edge(a, c);
+
+        assertEquals(Set.of(List.of(ac)), paths(a, c, 1, 100));
+        assertEquals(Set.of(List.of(ab, bc), List.of(ac)), paths(a, c, 2, 100));
+        assertEquals(1, paths(a, c, 2, 1).size());
+        assertEquals(Set.of(), paths(c, a, 10, 100));
+    }
+
+    @Test
+    void pathToSelfIsTheNodeAlone() {
+
+        final var a = node();
+        edge(a, node());
+
+        final var found = PathEnumerator.stream(snapshot(), a, a, 5, 10, null).toList();
+
+        assertEquals(List.of(new Path(List.of(a))), found);
+    }
+
+    @Test
+    void matchesExhaustiveSearch() {
+
+        final var random = new Random(11);
+        for (var i = 0; i < 8; i++) {
+            node();
+        }
+        for (var i = 0; i < 20; i++) {
+            final var source = nodes.get(random.nextInt(nodes.size()));
+            final var target = nodes.get(random.nextInt(nodes.size()));
+            if (source != target) {
+                edge(source, target);
+            }
+        }
+        for (final var source : nodes) {
+            for (final var target : nodes) {
+                if (source == target) {
+                    continue;
+                }
+                for (var maxLength = 1; maxLength <= 4; maxLength++) {
+                    final var expected = new HashSet<List<Edge>>();
+                    exhaustive(source, target, maxLength, new ArrayList<>(), new HashSet<>(Set.of(source)), expected);
+                    assertEquals(expected, paths(source, target, maxLength, Long.MAX_VALUE));
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects every simple path by plain depth-first search.
+     */
+    private void exhaustive(final Node current, final Node target, final int maxLength, final List<Edge> path,
+            final Set<Node> visited, final Set<List<Edge>> found) {
+
+        if (path.size() == maxLength) {
+            return;
+        }
+        for (final var edge : edges) {
+            if ((edge.source() != current) || visited.contains(edge.target())) {
+                continue;
+            }
+            path.add(edge);
+            if (edge.target() == target) {
+                found.add(List.copyOf(path));
+            } else {
+                visited.add(edge.target());
+                exhaustive(edge.target(), target, maxLength, path, visited, found);
+                visited.remove(edge.target());
+            }
+            path.remove(path.size() - 1);
+        }
+    }
+
+    /**
+     * Enumerates paths and returns the edges of each.
+     */
+    private Set<List<Edge>> paths(final Node source, final Node target, final int maxLength, final long maxResults) {
+
+        return PathEnumerator.stream(snapshot(), source, target, maxLength, maxResults, null)
+                .map(path -> path.elements().stream().filter(Edge.class::isInstance).map(Edge.class::cast).toList())
+                .collect(Collectors.toSet());
+    }
+
+    private GraphSnapshot snapshot() {
+
+        return GraphSnapshot.of(nodes, edges);
+    }
+
+    private Node node() {
+
+        final var node = new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"),
+                Instant.EPOCH, Optional.empty());
+        nodes.add(node);
+        return node;
+    }
+
+    private Edge edge(final Node source, final Node target) {
+
+        final var edge = new SimpleEdge(Locator.generate(), source, target, new SimpleData(String.class, "edge"),
+                Instant.EPOCH, Optional.empty());
+        edges.add(edge);
+        return edge;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the parallel report of the nodes each node can reach.
+ */
+class ReachabilityReportTest {
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<Edge> edges = new ArrayList<>();
+
+    @Test
+    void reportsReachableNodesOfEverySource() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        final var d = node();
+        edge(a, b);
+        edge(b, c);
+        edge(c, b);
+
+        final var reported = report(2);
+
+        assertEquals(4, reported.size());
+        assertEquals(Set.of(b, c), reported.get(a));
+        // Nodes on a cycle reach themselves
+        assertEquals(Set.of(b, c), reported.get(b));
+        assertEquals(Set.of(b, c), reported.get(c));
+        assertEquals(Set.of(), reported.get(d));
+    }
+
+    @Test
+    void splitsLargeSnapshotsAcrossWorkers() {
+
+        final var count = 500;
+        for (var i = 0; i < count; i++) {
+            node();
+        }
+        for (var i = 1; i < count; i++) {
+            edge(nodes.get(i - 1), nodes.get(i));
+        }
+
+        final var reported = report(4);
+
+        assertEquals(count, reported.size());
+        for (var i = 0; i < count; i++) {
+            assertEquals(Set.copyOf(nodes.subList(i + 1, count)), reported.get(nodes.get(i)));
+        }
+    }
+
+    @Test
+    void rejectsReportsOnceShutDown() {
+
+        final var graph = new DefaultListenableGraph<Node, Edge>(new DefaultDirectedGraph<>(null, null, false));
+        final var pathOperations = new PathOperations(new GraphOperations(graph));
+        final var a = node();
+        final var b = node();
+        edge(a, b);
+        final var root = GraphSnapshot.of(nodes, edges);
+        final var reported = new ConcurrentHashMap<Node, List<Node>>();
+        pathOperations.reachableSets(root, reported::put);
+        assertEquals(Map.of(a, List.of(b), b, List.of()), reported);
+
+        pathOperations.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> pathOperations.reachableSets(root, (node, reached) -> {
+        }));
+    }
+
+    /**
+     * Runs the report on a pool of the specified size, checking each node is
+     * reported exactly once.
+     */
+    private Map<Node, Set<Node>> report(final int parallelism) {
+
+        final var pool = new ForkJoinPool(parallelism);
+        try {
+            final var reported = new ConcurrentHashMap<Node, Set<Node>>();
+            ReachabilityReport.run(CsrSnapshot.of(nodes, edges), pool,
+                    (node, reached) -> assertNull(reported.put(node, Set.copyOf(reached))));
+            return reported;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Node node() {
+
+        final var node = new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"),
+                Instant.EPOCH, Optional.empty());
+        nodes.add(node);
+        return node;
+    }
+
+    private Edge edge(final Node source, final Node target) {
+
+        final var edge = new SimpleEdge(Locator.generate(), source, target, new SimpleData(String.class, "edge"),
+                Instant.EPOCH, Optional.empty());
+        edges.add(edge);
+        return edge;
+    }
+}
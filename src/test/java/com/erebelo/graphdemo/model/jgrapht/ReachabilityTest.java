@@ -0,0 +1,120 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests reachability and shortest paths over the persistent snapshot
+ * adjacency.
+ */
+class ReachabilityTest {
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<Edge> edges = new ArrayList<>();
+
+    @Test
+    void followsEdgeDirection() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        edge(a, b);
+        edge(b, c);
+        final var snapshot = snapshot();
+
+        assertEquals(Reachability.Result.REACHABLE, Reachability.search(snapshot, id(a), id(c)));
+        assertEquals(Reachability.Result.UNREACHABLE, Reachability.search(snapshot, id(c), id(a)));
+    }
+
+    @Test
+    void stopsAtDepthLimit() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        final var d = node();
+        edge(a, b);
+        edge(b, c);
+        edge(c, d);
+        final var snapshot = snapshot();
+
+        assertEquals(Reachability.Result.LIMIT_REACHED, Reachability.search(snapshot, id(a), id(d), 2, null));
+        assertEquals(Reachability.Result.REACHABLE, Reachability.search(snapshot, id(a), id(d), 3, null));
+    }
+
+    @Test
+    void findsPathWithFewestEdges() {
+
+        final var a = node();
+        final var b = node();
+        final var c = node();
+        final var d = node();
+        edge(a, b);
+        edge(b, c);
+        edge(c, d);
+        final var shortcut = edge(a, c);
+        final var last = edges.get(2);
+        final var snapshot = snapshot();
+
+        assertEquals(List.of(shortcut, last), Reachability.shortestPath(snapshot, id(a), id(d)));
+        assertEquals(List.of(), Reachability.shortestPath(snapshot, id(a), id(a)));
+        assertNull(Reachability.shortestPath(snapshot, id(d), id(a)));
+    }
+
+    @Test
+    void seesOnlyTheEdgesOfItsRoot() {
+
+        final var a = node();
+        final var b = node();
+        final var before = snapshot();
+        final var after = before.withEdge(edge(a, b));
+
+        assertEquals(Reachability.Result.UNREACHABLE, Reachability.search(before, id(a), id(b)));
+        assertEquals(Reachability.Result.REACHABLE, Reachability.search(after, id(a), id(b)));
+    }
+
+    private GraphSnapshot snapshot() {
+
+        return GraphSnapshot.of(nodes, edges);
+    }
+
+    private Node node() {
+
+        final var node = new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"),
+                Instant.EPOCH, Optional.empty());
+        nodes.add(node);
+        return node;
+    }
+
+    private Edge edge(final Node source, final Node target) {
+
+        final var edge = new SimpleEdge(Locator.generate(), source, target, new SimpleData(String.class, "edge"),
+                Instant.EPOCH, Optional.empty());
+        edges.add(edge);
+        return edge;
+    }
+
+    private static NanoId id(final Node node) {
+
+        return node.locator().id();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.Path;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests weighted shortest paths with landmarks kept across graph changes.
+ */
+class WeightedPathEngineTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final DefaultListenableGraph<Node, Edge> graph =
+            new DefaultListenableGraph<>(new DefaultDirectedGraph<>(null, null, false));
+    private final GraphOperations graphOperations = new GraphOperations(graph);
+    private final EdgeOperations edgeOperations = new EdgeOperations(graph, graphOperations);
+    private final NodeOperations nodeOperations = new NodeOperations(graph, edgeOperations, graphOperations);
+    private final WeightedPathEngine engine =
+            new WeightedPathEngine(graph, graphOperations, WeightedPathEngine::dataWeight, 4);
+
+    /**
+     * Plain Dijkstra over the same graph, used as the reference.
+     */
+    private final WeightedPathEngine reference =
+            new WeightedPathEngine(graph, graphOperations, WeightedPathEngine::dataWeight, 0);
+
+    @Test
+    void prefersLowerWeightOverFewerEdges() {
+
+        final var a = node("a");
+        final var b = node("b");
+        final var c = node("c");
+        edge(a, b, 10.0);
+        edge(a, c, 1.0);
+        edge(c, b, 1.0);
+        engine.rebuild();
+
+        final var path = engine.shortestPath(a.locator().id(), b.locator().id());
+
+        assertEquals(5, path.elements().size());
+        assertEquals(c.locator(), path.elements().get(2).locator());
+        assertEquals(2.0, weight(path));
+    }
+
+    @Test
+    void foldsInEdgesAddedAfterRebuild() {
+
+        final var a = node("a");
+        final var b = node("b");
+        final var c = node("c");
+        edge(a, b, 1.0);
+        edge(b, c, 1.0);
+        engine.rebuild();
+        final var d = node("d");
+        edge(a, d, 0.5);
+        edge(d, c, 0.5);
+
+        assertEquals(1.0, weight(engine.shortestPath(a.locator().id(), c.locator().id())));
+    }
+
+    @Test
+    void returnsEmptyPathWhenUnreachable() {
+
+        final var a = node("a");
+        final var b = node("b");
+        edge(b, a, 1.0);
+        engine.rebuild();
+
+        assertTrue(engine.shortestPath(a.locator().id(), b.locator().id()).elements().isEmpty());
+    }
+
+    @Test
+    void matchesDijkstraAcrossChanges() {
+
+        final var random = new Random(42);
+        final var nodes = new ArrayList<Node>();
+        for (var i = 0; i < 40; i++) {
+            nodes.add(node("n" + i));
+        }
+        final var edges = new ArrayList<Edge>();
+        for (var round = 0; round < 6; round++) {
+            for (var i = 0; i < 30; i++) {
+                final var source = nodes.get(random.nextInt(nodes.size()));
+                final var target = nodes.get(random.nextInt(nodes.size()));
+                if (!source.locator().id().equals(target.locator().id())) {
+                    edges.add(edge(source, target, 1 + random.nextInt(20)));
+                }
+            }
+            if (round == 1) {
+                engine.rebuild();
+            }
+            // Remove some edges and change the weight of others, both ways
+            for (var i = 0; i < 5; i++) {
+                final var edge = edges.remove(random.nextInt(edges.size()));
+                if (random.nextBoolean()) {
+                    edgeOperations.expire(edge.locator().id(), NOW);
+                } else {
+                    edges.add(edgeOperations.update(edge.locator().id(),
+                            new SimpleData(Double.class, (double) (1 + random.nextInt(20))), NOW));
+                }
+            }
+            for (var i = 0; i < 40; i++) {
+                final var source = nodes.get(random.nextInt(nodes.size())).locator().id();
+                final var target = nodes.get(random.nextInt(nodes.size())).locator().id();
+                assertEquals(weight(reference.shortestPath(source, target)),
+                        weight(engine.shortestPath(source, target)));
+            }
+        }
+    }
+
+    private Node node(final String name) {
+
+        return nodeOperations.add(new SimpleData(String.class, name), NOW);
+    }
+
+    private Edge edge(final Node source, final Node target, final double weight) {
+
+        return edgeOperations.add(source, target, new SimpleData(Double.class, weight), NOW);
+    }
+
+    private static double weight(final Path path) {
+
+        final List<Double> weights = path.elements().stream().filter(Edge.class::isInstance)
+                .map(element -> WeightedPathEngine.dataWeight((Edge) element)).toList();
+        return path.elements().isEmpty() ? -1.0 : weights.stream().mapToDouble(Double::doubleValue).sum();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.serde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Data;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that lazy data follows the Data equality contract.
+ */
+class LazyDataTest {
+
+    private static final JsonSerde JSON = new JsonSerde();
+    private static final SmileSerde SMILE = new SmileSerde();
+
+    @Test
+    void equalsSimpleDataWithSameValue() {
+
+        final var simple = new SimpleData(String.class, "hello");
+        final var lazy = JSON.deserializeLazily(JSON.serialize(simple));
+
+        assertEquals(simple, lazy);
+        assertEquals(lazy, simple);
+        assertEquals(simple.hashCode(), lazy.hashCode());
+    }
+
+    @Test
+    void ignoresFieldOrderAndFormat() {
+
+        final var value = new LinkedHashMap<String, Object>(Map.of("name", "a", "size", 1));
+        final var simple = new SimpleData(LinkedHashMap.class, value);
+        final var reordered = JSON.deserializeLazily("{\"_value\":{\"size\":1,\"name\":\"a\"},\"_type\":\""
+                + LinkedHashMap.class.getName() + "\"}");
+        final var smile = SMILE.deserializeLazily(SMILE.serialize(simple));
+
+        assertEquals(JSON.deserializeLazily(JSON.serialize(simple)), reordered);
+        assertEquals(reordered, smile);
+        assertEquals(simple.hashCode(), reordered.hashCode());
+        assertEquals(simple.hashCode(), smile.hashCode());
+    }
+
+    @Test
+    void differsOnValueOrClass() {
+
+        final var lazy = JSON.deserializeLazily(JSON.serialize(new SimpleData(String.class, "hello")));
+
+        assertNotEquals(new SimpleData(String.class, "goodbye"), lazy);
+        assertNotEquals(lazy, new SimpleData(Object.class, "hello"));
+    }
+
+    @Test
+    void identicalFormsAreEqualWithoutDecoding() {
+
+        final var json = JSON.serialize(new SimpleData(String.class, "hello"));
+        final var first = new LazyData<>(json, JSON);
+        final var second = new LazyData<>(json, JSON);
+
+        assertEquals(first, second);
+        assertFalse(first.decoded());
+        assertFalse(second.decoded());
+    }
+
+    @Test
+    void hashesWithoutDecoding() {
+
+        final var simple = new SimpleData(String.class, "hello");
+        final var json = new LazyData<>(JSON.serialize(simple), JSON);
+        final var smile = new LazyData<>(SMILE.serialize(simple), SMILE);
+
+        assertEquals(simple.hashCode(), json.hashCode());
+        assertEquals(simple.hashCode(), smile.hashCode());
+        assertEquals(String.class, json.javaClass());
+        assertFalse(json.decoded());
+        assertFalse(smile.decoded());
+        assertEquals("hello", json.value());
+        assertTrue(json.decoded());
+    }
+
+    @Test
+    void matchesGraphMembershipOfSavedNode() {
+
+        final var id = NanoId.generate();
+        final var saved = node(id, new SimpleData(String.class, "hello"));
+        final var loaded = node(id, JSON.deserializeLazily(JSON.serialize(saved.data())));
+        final var graph = new DefaultDirectedGraph<Node, Edge>(null, null, false);
+        graph.addVertex(saved);
+
+        assertTrue(graph.containsVertex(loaded));
+    }
+
+    private static Node node(final NanoId id, final Data data) {
+
+        return new SimpleNode(new Locator(id, 1), new ArrayList<>(), data, Instant.EPOCH, Optional.empty());
+    }
+}
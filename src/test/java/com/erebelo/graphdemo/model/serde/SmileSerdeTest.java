@@ -0,0 +1,108 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.model.serde;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that Smile payloads round trip their type and value.
+ */
+class SmileSerdeTest {
+
+    private static final SmileSerde SMILE = new SmileSerde();
+
+    @Test
+    void roundTripsBuiltInTypes() {
+
+        final var values = List.<SimpleData>of(new SimpleData(String.class, "hello"),
+                new SimpleData(Integer.class, 42), new SimpleData(Long.class, 1L << 40),
+                new SimpleData(Double.class, 2.5), new SimpleData(Boolean.class, true),
+                new SimpleData(BigDecimal.class, new BigDecimal("12.345")),
+                new SimpleData(UUID.class, UUID.randomUUID()),
+                new SimpleData(LinkedHashMap.class, new LinkedHashMap<>(Map.of("name", "a", "size", 1))),
+                new SimpleData(ArrayList.class, new ArrayList<>(List.of("x", "y"))));
+
+        for (final var data : values) {
+            final var read = SMILE.deserialize(SMILE.serialize(data));
+            assertEquals(data, read);
+            assertEquals(data.javaClass(), read.javaClass());
+        }
+    }
+
+    @Test
+    void roundTripsBytes() {
+
+        final var bytes = new byte[] {0, 1, 2, (byte) 0xff};
+        final var read = SMILE.deserialize(SMILE.serialize(new SimpleData(byte[].class, bytes)));
+
+        assertSame(byte[].class, read.javaClass());
+        assertArrayEquals(bytes, (byte[]) read.value());
+    }
+
+    @Test
+    void encodesRegisteredTypesByCode() {
+
+        final var data = new SimpleData(Point.class, new Point(1, 2));
+        final var registered = new SmileSerde(List.of(Point.class));
+        final var coded = registered.serialize(data);
+        final var named = SMILE.serialize(data);
+
+        assertFalse(contains(coded, Point.class.getName()));
+        assertTrue(contains(named, Point.class.getName()));
+        assertTrue(coded.length < named.length);
+        assertEquals(data, registered.deserialize(coded));
+        assertEquals(data, registered.deserialize(named));
+        assertEquals(data, new SmileSerde(List.of(Point.class, String.class)).deserialize(coded));
+        assertThrows(RuntimeException.class, () -> SMILE.deserialize(coded));
+    }
+
+    @Test
+    void writesLazyPayloadBackUnchanged() {
+
+        final var serialized = SMILE.serialize(new SimpleData(String.class, "hello"));
+
+        assertSame(serialized, SMILE.serialize(SMILE.deserializeLazily(serialized)));
+    }
+
+    @Test
+    void rejectsPayloadWithoutType() throws Exception {
+
+        final var mapper = new SmileMapper();
+        final var object = mapper.writeValueAsBytes(Map.of("value", 1));
+        final var untyped = mapper.writeValueAsBytes(List.of(true));
+
+        assertThrows(RuntimeException.class, () -> SMILE.deserialize(object));
+        assertThrows(RuntimeException.class, () -> SMILE.deserialize(untyped));
+    }
+
+    private static boolean contains(final byte[] payload, final String text) {
+
+        return new String(payload, StandardCharsets.ISO_8859_1).contains(text);
+    }
+
+    /**
+     * Application type registered with the dictionary.
+     */
+    record Point(int x, int y) {
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jgrapht.event.GraphVertexChangeEvent;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that each flush sends only the writes queued by its own thread.
+ */
+class DelegatedGraphListenerRepositoryTest {
+
+    private final RecordingGraphRepository delegate = new RecordingGraphRepository();
+    private final DelegatedGraphListenerRepository repository = new DelegatedGraphListenerRepository(delegate,
+            new GraphOperations(new DefaultListenableGraph<>(new DefaultDirectedGraph<>(null, null, false))));
+    private final ExecutorService first = Executors.newSingleThreadExecutor();
+    private final ExecutorService second = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+
+        first.shutdownNow();
+        second.shutdownNow();
+    }
+
+    @Test
+    void flushSendsOnlyItsOwnThreadsWrites() throws Exception {
+
+        final var a = node();
+        final var b = node();
+        first.submit(() -> added(a)).get();
+        second.submit(() -> {
+            added(b);
+            repository.flush();
+        }).get();
+
+        assertEquals(List.of(List.of(GraphWrite.saveNode(b))), delegate.batches());
+
+        first.submit(repository::flush).get();
+
+        assertEquals(List.of(List.of(GraphWrite.saveNode(b)), List.of(GraphWrite.saveNode(a))), delegate.batches());
+    }
+
+    @Test
+    void flushWithNothingQueuedWritesNothing() throws Exception {
+
+        first.submit(() -> added(node())).get();
+        repository.flush();
+
+        assertEquals(List.of(), delegate.batches());
+    }
+
+    private void added(final Node node) {
+
+        repository.vertexAdded(new GraphVertexChangeEvent<>(this, GraphVertexChangeEvent.VERTEX_ADDED, node));
+    }
+
+    private static Node node() {
+
+        return new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"),
+                Instant.EPOCH, Optional.empty());
+    }
+}
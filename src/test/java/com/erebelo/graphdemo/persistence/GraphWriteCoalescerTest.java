@@ -0,0 +1,108 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import com.erebelo.graphdemo.model.simple.SimpleType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests folding a log of graph writes into its net writes.
+ */
+class GraphWriteCoalescerTest {
+
+    private static final Instant EXPIRED = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void expireThenSaveOfStoredVersionCancelsBoth() {
+
+        final var node = node(1);
+
+        final var net = GraphWriteCoalescer.coalesce(List.of(GraphWrite.expireNode(node, EXPIRED),
+                GraphWrite.saveNode(node)));
+
+        assertTrue(net.isEmpty());
+    }
+
+    @Test
+    void saveThenExpireSavesExpiredVersion() {
+
+        final var node = node(1);
+
+        final var net = GraphWriteCoalescer.coalesce(List.of(GraphWrite.saveNode(node),
+                GraphWrite.expireNode(node, EXPIRED)));
+
+        assertEquals(List.of(new GraphWrite(GraphWrite.Kind.SAVE_NODE, node, EXPIRED)), net);
+    }
+
+    @Test
+    void keepsLastExpireOfStoredVersion() {
+
+        final var node = node(1);
+        final var later = EXPIRED.plusSeconds(1);
+
+        final var net = GraphWriteCoalescer.coalesce(List.of(GraphWrite.expireNode(node, EXPIRED),
+                GraphWrite.expireNode(node, later)));
+
+        assertEquals(List.of(GraphWrite.expireNode(node, later)), net);
+    }
+
+    @Test
+    void ordersByFirstWritePerVersion() {
+
+        final var first = node(1);
+        final var second = node(1);
+        final var edge = edge(first, second);
+
+        final var net = GraphWriteCoalescer.coalesce(List.of(GraphWrite.saveNode(first), GraphWrite.saveNode(second),
+                GraphWrite.saveEdge(edge), GraphWrite.saveNode(first), GraphWrite.expireNode(second, EXPIRED)));
+
+        assertEquals(3, net.size());
+        assertSame(first, net.get(0).element());
+        assertSame(second, net.get(1).element());
+        assertEquals(EXPIRED, net.get(1).expired());
+        assertSame(edge, net.get(2).element());
+    }
+
+    @Test
+    void keepsNodeAndEdgeWithSameLocatorApart() {
+
+        final var node = node(1);
+        final var edge = new SimpleEdge(node.locator(), new SimpleType("edge"), node, node,
+                new SimpleData(String.class, "edge"), Instant.EPOCH, Optional.empty(), new HashSet<>());
+
+        final var net = GraphWriteCoalescer.coalesce(List.of(GraphWrite.saveNode(node), GraphWrite.saveEdge(edge)));
+
+        assertEquals(2, net.size());
+    }
+
+    private static Node node(final int version) {
+
+        return new SimpleNode(new Locator(NanoId.generate(), version), new ArrayList<>(),
+                new SimpleData(String.class, "node"), Instant.EPOCH, Optional.empty());
+    }
+
+    private static SimpleEdge edge(final Node source, final Node target) {
+
+        return new SimpleEdge(new Locator(NanoId.generate(), 1), new SimpleType("edge"), source, target,
+                new SimpleData(String.class, "edge"), Instant.EPOCH, Optional.empty(), new HashSet<>());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence;
+
+import com.erebelo.graphdemo.model.Component;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Repository that only records the writes applied through it, and the batches
+ * they were applied in. Writes can be held back to simulate a slow store.
+ */
+final class RecordingGraphRepository implements GraphRepository {
+
+    private final List<List<GraphWrite>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final List<GraphWrite> writes = Collections.synchronizedList(new ArrayList<>());
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    List<GraphWrite> writes() {
+
+        return writes;
+    }
+
+    List<List<GraphWrite>> batches() {
+
+        return batches;
+    }
+
+    /**
+     * Blocks the writes that follow until release() is called.
+     */
+    void hold() {
+
+        gate = new CountDownLatch(1);
+    }
+
+    void release() {
+
+        gate.countDown();
+    }
+
+    @Override
+    public ExtendedVersionedRepository<Node> nodes() {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ExtendedVersionedRepository<Edge> edges() {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ExtendedVersionedRepository<Component> components() {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void writeAll(final List<GraphWrite> batch) {
+
+        try {
+            gate.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        batches.add(List.copyOf(batch));
+        writes.addAll(batch);
+    }
+}
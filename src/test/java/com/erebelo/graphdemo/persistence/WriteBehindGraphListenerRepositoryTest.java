@@ -0,0 +1,138 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.common.version.NanoId;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import org.jgrapht.event.GraphVertexChangeEvent;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests persisting graph events behind the caller through a local journal.
+ */
+class WriteBehindGraphListenerRepositoryTest {
+
+    private static final Duration AWAIT_TIMEOUT = Duration.ofSeconds(2);
+
+    @TempDir
+    private Path directory;
+
+    private final RecordingGraphRepository delegate = new RecordingGraphRepository();
+    private final GraphOperations graphOperations =
+            new GraphOperations(new DefaultListenableGraph<>(new DefaultDirectedGraph<>(null, null, false)));
+
+    @Test
+    void awaitPersistedSeesFlushedWrites() {
+
+        final var repository = repository();
+        repository.start();
+        try {
+            final var node = node();
+            repository.vertexAdded(new GraphVertexChangeEvent<>(this, GraphVertexChangeEvent.VERTEX_ADDED, node));
+            repository.flush();
+            repository.awaitPersisted();
+
+            assertEquals(List.of(GraphWrite.saveNode(node)), delegate.writes());
+            assertEquals(0, repository.backlog());
+        } finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void appliesJournaledWritesAfterRestart() {
+
+        final var node = node();
+        final var stopped = repository();
+        stopped.vertexAdded(new GraphVertexChangeEvent<>(this, GraphVertexChangeEvent.VERTEX_ADDED, node));
+        stopped.flush();
+        stopped.close();
+        assertTrue(delegate.writes().isEmpty());
+
+        final var restarted = repository();
+        restarted.start();
+        try {
+            restarted.awaitPersisted();
+
+            assertEquals(1, delegate.writes().size());
+            assertEquals(node.locator(), delegate.writes().get(0).element().locator());
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void awaitPersistedOnlyWaitsForOwnWrites() throws Exception {
+
+        final var repository = repository();
+        repository.start();
+        final var writer = Executors.newSingleThreadExecutor();
+        try {
+            final var own = node();
+            added(repository, own);
+            repository.flush();
+            repository.awaitPersisted();
+            delegate.hold();
+            final var other = node();
+            writer.submit(() -> {
+                added(repository, other);
+                repository.flush();
+            }).get();
+
+            // The other thread's write is held back, but this thread has none
+            // outstanding
+            repository.awaitPersisted();
+            final var thrown = assertThrows(ExecutionException.class, writer.submit(repository::awaitPersisted)::get);
+            assertInstanceOf(IllegalStateException.class, thrown.getCause());
+            delegate.release();
+            writer.submit(repository::awaitPersisted).get();
+
+            assertEquals(List.of(GraphWrite.saveNode(own), GraphWrite.saveNode(other)), delegate.writes());
+        } finally {
+            delegate.release();
+            writer.shutdownNow();
+            repository.close();
+        }
+    }
+
+    private void added(final WriteBehindGraphListenerRepository repository, final Node node) {
+
+        repository.vertexAdded(new GraphVertexChangeEvent<>(this, GraphVertexChangeEvent.VERTEX_ADDED, node));
+    }
+
+    private WriteBehindGraphListenerRepository repository() {
+
+        return new WriteBehindGraphListenerRepository(delegate, graphOperations,
+                new WriteJournal(directory.resolve("journal")), 16, 4, AWAIT_TIMEOUT);
+    }
+
+    private static Node node() {
+
+        return new SimpleNode(new Locator(NanoId.generate(), 1), new ArrayList<>(),
+                new SimpleData(String.class, "node"), Instant.EPOCH, Optional.empty());
+    }
+}
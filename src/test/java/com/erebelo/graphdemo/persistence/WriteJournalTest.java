@@ -0,0 +1,175 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests appending, recovering, truncating and compacting the local write
+ * journal.
+ */
+class WriteJournalTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void recoversWritesInOrder() {
+
+        final var source = node();
+        final var target = node();
+        final var edge = new SimpleEdge(Locator.generate(), source, target, new SimpleData(String.class, "edge"),
+                NOW, Optional.empty());
+        final var writes = List.of(GraphWrite.saveNode(source), GraphWrite.saveEdge(edge),
+                GraphWrite.expireNode(target, NOW.plusSeconds(1)));
+        try (var journal = journal()) {
+            journal.append(writes);
+        }
+
+        try (var journal = journal()) {
+            final var recovered = journal.recover();
+
+            assertEquals(3, recovered.size());
+            for (var i = 0; i < writes.size(); i++) {
+                assertEquals(writes.get(i).kind(), recovered.get(i).kind());
+                assertEquals(writes.get(i).expired(), recovered.get(i).expired());
+                assertEquals(writes.get(i).element().locator(), recovered.get(i).element().locator());
+                assertEquals(writes.get(i).element().data(), recovered.get(i).element().data());
+            }
+            final var replayed = (SimpleEdge) recovered.get(1).element();
+            assertEquals(source.locator(), replayed.source().locator());
+            assertEquals(target.locator(), replayed.target().locator());
+        }
+    }
+
+    @Test
+    void dropsTornRecordAndAppendsAfterValidOnes() throws IOException {
+
+        final var first = node();
+        try (var journal = journal()) {
+            journal.append(List.of(GraphWrite.saveNode(first)));
+        }
+        final var valid = Files.size(file());
+        // A record whose length prefix promises more bytes than were written
+        Files.write(file(), ByteBuffer.allocate(7).putInt(100).put(new byte[] {1, 2, 3}).array(),
+                StandardOpenOption.APPEND);
+
+        final var second = node();
+        try (var journal = journal()) {
+            final var recovered = journal.recover();
+
+            assertEquals(List.of(first.locator()), locators(recovered));
+            assertEquals(valid, Files.size(file()));
+            journal.append(List.of(GraphWrite.saveNode(second)));
+        }
+
+        try (var journal = journal()) {
+            assertEquals(List.of(first.locator(), second.locator()), locators(journal.recover()));
+        }
+    }
+
+    @Test
+    void dropsTruncatedLengthPrefix() throws IOException {
+
+        final var node = node();
+        try (var journal = journal()) {
+            journal.append(List.of(GraphWrite.saveNode(node)));
+        }
+        Files.write(file(), new byte[] {0, 0}, StandardOpenOption.APPEND);
+
+        try (var journal = journal()) {
+            assertEquals(List.of(node.locator()), locators(journal.recover()));
+        }
+    }
+
+    @Test
+    void truncatesOnceEveryWriteIsPersisted() throws IOException {
+
+        try (var journal = journal()) {
+            journal.append(List.of(GraphWrite.saveNode(node()), GraphWrite.saveNode(node())));
+            journal.append(List.of(GraphWrite.saveNode(node())));
+            journal.persisted(2);
+
+            assertTrue(Files.size(file()) > 0);
+
+            journal.persisted(1);
+
+            assertEquals(0, Files.size(file()));
+        }
+        try (var journal = journal()) {
+            assertTrue(journal.recover().isEmpty());
+        }
+    }
+
+    @Test
+    void compactsPersistedPrefixUnderLoad() throws IOException {
+
+        final var third = node();
+        final var fourth = node();
+        try (var journal = new WriteJournal(file(), 1)) {
+            journal.append(List.of(GraphWrite.saveNode(node())));
+            journal.append(List.of(GraphWrite.saveNode(node())));
+            journal.append(List.of(GraphWrite.saveNode(third)));
+            final var full = Files.size(file());
+
+            // The persisted prefix is smaller than the tail, so it stays
+            journal.persisted(1);
+            assertEquals(full, Files.size(file()));
+
+            journal.persisted(1);
+            assertEquals(full / 3, Files.size(file()));
+            assertEquals(journal.size(), Files.size(file()));
+            assertFalse(Files.exists(directory.resolve("journal.tmp")));
+            journal.append(List.of(GraphWrite.saveNode(fourth)));
+        }
+
+        try (var journal = journal()) {
+            assertEquals(List.of(third.locator(), fourth.locator()), locators(journal.recover()));
+        }
+    }
+
+    private WriteJournal journal() {
+
+        return new WriteJournal(file());
+    }
+
+    private Path file() {
+
+        return directory.resolve("journal");
+    }
+
+    private static List<Locator> locators(final List<GraphWrite> writes) {
+
+        return writes.stream().map(write -> write.element().locator()).toList();
+    }
+
+    private static SimpleNode node() {
+
+        return new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"), NOW,
+                Optional.empty());
+    }
+}
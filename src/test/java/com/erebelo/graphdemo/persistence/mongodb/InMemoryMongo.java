@@ -0,0 +1,284 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence.mongodb;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.WriteModel;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+/**
+ * In-memory stand-in for a MongoDatabase that supports the inserts, bulk
+ * writes and finds the repositories issue. It counts the finds and records the
+ * bulk writes so tests can check how many round trips a load or a flush takes.
+ * Filters are rendered to BSON and evaluated for
+ * equality, $and, $or, $in, $exists, $not and range operators; other calls
+ * throw UnsupportedOperationException.
+ */
+final class InMemoryMongo {
+
+    private final Map<String, List<Document>> collections = new HashMap<>();
+    private final List<Batch> batches = new ArrayList<>();
+    private int queries = 0;
+
+    /**
+     * Returns a database backed by this store.
+     */
+    MongoDatabase database() {
+
+        return proxy(MongoDatabase.class, (method, args) -> {
+            if ("getCollection".equals(method.getName())) {
+                return collection((String) args[0]);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    /**
+     * Returns the number of finds issued since the last reset.
+     */
+    int queries() {
+
+        return queries;
+    }
+
+    void resetQueries() {
+
+        queries = 0;
+    }
+
+    /**
+     * Returns the bulk writes issued so far, in order.
+     */
+    List<Batch> batches() {
+
+        return batches;
+    }
+
+    /**
+     * Creates a client session that only serves to tell sessions apart.
+     */
+    static ClientSession session() {
+
+        return proxy(ClientSession.class, (method, args) -> switch (method.getName()) {
+            case "toString" -> "session";
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    /**
+     * Applies an upserting replace by filter or a $set update to every match.
+     */
+    private static void apply(final List<Document> documents, final WriteModel<Document> model) {
+
+        if (model instanceof ReplaceOneModel<Document> replace) {
+            final var filter = render(replace.getFilter());
+            final var index = matching(documents, filter);
+            if (!index.isEmpty()) {
+                documents.set(index.get(0), replace.getReplacement());
+            } else if (replace.getReplaceOptions().isUpsert()) {
+                documents.add(replace.getReplacement());
+            }
+        } else if (model instanceof UpdateManyModel<Document> update) {
+            final var set = render(update.getUpdate()).getDocument("$set");
+            for (final var index : matching(documents, render(update.getFilter()))) {
+                set.forEach((key, value) -> documents.get(index).put(key, value.asString().getValue()));
+            }
+        } else {
+            throw new UnsupportedOperationException(model.getClass().getSimpleName());
+        }
+    }
+
+    private static List<Integer> matching(final List<Document> documents, final BsonDocument filter) {
+
+        final var found = new ArrayList<Integer>();
+        for (var i = 0; i < documents.size(); i++) {
+            if (matches(filter, render(documents.get(i)))) {
+                found.add(i);
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private MongoCollection<Document> collection(final String name) {
+
+        final var documents = collections.computeIfAbsent(name, key -> new ArrayList<>());
+        return proxy(MongoCollection.class, (method, args) -> switch (method.getName()) {
+            case "insertOne" -> {
+                documents.add((Document) args[0]);
+                yield null;
+            }
+            case "insertMany" -> {
+                documents.addAll((List<Document>) args[0]);
+                yield null;
+            }
+            case "bulkWrite" -> {
+                final var session = (args[0] instanceof ClientSession bound) ? bound : null;
+                final var models = (List<WriteModel<Document>>) args[(session == null) ? 0 : 1];
+                batches.add(new Batch(name, models.size(), session));
+                models.forEach(model -> apply(documents, model));
+                yield null;
+            }
+            case "find" -> {
+                if ((args == null) || (args.length != 1) || !(args[0] instanceof Bson filter)) {
+                    throw new UnsupportedOperationException("find");
+                }
+                queries++;
+                final var rendered = render(filter);
+                yield find(documents.stream().filter(document -> matches(rendered, render(document))).toList());
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FindIterable<Document> find(final List<Document> found) {
+
+        final var results = new ArrayList<>(found);
+        return proxy(FindIterable.class, (method, args) -> switch (method.getName()) {
+            case "sort" -> {
+                results.sort(comparator(render((Bson) args[0])));
+                yield find(results);
+            }
+            case "first" -> results.isEmpty() ? null : results.get(0);
+            case "into" -> {
+                ((Collection<Document>) args[0]).addAll(results);
+                yield args[0];
+            }
+            case "iterator", "cursor" -> cursor(results.iterator());
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static MongoCursor<Document> cursor(final Iterator<Document> iterator) {
+
+        return proxy(MongoCursor.class, (method, args) -> switch (method.getName()) {
+            case "hasNext" -> iterator.hasNext();
+            case "next" -> iterator.next();
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static Comparator<Document> comparator(final BsonDocument sort) {
+
+        Comparator<Document> comparator = (a, b) -> 0;
+        for (final var key : sort.keySet()) {
+            final var direction = sort.getNumber(key).intValue();
+            comparator = comparator
+                    .thenComparing((a, b) -> direction * compare(render(a).get(key), render(b).get(key)));
+        }
+        return comparator;
+    }
+
+    /**
+     * Evaluates a rendered filter against a rendered document.
+     */
+    private static boolean matches(final BsonDocument filter, final BsonDocument document) {
+
+        for (final var key : filter.keySet()) {
+            final var condition = filter.get(key);
+            final boolean matched;
+            if ("$and".equals(key)) {
+                matched = condition.asArray().stream().allMatch(part -> matches(part.asDocument(), document));
+            } else if ("$or".equals(key)) {
+                matched = condition.asArray().stream().anyMatch(part -> matches(part.asDocument(), document));
+            } else if (condition.isDocument() && condition.asDocument().keySet().stream()
+                    .allMatch(operator -> operator.startsWith("$"))) {
+                matched = operators(condition.asDocument(), document.get(key));
+            } else {
+                matched = condition.equals(document.get(key));
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean operators(final BsonDocument operators, final BsonValue value) {
+
+        for (final var operator : operators.keySet()) {
+            final var operand = operators.get(operator);
+            final var matched = switch (operator) {
+                case "$eq" -> operand.equals(value);
+                case "$in" -> operand.asArray().contains(value);
+                case "$exists" -> (value != null) == operand.asBoolean().getValue();
+                case "$not" -> !operators(operand.asDocument(), value);
+                case "$lt" -> (value != null) && (compare(value, operand) < 0);
+                case "$lte" -> (value != null) && (compare(value, operand) <= 0);
+                case "$gt" -> (value != null) && (compare(value, operand) > 0);
+                case "$gte" -> (value != null) && (compare(value, operand) >= 0);
+                default -> throw new UnsupportedOperationException(operator);
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compare(final BsonValue a, final BsonValue b) {
+
+        if (a.isString() && b.isString()) {
+            return a.asString().getValue().compareTo(b.asString().getValue());
+        }
+        return Double.compare(a.asNumber().doubleValue(), b.asNumber().doubleValue());
+    }
+
+    private static BsonDocument render(final Bson bson) {
+
+        return bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<?> type, final Handler handler) {
+
+        return (T) Proxy.newProxyInstance(InMemoryMongo.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (method.isDefault()) {
+                        return InvocationHandler.invokeDefault(proxy, method, args);
+                    }
+                    return handler.invoke(method, args);
+                });
+    }
+
+    /**
+     * Bulk write sent to a collection, and the session it ran in (or null).
+     */
+    record Batch(String collection, int size, ClientSession session) {
+    }
+
+    /**
+     * Handles the non-default methods of a proxied driver interface.
+     */
+    @FunctionalInterface
+    private interface Handler {
+
+        Object invoke(Method method, Object[] args);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence.mongodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Component;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Element;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleComponent;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that components load their elements with a fixed number of queries.
+ */
+class MongoComponentRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final InMemoryMongo mongo = new InMemoryMongo();
+    private final PayloadCodec codec = new PayloadCodec(PayloadCodec.Format.JSON);
+    private final MongoNodeRepository nodes = new MongoNodeRepository(mongo.database(), codec);
+    private final MongoEdgeRepository edges = new MongoEdgeRepository(mongo.database(), nodes, codec);
+    private final MongoComponentRepository components =
+            new MongoComponentRepository(mongo.database(), nodes, edges, codec);
+
+    @Test
+    void loadsElementsInFourQueries() {
+
+        final var elements = chain(50);
+        final var component = component(Locator.generate(), elements);
+        mongo.resetQueries();
+
+        final var loaded = components.find(component.locator()).orElseThrow();
+
+        assertEquals(4, mongo.queries());
+        assertEquals(locators(elements), locators(loaded.elements()));
+        assertEquals(component.data(), loaded.data());
+        // Edge endpoints are the same instances as the node elements
+        final var loadedNodes = new HashMap<Locator, Node>();
+        loaded.elements().stream().filter(Node.class::isInstance).map(Node.class::cast)
+                .forEach(node -> loadedNodes.put(node.locator(), node));
+        for (final var element : loaded.elements()) {
+            if (element instanceof Edge edge) {
+                assertSame(loadedNodes.get(edge.source().locator()), edge.source());
+                assertSame(loadedNodes.get(edge.target().locator()), edge.target());
+            }
+        }
+    }
+
+    @Test
+    void loadsEveryVersionWithTheSameQueries() {
+
+        final var first = chain(3);
+        final var second = chain(5);
+        final var locator = Locator.generate();
+        component(locator, first);
+        component(locator.increment(), second);
+        mongo.resetQueries();
+
+        final var loaded = components.findAll(locator.id());
+
+        assertEquals(4, mongo.queries());
+        assertEquals(List.of(locator, locator.increment()), loaded.stream().map(Component::locator).toList());
+        assertEquals(locators(first), locators(loaded.get(0).elements()));
+        assertEquals(locators(second), locators(loaded.get(1).elements()));
+    }
+
+    @Test
+    void loadsNodeOnlyComponent() {
+
+        final var node = node();
+        final var component = component(Locator.generate(), List.of(node));
+        mongo.resetQueries();
+
+        final var loaded = components.find(component.locator()).orElseThrow();
+
+        assertEquals(List.of(node.locator()), loaded.elements().stream().map(Element::locator).toList());
+        assertEquals(3, mongo.queries());
+    }
+
+    /**
+     * Saves a chain of nodes joined by edges and returns its elements.
+     */
+    private List<Element> chain(final int length) {
+
+        final var elements = new ArrayList<Element>();
+        var previous = node();
+        elements.add(previous);
+        for (var i = 1; i < length; i++) {
+            final var next = node();
+            final var edge = edges.save(new SimpleEdge(Locator.generate(), previous, next,
+                    new SimpleData(String.class, "edge"), NOW, Optional.empty()));
+            elements.add(next);
+            elements.add(edge);
+            previous = next;
+        }
+        return elements;
+    }
+
+    private SimpleComponent component(final Locator locator, final List<Element> elements) {
+
+        final var component = new SimpleComponent(locator, elements, new SimpleData(String.class, "component"), NOW,
+                Optional.empty());
+        components.save(component);
+        return component;
+    }
+
+    private Node node() {
+
+        return nodes.save(new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"),
+                NOW, Optional.empty()));
+    }
+
+    private static Set<Locator> locators(final List<Element> elements) {
+
+        return elements.stream().map(Element::locator).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence.mongodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests decoding edge result sets with batched endpoint resolution.
+ */
+class MongoEdgeRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final InMemoryMongo mongo = new InMemoryMongo();
+    private final PayloadCodec codec = new PayloadCodec(PayloadCodec.Format.JSON);
+    private final MongoNodeRepository nodes = new MongoNodeRepository(mongo.database(), codec);
+    private final MongoEdgeRepository edges = new MongoEdgeRepository(mongo.database(), nodes, codec);
+
+    @Test
+    void resolvesEndpointsOfResultSetTogether() {
+
+        final var hub = node();
+        final var saved = new ArrayList<Edge>();
+        final var documents = new ArrayList<Document>();
+        for (var i = 0; i < 20; i++) {
+            final var edge = edge(hub, node());
+            saved.add(edge);
+            documents.add(edges.toDocument(edge));
+        }
+        mongo.resetQueries();
+
+        final var decoded = edges.documentsToEdges(documents);
+
+        assertEquals(1, mongo.queries());
+        assertEquals(saved.stream().map(Edge::locator).toList(), decoded.stream().map(Edge::locator).toList());
+        for (var i = 0; i < decoded.size(); i++) {
+            assertSame(decoded.get(0).source(), decoded.get(i).source());
+            assertEquals(saved.get(i).target().locator(), decoded.get(i).target().locator());
+            assertEquals(saved.get(i).data(), decoded.get(i).data());
+        }
+    }
+
+    @Test
+    void splitsLargeLookupsIntoBatches() {
+
+        final var locators = new ArrayList<Locator>();
+        for (var i = 0; i <= MongoHelper.IN_BATCH_SIZE; i++) {
+            locators.add(node().locator());
+        }
+        locators.add(Locator.generate());
+        mongo.resetQueries();
+
+        final var found = nodes.findByLocators(locators);
+
+        assertEquals(2, mongo.queries());
+        assertEquals(MongoHelper.IN_BATCH_SIZE + 1, found.size());
+        assertEquals(List.of(), MongoHelper.locatorsFilters(List.of()));
+    }
+
+    @Test
+    void findsActiveEdgeWithItsEndpoints() {
+
+        final var source = node();
+        final var target = node();
+        final var edge = edge(source, target);
+        mongo.resetQueries();
+
+        final var found = edges.findActive(edge.locator().id()).orElseThrow();
+
+        assertEquals(2, mongo.queries());
+        assertEquals(source.locator(), found.source().locator());
+        assertEquals(target.locator(), found.target().locator());
+    }
+
+    @Test
+    void rejectsEdgeWithMissingEndpoint() {
+
+        final var missing = new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "x"),
+                NOW, Optional.empty());
+        final var document = edges.toDocument(new SimpleEdge(Locator.generate(), node(), missing,
+                new SimpleData(String.class, "edge"), NOW, Optional.empty()));
+
+        final var thrown = assertThrows(RuntimeException.class, () -> edges.documentsToEdges(List.of(document)));
+
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+    }
+
+    private Edge edge(final Node source, final Node target) {
+
+        return edges.save(new SimpleEdge(Locator.generate(), source, target, new SimpleData(String.class, "edge"),
+                NOW, Optional.empty()));
+    }
+
+    private Node node() {
+
+        return nodes.save(new SimpleNode(Locator.generate(), new ArrayList<>(), new SimpleData(String.class, "node"),
+                NOW, Optional.empty()));
+    }
+}
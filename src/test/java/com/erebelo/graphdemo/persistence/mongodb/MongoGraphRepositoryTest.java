@@ -0,0 +1,158 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence.mongodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.api.impl.DefaultNodeService;
+import com.erebelo.graphdemo.common.version.Locator;
+import com.erebelo.graphdemo.model.Edge;
+import com.erebelo.graphdemo.model.Node;
+import com.erebelo.graphdemo.model.jgrapht.EdgeOperations;
+import com.erebelo.graphdemo.model.jgrapht.GraphOperations;
+import com.erebelo.graphdemo.model.jgrapht.NodeOperations;
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import com.erebelo.graphdemo.model.simple.SimpleEdge;
+import com.erebelo.graphdemo.model.simple.SimpleNode;
+import com.erebelo.graphdemo.persistence.DelegatedGraphListenerRepository;
+import com.erebelo.graphdemo.persistence.GraphWrite;
+import com.mongodb.client.ClientSession;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests flushing graph writes to MongoDB as ordered bulk batches.
+ */
+class MongoGraphRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final InMemoryMongo mongo = new InMemoryMongo();
+    private final PayloadCodec codec = new PayloadCodec(PayloadCodec.Format.JSON);
+    private final MongoNodeRepository nodes = new MongoNodeRepository(mongo.database(), codec);
+    private final MongoEdgeRepository edges = new MongoEdgeRepository(mongo.database(), nodes, codec);
+
+    @Test
+    void splitsWritesIntoBatchesPerCollection() {
+
+        final var repository = repository(new MongoBulkWriter(2));
+        final var writes = new ArrayList<GraphWrite>();
+        final var saved = new ArrayList<Node>();
+        for (var i = 0; i < 5; i++) {
+            final var node = node(Locator.generate());
+            saved.add(node);
+            writes.add(GraphWrite.saveNode(node));
+        }
+        writes.add(GraphWrite.saveEdge(new SimpleEdge(Locator.generate(), saved.get(0), saved.get(1),
+                new SimpleData(String.class, "edge"), NOW, Optional.empty())));
+
+        repository.writeAll(writes);
+
+        assertEquals(List.of(new InMemoryMongo.Batch("nodes", 2, null), new InMemoryMongo.Batch("nodes", 2, null),
+                new InMemoryMongo.Batch("nodes", 1, null), new InMemoryMongo.Batch("edges", 1, null)),
+                mongo.batches());
+        for (final var node : saved) {
+            assertEquals(node.locator(), nodes.find(node.locator()).orElseThrow().locator());
+        }
+    }
+
+    @Test
+    void expiresVersionBeforeSavingTheNext() {
+
+        final var repository = repository(new MongoBulkWriter(10));
+        final var first = node(Locator.generate());
+        final var second = node(first.locator().increment());
+        repository.writeAll(List.of(GraphWrite.saveNode(first)));
+
+        repository.writeAll(List.of(GraphWrite.expireNode(first, NOW.plusSeconds(5)), GraphWrite.saveNode(second)));
+
+        final var versions = nodes.findAll(first.locator().id());
+        assertEquals(List.of(first.locator(), second.locator()), versions.stream().map(Node::locator).toList());
+        assertEquals(Optional.of(NOW.plusSeconds(5)), versions.get(0).expired());
+        assertTrue(versions.get(1).expired().isEmpty());
+        // A replayed save is an upsert rather than a second copy
+        repository.writeAll(List.of(GraphWrite.saveNode(second)));
+        assertEquals(2, nodes.findAll(first.locator().id()).size());
+    }
+
+    @Test
+    void writesInSessionBoundToThread() {
+
+        final var session = InMemoryMongo.session();
+        final var fixed = InMemoryMongo.session();
+        TransactionSynchronizationManager.bindResource(MongoTransactionManager.SESSION_KEY, session);
+        try {
+            repository(new MongoBulkWriter(10)).writeAll(List.of(GraphWrite.saveNode(node(Locator.generate()))));
+            repository(new MongoBulkWriter(10, fixed))
+                    .writeAll(List.of(GraphWrite.saveNode(node(Locator.generate()))));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(MongoTransactionManager.SESSION_KEY);
+        }
+        repository(new MongoBulkWriter(10)).writeAll(List.of(GraphWrite.saveNode(node(Locator.generate()))));
+
+        final List<ClientSession> sessions = mongo.batches().stream().map(InMemoryMongo.Batch::session).toList();
+        assertSame(session, sessions.get(0));
+        assertSame(fixed, sessions.get(1));
+        assertNull(sessions.get(2));
+    }
+
+    @Test
+    void persistsExpiryReturnedByOperations() {
+
+        final var graph = new DefaultListenableGraph<Node, Edge>(new DefaultDirectedGraph<>(null, null, false));
+        final var graphOperations = new GraphOperations(graph);
+        final var edgeOperations = new EdgeOperations(graph, graphOperations);
+        final var nodeOperations = new NodeOperations(graph, edgeOperations, graphOperations);
+        final var repository = repository(new MongoBulkWriter(10));
+        final var listener = new DelegatedGraphListenerRepository(repository, graphOperations);
+        graph.addGraphListener(listener);
+        graphOperations.addCommitListener(listener::flush);
+        final var service = new DefaultNodeService(repository, nodeOperations, graphOperations, listener);
+
+        final var a = nodeOperations.add(new SimpleData(String.class, "a"), NOW);
+        final var b = nodeOperations.add(new SimpleData(String.class, "b"), NOW);
+        final var edge = edgeOperations.add(a, b, new SimpleData(String.class, "edge"), NOW);
+        nodeOperations.update(a.locator().id(), new SimpleData(String.class, "a2"), NOW.plusSeconds(10));
+        final var expired = nodeOperations.expire(b.locator().id(), NOW.plusSeconds(20));
+
+        final var persistedA = service.findAllVersions(a.locator().id());
+        assertEquals(nodeOperations.findAllVersions(a.locator().id()).stream().map(Node::expired).toList(),
+                persistedA.stream().map(Node::expired).toList());
+        assertEquals(Optional.of(NOW.plusSeconds(10)), persistedA.get(0).expired());
+        assertEquals(expired.expired(), service.findAllVersions(b.locator().id()).get(0).expired());
+        assertEquals(Optional.of(NOW.plusSeconds(10)),
+                repository.edges().findAll(edge.locator().id()).get(0).expired());
+        final var retargeted = edgeOperations.allAt(NOW.plusSeconds(15));
+        assertEquals(1, retargeted.size());
+        for (final var active : retargeted) {
+            assertEquals(Optional.of(NOW.plusSeconds(20)),
+                    repository.edges().find(active.locator()).orElseThrow().expired());
+        }
+    }
+
+    private MongoGraphRepository repository(final MongoBulkWriter bulkWriter) {
+
+        return new MongoGraphRepository(nodes, edges,
+                new MongoComponentRepository(mongo.database(), nodes, edges, codec),
+                new MongoGraphOperations(mongo.database(), nodes, edges), bulkWriter);
+    }
+
+    private static Node node(final Locator locator) {
+
+        return new SimpleNode(locator, new ArrayList<>(), new SimpleData(String.class, "node"), NOW,
+                Optional.empty());
+    }
+}
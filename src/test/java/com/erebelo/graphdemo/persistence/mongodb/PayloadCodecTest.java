@@ -0,0 +1,60 @@
+/*
+ * Insouciant Qualms © 2025 by Sascha Goldsmith is licensed under CC BY 4.0.
+ * To view a copy of this license, visit https://creativecommons.org/licenses/by/4.0.
+ * To reach the creator, visit https://www.linkedin.com/in/saschagoldsmith.
+ */
+
+package com.erebelo.graphdemo.persistence.mongodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.erebelo.graphdemo.model.simple.SimpleData;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests selecting the payload format and registering Smile types.
+ */
+class PayloadCodecTest {
+
+    private static final SimpleData POINT = new SimpleData(Point.class, new Point(1, 2));
+
+    @Test
+    void writesRegisteredTypesByCode() {
+
+        final var registered = PayloadCodec.of("smile", List.of(" " + Point.class.getName()));
+        final var unregistered = PayloadCodec.of("SMILE");
+
+        final var coded = (Binary) registered.encode(POINT);
+        final var named = (Binary) unregistered.encode(POINT);
+
+        assertFalse(text(coded).contains(Point.class.getName()));
+        assertTrue(text(named).contains(Point.class.getName()));
+        assertEquals(POINT, registered.decode(coded));
+        assertEquals(POINT, registered.decode(named));
+    }
+
+    @Test
+    void rejectsUnknownFormatsAndTypes() {
+
+        assertEquals(PayloadCodec.Format.JSON, PayloadCodec.of("json", List.of("")).format());
+        assertThrows(IllegalArgumentException.class, () -> PayloadCodec.of("xml"));
+        assertThrows(IllegalArgumentException.class, () -> PayloadCodec.of("smile", List.of("no.such.Type")));
+    }
+
+    private static String text(final Binary binary) {
+
+        return new String(binary.getData(), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Payload type known only to the deployment.
+     */
+    public record Point(int x, int y) {
+    }
+}